@@ -35,7 +35,6 @@ public class MainIntegrationTest {
         logger.setFormat(cliArgs.getFormat());
 
         ConnectionConfig connectionConfig = new ConnectionConfig(
-                logger,
                 cliArgs.getScheme(),
                 cliArgs.getHost(),
                 cliArgs.getPort(),
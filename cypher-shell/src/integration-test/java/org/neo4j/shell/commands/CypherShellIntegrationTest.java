@@ -6,14 +6,14 @@ import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
-import org.mockito.ArgumentCaptor;
 import org.neo4j.shell.ConnectionConfig;
 import org.neo4j.shell.CypherShell;
 import org.neo4j.shell.cli.Format;
 import org.neo4j.shell.exception.CommandException;
 import org.neo4j.shell.log.Logger;
 
-import java.util.List;
+import java.io.PrintWriter;
+import java.io.StringWriter;
 import java.util.Optional;
 
 import static org.hamcrest.CoreMatchers.containsString;
@@ -23,14 +23,13 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
-import static org.mockito.Mockito.times;
-import static org.mockito.Mockito.verify;
 
 public class CypherShellIntegrationTest {
     @Rule
     public final ExpectedException thrown = ExpectedException.none();
 
     private Logger logger = mock(Logger.class);
+    private final StringWriter data = new StringWriter();
     private Command rollbackCommand;
     private Command commitCommand;
     private Command beginCommand;
@@ -39,13 +38,15 @@ public class CypherShellIntegrationTest {
     @Before
     public void setUp() throws Exception {
         doReturn(Format.VERBOSE).when(logger).getFormat();
+        // Results are written to the data writer, which a mocked logger does not have
+        doReturn(new PrintWriter(data)).when(logger).getDataWriter();
 
         shell = new CypherShell(logger);
         rollbackCommand = new Rollback(shell);
         commitCommand = new Commit(shell);
         beginCommand = new Begin(shell);
 
-        shell.connect(new ConnectionConfig(logger, "bolt://", "localhost", 7687, "neo4j", "neo", true));
+        shell.connect(new ConnectionConfig("bolt://", "localhost", 7687, "neo4j", "neo", true));
     }
 
     @After
@@ -53,17 +54,18 @@ public class CypherShellIntegrationTest {
         shell.execute("MATCH (n) DETACH DELETE (n)");
     }
 
+    private String printedOutput() {
+        return data.toString();
+    }
+
     @Test
     public void cypherWithNoReturnStatements() throws CommandException {
         //when
         shell.execute("CREATE (:TestPerson {name: \"Jane Smith\"})");
 
         //then
-        ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
-        verify(logger, times(1)).printOut(captor.capture());
-
-        List<String> result = captor.getAllValues();
-        assertThat(result.get(0), containsString("Added 1 nodes, Set 1 properties, Added 1 labels"));
+        String actual = printedOutput();
+        assertThat(actual, containsString("Added 1 nodes, Set 1 properties, Added 1 labels"));
     }
 
     @Test
@@ -72,13 +74,10 @@ public class CypherShellIntegrationTest {
         shell.execute("CREATE (jane :TestPerson {name: \"Jane Smith\"}) RETURN jane");
 
         //then
-        ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
-        verify(logger, times(1)).printOut(captor.capture());
-
-        List<String> result = captor.getAllValues();
-        assertThat(result.get(0), containsString("| jane "));
-        assertThat(result.get(0), containsString("| (:TestPerson {name: \"Jane Smith\"}) |" ));
-        assertThat(result.get(0), containsString("Added 1 nodes, Set 1 properties, Added 1 labels"));
+        String actual = printedOutput();
+        assertThat(actual, containsString("| jane "));
+        assertThat(actual, containsString("| (:TestPerson {name: \"Jane Smith\"}) |" ));
+        assertThat(actual, containsString("Added 1 nodes, Set 1 properties, Added 1 labels"));
     }
 
     @Test
@@ -87,11 +86,7 @@ public class CypherShellIntegrationTest {
         shell.execute("CYPHER RUNTIME=INTERPRETED PROFILE RETURN null");
 
         //then
-        ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
-        verify(logger, times(1)).printOut(captor.capture());
-
-        List<String> result = captor.getAllValues();
-        String actual = result.get(0);
+        String actual = printedOutput();
         assertThat(actual, containsString("+------+\n| null |\n+------+\n| NULL |\n+------+"));
         assertThat(actual, containsString("| \"PROFILE\" | \"READ_ONLY\" | \"CYPHER 3." ));
         assertThat(actual, containsString("| \"COST\"  | \"INTERPRETED\" | " ));
@@ -108,11 +103,7 @@ public class CypherShellIntegrationTest {
         shell.execute("CYPHER RUNTIME=INTERPRETED EXPLAIN RETURN null");
 
         //then
-        ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
-        verify(logger, times(1)).printOut(captor.capture());
-
-        List<String> result = captor.getAllValues();
-        String actual = result.get(0);
+        String actual = printedOutput();
         assertThat(actual, containsString("| \"EXPLAIN\" | \"READ_ONLY\" | \"CYPHER "));
         assertThat(actual, containsString("| \"COST\"  | \"INTERPRETED\" |"));
         assertThat(actual, containsString("| Operator        | Estimated Rows | Identifiers | Other           |" ));
@@ -126,7 +117,7 @@ public class CypherShellIntegrationTest {
         thrown.expect(CommandException.class);
         thrown.expectMessage("Already connected");
 
-        ConnectionConfig config = new ConnectionConfig(logger, "bolt://", "localhost", 7687, "neo4j", "neo", true);
+        ConnectionConfig config = new ConnectionConfig("bolt://", "localhost", 7687, "neo4j", "neo", true);
         assertTrue("Shell should already be connected", shell.isConnected());
         shell.connect(config);
     }
@@ -144,12 +135,9 @@ public class CypherShellIntegrationTest {
         //then
         shell.execute("MATCH (n:TestPerson) RETURN n ORDER BY n.name");
 
-        ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
-        verify(logger, times(2)).printOut(captor.capture());
-
-        List<String> result = captor.getAllValues();
-        assertThat(result.get(1), containsString("| n "));
-        assertThat(result.get(1), containsString("| (:TestPerson {name: \"Jane Smith\"}) |"));
+        String actual = printedOutput();
+        assertThat(actual, containsString("| n "));
+        assertThat(actual, containsString("| (:TestPerson {name: \"Jane Smith\"}) |"));
     }
 
     @Test
@@ -162,11 +150,8 @@ public class CypherShellIntegrationTest {
         shell.execute("CREATE (:TestPerson {name: \"Jane Smith\"})");
         shell.execute("MATCH (n:TestPerson) RETURN n ORDER BY n.name");
 
-        ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
-        verify(logger, times(3)).printOut(captor.capture());
-
-        List<String> result = captor.getAllValues();
-        assertThat(result.get(2), containsString("| (:TestPerson {name: \"Jane Smith\"}) |" +
+        String actual = printedOutput();
+        assertThat(actual, containsString("| (:TestPerson {name: \"Jane Smith\"}) |" +
                 "\n| (:TestPerson {name: \"Jane Smith\"}) |"));
     }
 
@@ -181,11 +166,8 @@ public class CypherShellIntegrationTest {
         shell.execute("CREATE (:TestPerson {name: \"Jane Smith\"})");
         shell.execute("MATCH (n:TestPerson) RETURN n ORDER BY n.name");
 
-        ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
-        verify(logger, times(2)).printOut(captor.capture());
-
-        List<String> result = captor.getAllValues();
-        assertThat(result.get(1), containsString("| (:TestPerson {name: \"Jane Smith\"}) |"));
+        String actual = printedOutput();
+        assertThat(actual, containsString("| (:TestPerson {name: \"Jane Smith\"}) |"));
     }
 
     @Test
@@ -198,11 +180,8 @@ public class CypherShellIntegrationTest {
 
         //then
 
-        ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
-        verify(logger, times(3)).printOut(captor.capture());
-
-        List<String> result = captor.getAllValues();
-        assertThat(result.get(2),
+        String actual = printedOutput();
+        assertThat(actual,
                 containsString("\n| (:TestPerson {name: \"Jane Smith\"}) |\n| (:TestPerson {name: \"Joe Smith\"})  |\n"));
     }
 
@@ -217,12 +196,9 @@ public class CypherShellIntegrationTest {
 
         shell.execute("RETURN { bob }");
 
-        ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
-        verify(logger).printOut(captor.capture());
-
-        List<String> queryResult = captor.getAllValues();
-        assertThat(queryResult.get(0), containsString("| { bob }"));
-        assertThat(queryResult.get(0), containsString("\n| " + randomLong+ " |\n"));
+        String actual = printedOutput();
+        assertThat(actual, containsString("| { bob }"));
+        assertThat(actual, containsString("\n| " + randomLong+ " |\n"));
         assertEquals(randomLong, shell.getAll().get("bob"));
     }
 
@@ -237,12 +213,9 @@ public class CypherShellIntegrationTest {
 
         shell.execute("RETURN { `bob` }");
 
-        ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
-        verify(logger).printOut(captor.capture());
-
-        List<String> queryResult = captor.getAllValues();
-        assertThat(queryResult.get(0), containsString("| { `bob` }"));
-        assertThat(queryResult.get(0), containsString("\n| " + randomLong+ " |\n"));
+        String actual = printedOutput();
+        assertThat(actual, containsString("| { `bob` }"));
+        assertThat(actual, containsString("\n| " + randomLong+ " |\n"));
         assertEquals(randomLong, shell.getAll().get("bob"));
     }
 }
@@ -0,0 +1,16 @@
+package org.neo4j.shell;
+
+/**
+ * An object which keeps how wide the columns of printed tables may be.
+ */
+public interface ColumnWidthHolder {
+    /**
+     * @return how wide columns may be, 0 for no limit
+     */
+    int getMaxColumnWidth();
+
+    /**
+     * @param maxColumnWidth how wide columns may be, 0 for no limit
+     */
+    void setMaxColumnWidth(int maxColumnWidth);
+}
@@ -1,8 +1,7 @@
 package org.neo4j.shell;
 
 import org.neo4j.driver.v1.Config;
-import org.neo4j.shell.log.AnsiFormattedText;
-import org.neo4j.shell.log.Logger;
+import org.neo4j.shell.cli.AccessModePolicy;
 
 import javax.annotation.Nonnull;
 
@@ -11,26 +10,33 @@ public class ConnectionConfig {
     private final String host;
     private final int port;
     private final Config.EncryptionLevel encryption;
+    private final AccessModePolicy accessModePolicy;
+    private final int maxRows;
     private String username;
     private String password;
 
-    public ConnectionConfig(@Nonnull Logger logger, @Nonnull String scheme, @Nonnull String host, int port,
+    public ConnectionConfig(@Nonnull String scheme, @Nonnull String host, int port,
                             @Nonnull String username, @Nonnull String password, boolean encryption) {
+        this(scheme, host, port, username, password, encryption, AccessModePolicy.AUTO);
+    }
+
+    public ConnectionConfig(@Nonnull String scheme, @Nonnull String host, int port,
+                            @Nonnull String username, @Nonnull String password, boolean encryption,
+                            @Nonnull AccessModePolicy accessModePolicy) {
+        this(scheme, host, port, username, password, encryption, accessModePolicy, 0);
+    }
+
+    public ConnectionConfig(@Nonnull String scheme, @Nonnull String host, int port,
+                            @Nonnull String username, @Nonnull String password, boolean encryption,
+                            @Nonnull AccessModePolicy accessModePolicy, int maxRows) {
+        this.scheme = scheme;
         this.host = host;
         this.port = port;
         this.username = fallbackToEnvVariable(username, "NEO4J_USERNAME");
         this.password = fallbackToEnvVariable(password, "NEO4J_PASSWORD");
         this.encryption = encryption ? Config.EncryptionLevel.REQUIRED : Config.EncryptionLevel.NONE;
-
-        if ("bolt+routing://".equalsIgnoreCase(scheme)) {
-            logger.printError(
-                    AnsiFormattedText.s()
-                                     .colorRed()
-                                     .append("Routing is not supported by cypher-shell. Falling back to direct connection.")
-                                     .formattedString());
-            scheme = "bolt://";
-        }
-        this.scheme = scheme;
+        this.accessModePolicy = accessModePolicy;
+        this.maxRows = maxRows;
     }
 
     /**
@@ -79,6 +85,18 @@ public class ConnectionConfig {
         return encryption;
     }
 
+    @Nonnull
+    public AccessModePolicy accessModePolicy() {
+        return accessModePolicy;
+    }
+
+    /**
+     * @return how many records of a result are fetched, 0 for all of them
+     */
+    public int maxRows() {
+        return maxRows;
+    }
+
     public void setUsername(@Nonnull String username) {
         this.username = username;
     }
@@ -1,47 +1,69 @@
 package org.neo4j.shell;
 
+import org.neo4j.driver.v1.Record;
 import org.neo4j.shell.commands.Command;
 import org.neo4j.shell.commands.CommandExecutable;
 import org.neo4j.shell.commands.CommandHelper;
 import org.neo4j.shell.exception.CommandException;
 import org.neo4j.shell.exception.ExitException;
+import org.neo4j.shell.exception.PagerQuitException;
 import org.neo4j.shell.log.Logger;
+import org.neo4j.shell.parser.LiteralParser;
+import org.neo4j.shell.parser.StatementClassifier;
 import org.neo4j.shell.prettyprint.CypherVariablesFormatter;
+import org.neo4j.shell.prettyprint.PrettyConfig;
 import org.neo4j.shell.prettyprint.PrettyPrinter;
 import org.neo4j.shell.state.BoltResult;
 import org.neo4j.shell.state.BoltStateHandler;
+import org.neo4j.shell.state.ParamMap;
 
 import javax.annotation.Nonnull;
-import java.util.HashMap;
-import java.util.List;
+import javax.annotation.Nullable;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 /**
  * A possibly interactive shell for evaluating cypher statements.
  */
-public class CypherShell implements StatementExecuter, Connector, TransactionHandler, VariableHolder {
+public class CypherShell implements StatementExecuter, Connector, TransactionHandler, VariableHolder,
+        ColumnWidthHolder {
     // Final space to catch newline
     protected static final Pattern cmdNamePattern = Pattern.compile("^\\s*(?<name>[^\\s]+)\\b(?<args>.*)\\s*$");
-    protected final Map<String, Object> queryParams = new HashMap<>();
+    // Shared with forks, each statement runs with the version current when it was executed
+    protected final AtomicReference<ParamMap> queryParams;
     private final Logger logger;
     private final BoltStateHandler boltStateHandler;
     private final PrettyPrinter prettyPrinter;
     protected CommandHelper commandHelper;
 
     public CypherShell(@Nonnull Logger logger) {
-        this(logger, new BoltStateHandler(), new PrettyPrinter(logger.getFormat()));
+        this(logger, new PrettyConfig(logger.getFormat()));
+    }
+
+    public CypherShell(@Nonnull Logger logger, @Nonnull PrettyConfig prettyConfig) {
+        this(logger, new BoltStateHandler(), new PrettyPrinter(prettyConfig));
     }
 
     protected CypherShell(@Nonnull Logger logger,
                           @Nonnull BoltStateHandler boltStateHandler,
                           @Nonnull PrettyPrinter prettyPrinter) {
+        this(logger, boltStateHandler, prettyPrinter, new AtomicReference<>(ParamMap.EMPTY));
+        // Only here, forks come and go with the statements they run and are closed by whoever created them
+        addRuntimeHookToResetShell();
+    }
+
+    private CypherShell(@Nonnull Logger logger,
+                        @Nonnull BoltStateHandler boltStateHandler,
+                        @Nonnull PrettyPrinter prettyPrinter,
+                        @Nonnull AtomicReference<ParamMap> queryParams) {
         this.logger = logger;
+        this.queryParams = queryParams;
         this.boltStateHandler = boltStateHandler;
         this.prettyPrinter = prettyPrinter;
-        addRuntimeHookToResetShell();
     }
 
     /**
@@ -80,8 +102,58 @@ public class CypherShell implements StatementExecuter, Connector, TransactionHan
      * @param cypher non-empty cypher text to executeLine
      */
     protected void executeCypher(@Nonnull final String cypher) throws CommandException {
-        final Optional<BoltResult> result = boltStateHandler.runCypher(cypher, queryParams);
-        result.ifPresent(boltResult -> logger.printOut(prettyPrinter.format(boltResult)));
+        final Optional<BoltResult> result = boltStateHandler.runCypher(cypher, paramsFor(cypher));
+        result.ifPresent(r -> printResult(cypher, r));
+    }
+
+    /**
+     * Executes Cypher with the given parameters in addition to the parameters set in the shell
+     *
+     * @param cypher non-empty cypher text to execute
+     * @param params to add, replacing any parameters with the same names
+     */
+    public void executeCypher(@Nonnull final String cypher, @Nonnull final Map<String, Object> params)
+            throws CommandException {
+        if (!isConnected()) {
+            throw new CommandException("Not connected to Neo4j");
+        }
+        final Optional<BoltResult> result = boltStateHandler.runCypher(cypher, paramsFor(cypher).withAll(params));
+        result.ifPresent(r -> printResult(cypher, r));
+    }
+
+    private void printResult(@Nonnull String cypher, @Nonnull BoltResult result) {
+        try {
+            prettyPrinter.format(result, logger.getDataWriter());
+        } catch (PagerQuitException e) {
+            // Stopping a statement rolls back its writes, so the rest of their result is consumed without printing it
+            if (!StatementClassifier.isReadOnly(cypher)) {
+                Iterator<Record> records = result.iterate();
+                while (records.hasNext()) {
+                    records.next();
+                }
+                result.getSummary();
+            }
+            throw e;
+        }
+        // On stderr, so that the data stays readable in every format
+        String note = result.getTruncationNote();
+        if (note != null && !note.isEmpty()) {
+            logger.printError(note);
+        }
+    }
+
+    /**
+     * @return the parameters of the shell which the cypher refers to, so unused parameters are not sent
+     */
+    @Nonnull
+    private ParamMap paramsFor(@Nonnull String cypher) {
+        final ParamMap params = queryParams.get();
+        final ParamMap referenced = StatementClassifier.referencedParameters(cypher).map(params::only).orElse(params);
+        if (logger.isDebugEnabled() && referenced.size() < params.size()) {
+            logger.printIfDebug(String.format("Sending %d of %d parameters, %d bytes saved",
+                    referenced.size(), params.size(), params.packedSize() - referenced.packedSize()));
+        }
+        return referenced;
     }
 
     @Override
@@ -134,10 +206,8 @@ public class CypherShell implements StatementExecuter, Connector, TransactionHan
     }
 
     @Override
-    public Optional<List<BoltResult>> commitTransaction() throws CommandException {
-        Optional<List<BoltResult>> results = boltStateHandler.commitTransaction();
-        results.ifPresent(boltResult -> boltResult.forEach(result -> logger.printOut(prettyPrinter.format(result))));
-        return results;
+    public void commitTransaction() throws CommandException {
+        boltStateHandler.commitTransaction();
     }
 
     @Override
@@ -153,16 +223,29 @@ public class CypherShell implements StatementExecuter, Connector, TransactionHan
     @Override
     @Nonnull
     public Optional set(@Nonnull String name, @Nonnull String valueString) throws CommandException {
-        final BoltResult result = setParamsAndValidate(name, valueString);
         String parameterName = CypherVariablesFormatter.unescapedCypherVariable(name);
-        final Object value = result.getRecords().get(0).get(parameterName).asObject();
-        queryParams.put(parameterName, value);
+        final Object value = evaluate(name, parameterName, valueString);
+        queryParams.updateAndGet(params -> params.with(parameterName, value));
         return Optional.ofNullable(value);
     }
 
+    /**
+     * Literals are evaluated locally, anything else is left to the server.
+     */
+    @Nullable
+    private Object evaluate(@Nonnull String name, @Nonnull String parameterName, @Nonnull String valueString)
+            throws CommandException {
+        try {
+            return LiteralParser.parseCypher(valueString, queryParams.get());
+        } catch (CommandException e) {
+            final BoltResult result = setParamsAndValidate(name, valueString);
+            return result.getRecords().get(0).get(parameterName).asObject();
+        }
+    }
+
     private BoltResult setParamsAndValidate(@Nonnull String name, @Nonnull String valueString) throws CommandException {
         String cypher = "RETURN " + valueString + " as " + name;
-        final Optional<BoltResult> result = boltStateHandler.runCypher(cypher, queryParams);
+        final Optional<BoltResult> result = boltStateHandler.runCypher(cypher, paramsFor(cypher));
         if (!result.isPresent() || result.get().getRecords().isEmpty()) {
             throw new CommandException("Failed to set value of parameter");
         }
@@ -172,7 +255,20 @@ public class CypherShell implements StatementExecuter, Connector, TransactionHan
     @Override
     @Nonnull
     public Map<String, Object> getAll() {
-        return queryParams;
+        return queryParams.get();
+    }
+
+    @Override
+    public int getMaxColumnWidth() {
+        return prettyPrinter.getMaxColumnWidth();
+    }
+
+    /**
+     * Also changes the width for forks, which share the printer of this shell
+     */
+    @Override
+    public void setMaxColumnWidth(int maxColumnWidth) {
+        prettyPrinter.setMaxColumnWidth(maxColumnWidth);
     }
 
     public void setCommandHelper(@Nonnull CommandHelper commandHelper) {
@@ -184,6 +280,23 @@ public class CypherShell implements StatementExecuter, Connector, TransactionHan
         boltStateHandler.reset();
     }
 
+    /**
+     * Creates a shell with a session of its own on the same connection, for running statements concurrently. The fork
+     * prints to the given logger and shares the parameters of this shell.
+     * It has no commands, so only Cypher can be executed by it.
+     */
+    @Nonnull
+    public CypherShell fork(@Nonnull Logger logger) throws CommandException {
+        return new CypherShell(logger, boltStateHandler.fork(), prettyPrinter, queryParams);
+    }
+
+    /**
+     * Close the session of this shell, without closing the connection shared with any forks.
+     */
+    public void disconnectSession() {
+        boltStateHandler.disconnectSession();
+    }
+
     protected void addRuntimeHookToResetShell() {
         Runtime.getRuntime().addShutdownHook(new Thread() {
             @Override
@@ -8,13 +8,21 @@ import org.neo4j.shell.cli.CliArgHelper;
 import org.neo4j.shell.cli.CliArgs;
 import org.neo4j.shell.commands.CommandHelper;
 import org.neo4j.shell.exception.CommandException;
+import org.neo4j.shell.cli.Format;
 import org.neo4j.shell.log.AnsiLogger;
 import org.neo4j.shell.log.Logger;
+import org.neo4j.shell.log.OutputFile;
+import org.neo4j.shell.prettyprint.CypherVariablesFormatter;
+import org.neo4j.shell.prettyprint.PrettyConfig;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.PrintStream;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Paths;
 
 import static org.neo4j.shell.ShellRunner.isInputInteractive;
 
@@ -53,20 +61,32 @@ public class Main {
             out.println("Cypher-Shell " + Build.version());
             return;
         }
-        Logger logger = new AnsiLogger(cliArgs.getDebugMode());
+        OutputStream dataOutput = null;
+        if (cliArgs.getOutputFile().isPresent()) {
+            try {
+                dataOutput = OutputFile.open(Paths.get(cliArgs.getOutputFile().get()));
+            } catch (IOException | InvalidPathException e) {
+                System.err.println("Failed to open the output file: " + e.getMessage());
+                System.exit(1);
+            }
+        }
+        Logger logger = new AnsiLogger(cliArgs.getDebugMode(), Format.VERBOSE, System.out, System.err, dataOutput);
         logger.setFormat(cliArgs.getFormat());
 
         ConnectionConfig connectionConfig = new ConnectionConfig(
-                logger,
                 cliArgs.getScheme(),
                 cliArgs.getHost(),
                 cliArgs.getPort(),
                 cliArgs.getUsername(),
                 cliArgs.getPassword(),
-                cliArgs.getEncryption());
+                cliArgs.getEncryption(),
+                cliArgs.getAccessModePolicy(),
+                cliArgs.getMaxRows());
 
         try {
-            CypherShell shell = new CypherShell(logger);
+            PrettyConfig prettyConfig = dataOutput == null ? new PrettyConfig(cliArgs) :
+                    new PrettyConfig(cliArgs, new PrintStream(dataOutput));
+            CypherShell shell = new CypherShell(logger, prettyConfig);
             // Can only prompt for password if input has not been redirected
             connectMaybeInteractively(shell, connectionConfig, isInputInteractive());
 
@@ -78,6 +98,8 @@ public class Main {
             shell.setCommandHelper(commandHelper);
 
             int code = shellRunner.runUntilEnd();
+            logger.getDataWriter().flush();
+            logger.printIfDebug(CypherVariablesFormatter.cacheStatistics());
             System.exit(code);
         } catch (Throwable e) {
             logger.printError(e);
@@ -1,15 +1,27 @@
 package org.neo4j.shell;
 
+import org.neo4j.shell.cli.BatchingShellRunner;
 import org.neo4j.shell.cli.CliArgs;
 import org.neo4j.shell.cli.FileHistorian;
 import org.neo4j.shell.cli.InteractiveShellRunner;
 import org.neo4j.shell.cli.NonInteractiveShellRunner;
+import org.neo4j.shell.cli.ParallelShellRunner;
+import org.neo4j.shell.cli.ParamRowsRunner;
+import org.neo4j.shell.cli.RowFormat;
 import org.neo4j.shell.cli.StringShellRunner;
 import org.neo4j.shell.log.Logger;
+import org.neo4j.shell.parser.CsvRowReader;
+import org.neo4j.shell.parser.JsonLinesRowReader;
+import org.neo4j.shell.parser.RowReader;
 import org.neo4j.shell.parser.ShellStatementParser;
 
 import javax.annotation.Nonnull;
+import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 
 import static org.fusesource.jansi.internal.CLibrary.STDIN_FILENO;
 import static org.fusesource.jansi.internal.CLibrary.STDOUT_FILENO;
@@ -46,19 +58,47 @@ public interface ShellRunner {
                                       @Nonnull CypherShell cypherShell,
                                       @Nonnull Logger logger,
                                       @Nonnull ConnectionConfig connectionConfig) throws IOException {
-        if (cliArgs.getCypher().isPresent()) {
+        if (cliArgs.getParamRows().isPresent() && cliArgs.getCypher().isPresent()) {
+            return new ParamRowsRunner(cliArgs.getFailBehavior(), cypherShell, logger, cliArgs.getCypher().get(),
+                    openRowReader(cliArgs.getParamRows().get(), cliArgs.getParamRowsFormat()),
+                    cliArgs.getParamBatchSize(), cliArgs.getParallelism());
+        } else if (cliArgs.getCypher().isPresent()) {
             return new StringShellRunner(cliArgs, cypherShell, logger);
         } else if (shouldBeInteractive(cliArgs)) {
             UserMessagesHandler userMessagesHandler =
                     new UserMessagesHandler(connectionConfig, cypherShell.getServerVersion());
             return new InteractiveShellRunner(cypherShell, cypherShell, logger, new ShellStatementParser(),
-                    System.in, FileHistorian.getDefaultHistoryFile(), userMessagesHandler);
+                    System.in, FileHistorian.getDefaultHistoryFile(), userMessagesHandler,
+                    cliArgs.isPager() && !cliArgs.getOutputFile().isPresent());
+        } else if (cliArgs.isBatching()) {
+            return new BatchingShellRunner(cliArgs.getFailBehavior(), cypherShell, logger,
+                    new ShellStatementParser(), System.in, cliArgs.getTxBatchSize(), cliArgs.getTxBatchTime());
+        } else if (cliArgs.getParallelism() > 1) {
+            return new ParallelShellRunner(cliArgs.getFailBehavior(), cypherShell, logger,
+                    new ShellStatementParser(), System.in, cliArgs.getParallelism());
         } else {
             return new NonInteractiveShellRunner(cliArgs.getFailBehavior(), cypherShell, logger,
                     new ShellStatementParser(), System.in);
         }
     }
 
+    /**
+     * @param fileName of the rows, or "-" for STDIN
+     * @param format of the rows
+     * @return a reader of the rows
+     * @throws IOException if the file could not be opened
+     */
+    @Nonnull
+    static RowReader openRowReader(@Nonnull String fileName, @Nonnull RowFormat format) throws IOException {
+        BufferedReader reader = "-".equals(fileName) ?
+                new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8)) :
+                Files.newBufferedReader(Paths.get(fileName), StandardCharsets.UTF_8);
+        if (format.resolve(fileName) == RowFormat.JSONL) {
+            return new JsonLinesRowReader(reader);
+        }
+        return new CsvRowReader(reader, ',');
+    }
+
     /**
      * @param cliArgs
      * @return true if an interactive shellrunner should be used, false otherwise
@@ -1,10 +1,6 @@
 package org.neo4j.shell;
 
 import org.neo4j.shell.exception.CommandException;
-import org.neo4j.shell.state.BoltResult;
-
-import java.util.List;
-import java.util.Optional;
 
 /**
  * An object capable of starting, committing, and rolling back transactions.
@@ -21,7 +17,7 @@ public interface TransactionHandler {
      *
      * @throws CommandException if current transaction could not be committed
      */
-    Optional<List<BoltResult>> commitTransaction() throws CommandException;
+    void commitTransaction() throws CommandException;
 
     /**
      *
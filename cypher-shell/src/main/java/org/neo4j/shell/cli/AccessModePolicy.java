@@ -0,0 +1,26 @@
+package org.neo4j.shell.cli;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Decides which members of a cluster statements are sent to.
+ */
+public enum AccessModePolicy {
+    // Read only statements are sent to read servers, everything else to the leader. Reads after a write stay on the
+    // leader until a transaction gives a bookmark for them to wait on, so they always observe the writes before them
+    AUTO,
+    // Everything is sent to read servers
+    READ,
+    // Everything is sent to the leader
+    WRITE;
+
+    public static AccessModePolicy parse(@Nonnull String policy) {
+        if (policy.equalsIgnoreCase(READ.name())) {
+            return READ;
+        } else if (policy.equalsIgnoreCase(WRITE.name())) {
+            return WRITE;
+        } else {
+            return AUTO;
+        }
+    }
+}
@@ -0,0 +1,292 @@
+package org.neo4j.shell.cli;
+
+import org.neo4j.driver.v1.exceptions.TransientException;
+import org.neo4j.shell.CypherShell;
+import org.neo4j.shell.exception.CommandException;
+import org.neo4j.shell.exception.ExitException;
+import org.neo4j.shell.log.BufferedLogger;
+import org.neo4j.shell.log.Logger;
+import org.neo4j.shell.parser.StatementParser;
+
+import javax.annotation.Nonnull;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+/**
+ * A shell runner which reads all of STDIN and executes the Cypher statements in transactions of several statements
+ * each, committing when the batch size is reached or the batch has been open for the batch time. Commands, schema
+ * changes and statements in explicit transactions commit the current batch and are executed on their own.
+ *
+ * A batch which fails is rolled back, retried if the error was transient, and then bisected until the failing
+ * statement is found, committing the statements around it in smaller batches. The failBehavior decides if the
+ * statements after a failing statement are tried. The range of every committed batch is reported on the error
+ * stream, numbered by the position of the statements in the input, so a partial import can be resumed.
+ */
+public class BatchingShellRunner extends NonInteractiveShellRunner {
+    private static final int TRANSIENT_RETRIES = 3;
+    private final CypherShell shell;
+    private final int batchSize;
+    private final long batchTimeMillis;
+    private final LongSupplier clock;
+
+    /**
+     * @param batchSize maximum number of statements in a transaction, or 0 for no limit
+     * @param batchTimeMillis maximum time a transaction is kept open, or 0 for no limit
+     */
+    public BatchingShellRunner(@Nonnull FailBehavior failBehavior,
+                               @Nonnull CypherShell shell,
+                               @Nonnull Logger logger,
+                               @Nonnull StatementParser statementParser,
+                               @Nonnull InputStream inputStream,
+                               int batchSize,
+                               long batchTimeMillis) {
+        this(failBehavior, shell, logger, statementParser, inputStream, batchSize, batchTimeMillis,
+                System::currentTimeMillis);
+    }
+
+    BatchingShellRunner(@Nonnull FailBehavior failBehavior,
+                        @Nonnull CypherShell shell,
+                        @Nonnull Logger logger,
+                        @Nonnull StatementParser statementParser,
+                        @Nonnull InputStream inputStream,
+                        int batchSize,
+                        long batchTimeMillis,
+                        @Nonnull LongSupplier clock) {
+        super(failBehavior, shell, logger, statementParser, inputStream);
+        this.shell = shell;
+        this.batchSize = batchSize;
+        this.batchTimeMillis = batchTimeMillis;
+        this.clock = clock;
+    }
+
+    @Override
+    protected int executeAll(@Nonnull List<String> statements) {
+        BufferedLogger output = new BufferedLogger(logger);
+        final CypherShell batchShell;
+        try {
+            // Output of a batch is only printed once it has been committed, so retries do not print it twice
+            batchShell = shell.fork(output);
+        } catch (CommandException e) {
+            logger.printError(e);
+            return 1;
+        }
+        try {
+            return executeInBatches(statements, new Batch(batchShell, output));
+        } finally {
+            if (batchShell.isTransactionOpen()) {
+                rollbackQuietly(batchShell);
+            }
+            batchShell.disconnectSession();
+        }
+    }
+
+    private int executeInBatches(@Nonnull List<String> statements, @Nonnull Batch batch) {
+        int exitCode = 0;
+        for (int i = 0; i < statements.size(); i++) {
+            String statement = statements.get(i);
+            if (mustRunAlone(statement, shell)) {
+                exitCode |= batch.complete();
+                if (exitCode != 0 && FailBehavior.FAIL_AT_END != failBehavior) {
+                    return exitCode;
+                }
+                try {
+                    shell.execute(statement);
+                } catch (ExitException e) {
+                    // These exceptions are always fatal
+                    return e.getCode();
+                } catch (Throwable e) {
+                    exitCode = 1;
+                    logger.printError(e);
+                    if (FailBehavior.FAIL_AT_END != failBehavior) {
+                        return exitCode;
+                    }
+                }
+            } else {
+                batch.add(i + 1, statement);
+                if (batch.isFull()) {
+                    exitCode |= batch.complete();
+                    if (exitCode != 0 && FailBehavior.FAIL_AT_END != failBehavior) {
+                        return exitCode;
+                    }
+                }
+            }
+        }
+        return exitCode | batch.complete();
+    }
+
+    private static void rollbackQuietly(@Nonnull CypherShell batchShell) {
+        try {
+            batchShell.rollbackTransaction();
+        } catch (Throwable ignored) {
+            // The transaction is gone either way
+        }
+    }
+
+    /**
+     * The statements of the transaction currently open, which are executed as soon as they are added
+     */
+    private class Batch {
+        private final CypherShell batchShell;
+        private final BufferedLogger output;
+        private final List<Integer> numbers = new ArrayList<>();
+        private final List<String> statements = new ArrayList<>();
+        private long startedAt;
+        private BatchFailure failure;
+
+        Batch(@Nonnull CypherShell batchShell, @Nonnull BufferedLogger output) {
+            this.batchShell = batchShell;
+            this.output = output;
+        }
+
+        void add(int number, @Nonnull String statement) {
+            numbers.add(number);
+            statements.add(statement);
+            if (statements.size() == 1) {
+                startedAt = clock.getAsLong();
+                try {
+                    batchShell.beginTransaction();
+                } catch (Throwable t) {
+                    failure = new BatchFailure(BatchFailure.UNKNOWN, t);
+                    return;
+                }
+            }
+            try {
+                batchShell.execute(statement);
+            } catch (Throwable t) {
+                failure = new BatchFailure(statements.size() - 1, t);
+            }
+        }
+
+        boolean isFull() {
+            return failure != null ||
+                    (batchSize > 0 && statements.size() >= batchSize) ||
+                    (batchTimeMillis > 0 && clock.getAsLong() - startedAt >= batchTimeMillis);
+        }
+
+        /**
+         * Commit the batch, or find the failing statements if that is not possible
+         *
+         * @return 1 if any statement failed, 0 otherwise
+         */
+        int complete() {
+            if (statements.isEmpty()) {
+                return 0;
+            }
+            try {
+                if (failure == null) {
+                    try {
+                        batchShell.commitTransaction();
+                        committed(numbers);
+                        return 0;
+                    } catch (Throwable t) {
+                        failure = new BatchFailure(BatchFailure.UNKNOWN, t);
+                    }
+                }
+                output.drain();
+                if (batchShell.isTransactionOpen()) {
+                    rollbackQuietly(batchShell);
+                }
+                return recover(numbers, statements, failure);
+            } finally {
+                numbers.clear();
+                statements.clear();
+                failure = null;
+            }
+        }
+
+        /**
+         * Retries statements which failed together. If it is known which statement failed, the statements before
+         * it, the statement itself and the statements after it are retried separately, otherwise the statements are
+         * split in halves, until the failing statements are found.
+         *
+         * @return 1 if any statement failed, 0 otherwise
+         */
+        private int recover(@Nonnull List<Integer> numbers, @Nonnull List<String> statements,
+                            @Nonnull BatchFailure failure) {
+            for (int attempt = 0; failure.getCause() instanceof TransientException && attempt < TRANSIENT_RETRIES;
+                 attempt++) {
+                try {
+                    executeInTransaction(numbers, statements);
+                    return 0;
+                } catch (BatchFailure f) {
+                    failure = f;
+                }
+            }
+            if (statements.size() == 1) {
+                logger.printError(String.format("Statement %d failed", numbers.get(0)));
+                logger.printError(failure.getCause());
+                return 1;
+            }
+            List<Integer> splits = new ArrayList<>();
+            if (failure.index == BatchFailure.UNKNOWN) {
+                splits.add(statements.size() / 2);
+            } else {
+                splits.add(failure.index);
+                splits.add(failure.index + 1);
+            }
+            splits.add(statements.size());
+            int exitCode = 0;
+            int from = 0;
+            for (int to : splits) {
+                if (from < to) {
+                    exitCode |= executeOrRecover(numbers.subList(from, to), statements.subList(from, to));
+                    if (exitCode != 0 && FailBehavior.FAIL_AT_END != failBehavior) {
+                        return exitCode;
+                    }
+                }
+                from = to;
+            }
+            return exitCode;
+        }
+
+        private int executeOrRecover(@Nonnull List<Integer> numbers, @Nonnull List<String> statements) {
+            try {
+                executeInTransaction(numbers, statements);
+                return 0;
+            } catch (BatchFailure f) {
+                return recover(numbers, statements, f);
+            }
+        }
+
+        private void executeInTransaction(@Nonnull List<Integer> numbers, @Nonnull List<String> statements)
+                throws BatchFailure {
+            int index = BatchFailure.UNKNOWN;
+            try {
+                batchShell.beginTransaction();
+                for (index = 0; index < statements.size(); index++) {
+                    batchShell.execute(statements.get(index));
+                }
+                index = BatchFailure.UNKNOWN;
+                batchShell.commitTransaction();
+            } catch (Throwable t) {
+                output.drain();
+                if (batchShell.isTransactionOpen()) {
+                    rollbackQuietly(batchShell);
+                }
+                throw new BatchFailure(index, t);
+            }
+            committed(numbers);
+        }
+
+        private void committed(@Nonnull List<Integer> numbers) {
+            BufferedLogger.replay(output.drain(), logger);
+            logger.printError(String.format("Committed statements %d-%d", numbers.get(0),
+                    numbers.get(numbers.size() - 1)));
+        }
+    }
+
+    /**
+     * Failure of a batch, with the index of the failing statement if it is known
+     */
+    private static class BatchFailure extends Exception {
+        static final int UNKNOWN = -1;
+        final int index;
+
+        BatchFailure(int index, @Nonnull Throwable cause) {
+            super(cause);
+            this.index = index;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package org.neo4j.shell.cli;
 
 import net.sourceforge.argparse4j.ArgumentParsers;
+import net.sourceforge.argparse4j.impl.Arguments;
 import net.sourceforge.argparse4j.impl.action.StoreConstArgumentAction;
 import net.sourceforge.argparse4j.impl.action.StoreTrueArgumentAction;
 import net.sourceforge.argparse4j.impl.choice.CollectionArgumentChoice;
@@ -82,12 +83,76 @@ public class CliArgHelper {
         //Set Output format
         cliArgs.setFormat(Format.parse(ns.get("format")));
 
+        String delimiter = ns.getString("delimiter");
+        if (delimiter != null) {
+            if (!cliArgs.getFormat().isDelimited()) {
+                printUsageError(parser, "--delimiter can only be used with --format csv or --format tsv");
+                return null;
+            }
+            // A tab is hard to type on the command line, so it may be written as \t
+            String unescaped = delimiter.equals("\\t") ? "\t" : delimiter;
+            if (unescaped.length() != 1 || unescaped.charAt(0) == '"' || unescaped.charAt(0) == '\n' ||
+                    unescaped.charAt(0) == '\r') {
+                printUsageError(parser, "--delimiter must be a single character other than a quote or line break");
+                return null;
+            }
+            cliArgs.setDelimiter(unescaped.charAt(0));
+        }
+
+        cliArgs.setSampleRows(ns.getInt("sample-rows"));
+        cliArgs.setMaxColumnWidth(ns.getInt("max-column-width"));
+        cliArgs.setParallelFormatting(ns.getBoolean("parallel-formatting"));
+        cliArgs.setPager(ns.getBoolean("pager"));
+        cliArgs.setMaxRows(ns.getInt("max-rows"));
+
+        String outputFile = ns.getString("output");
+        if (outputFile != null && outputFile.endsWith(".zst")) {
+            printUsageError(parser, "--output does not support zstd compression, use .gz instead");
+            return null;
+        }
+        cliArgs.setOutputFile(outputFile);
+
         cliArgs.setEncryption(ns.getBoolean("encryption"));
 
+        cliArgs.setAccessModePolicy(AccessModePolicy.parse(ns.get("access-mode")));
+
         cliArgs.setDebugMode(ns.getBoolean("debug"));
 
         cliArgs.setNonInteractive(ns.getBoolean("force-non-interactive"));
 
+        cliArgs.setParallelism(ns.getInt("parallelism"));
+
+        cliArgs.setTxBatchSize(ns.getInt("tx-batch-size"));
+        cliArgs.setTxBatchTime(ns.getLong("tx-batch-time"));
+
+        if (cliArgs.isBatching() && cliArgs.getParallelism() > 1) {
+            printUsageError(parser, "--parallelism can not be combined with --tx-batch-size or --tx-batch-time");
+            return null;
+        }
+        if (cliArgs.getFormat() == Format.ARROW && cliArgs.getParallelism() > 1) {
+            printUsageError(parser, "--parallelism can not be combined with --format arrow");
+            return null;
+        }
+        if (cliArgs.getFormat() == Format.ARROW && cliArgs.isBatching()) {
+            printUsageError(parser, "--tx-batch-size and --tx-batch-time can not be combined with --format arrow");
+            return null;
+        }
+
+        cliArgs.setParamRows(ns.getString("param-rows"));
+        cliArgs.setParamRowsFormat(RowFormat.parse(ns.getString("param-rows-format")));
+        cliArgs.setParamBatchSize(ns.getInt("param-batch-size"));
+
+        if (cliArgs.getParamRows().isPresent()) {
+            if (!cliArgs.getCypher().isPresent()) {
+                printUsageError(parser, "--param-rows requires a cypher statement to execute for the rows");
+                return null;
+            }
+            if (cliArgs.isBatching()) {
+                printUsageError(parser, "--param-rows can not be combined with --tx-batch-size or --tx-batch-time");
+                return null;
+            }
+        }
+
         cliArgs.setVersion(ns.getBoolean("version"));
 
         return cliArgs;
@@ -97,17 +162,21 @@ public class CliArgHelper {
     private static Matcher parseAddressMatcher(ArgumentParser parser, String address) {
         Matcher matcher = ADDRESS_ARG_PATTERN.matcher(address);
         if (!matcher.matches()) {
-            // Match behavior in built-in error handling
-            PrintWriter printWriter = new PrintWriter(System.err);
-            parser.printUsage(printWriter);
-            printWriter.println("cypher-shell: error: Failed to parse address: '" + address + "'");
-            printWriter.println("\n  Address should be of the form: [scheme://][username:password@][host][:port]");
-            printWriter.flush();
+            printUsageError(parser, "Failed to parse address: '" + address + "'" +
+                    "\n\n  Address should be of the form: [scheme://][username:password@][host][:port]");
             return null;
         }
         return matcher;
     }
 
+    private static void printUsageError(@Nonnull ArgumentParser parser, @Nonnull String message) {
+        // Match behavior in built-in error handling
+        PrintWriter printWriter = new PrintWriter(System.err);
+        parser.printUsage(printWriter);
+        printWriter.println("cypher-shell: error: " + message);
+        printWriter.flush();
+    }
+
     private static ArgumentParser setupParser()
     {
         ArgumentParser parser = ArgumentParsers.newArgumentParser( "cypher-shell" ).defaultHelp( true ).description(
@@ -133,6 +202,17 @@ public class CliArgHelper {
                         "configuration")
                 .type(new BooleanArgumentType())
                 .setDefault(true);
+        connGroup.addArgument("--access-mode")
+                .help("which cluster members statements are sent to, auto sends read only statements to read " +
+                        "servers and everything else to the leader. Reads always observe the writes of the shell " +
+                        "before them, after an auto-commit write they stay on the leader until a transaction is " +
+                        "committed")
+                .dest("access-mode")
+                .choices(new CollectionArgumentChoice<>(
+                        AccessModePolicy.AUTO.name().toLowerCase(),
+                        AccessModePolicy.READ.name().toLowerCase(),
+                        AccessModePolicy.WRITE.name().toLowerCase()))
+                .setDefault(AccessModePolicy.AUTO.name().toLowerCase());
 
         MutuallyExclusiveGroup failGroup = parser.addMutuallyExclusiveGroup();
         failGroup.addArgument("--fail-fast")
@@ -149,12 +229,60 @@ public class CliArgHelper {
 
         parser.addArgument("--format")
                 .help("desired output format, verbose displays results in tabular format and prints statistics, " +
-                        "plain displays data with minimal formatting")
+                        "plain displays data with minimal formatting, json displays each record as a JSON object " +
+                        "on a line of its own, csv and tsv display comma or tab separated values with a header, " +
+                        "arrow writes an Arrow IPC stream per result and can not be combined with --parallelism, " +
+                        "--tx-batch-size or --tx-batch-time")
                 .choices(new CollectionArgumentChoice<>(
                         Format.AUTO.name().toLowerCase(),
                         Format.VERBOSE.name().toLowerCase(),
-                        Format.PLAIN.name().toLowerCase()))
+                        Format.PLAIN.name().toLowerCase(),
+                        Format.JSON.name().toLowerCase(),
+                        Format.CSV.name().toLowerCase(),
+                        Format.TSV.name().toLowerCase(),
+                        Format.ARROW.name().toLowerCase()))
                 .setDefault(Format.AUTO.name().toLowerCase());
+        parser.addArgument("--delimiter")
+                .help("character separating values in csv and tsv output, \\t for a tab")
+                .dest("delimiter");
+        parser.addArgument("--sample-rows")
+                .help("size the columns of verbose tables by this many rows, so the table is printed as rows " +
+                        "arrive instead of after the whole result. Longer values in later rows are cut to fit and end " +
+                        "in an ellipsis. 0 sizes the columns by every row")
+                .type(Integer.class)
+                .choices(Arguments.range(0, Integer.MAX_VALUE))
+                .dest("sample-rows")
+                .setDefault(0);
+        parser.addArgument("--max-column-width")
+                .help("cut values in verbose tables to this many characters, ending them in an ellipsis. Only the " +
+                        "start of longer values is formatted. Can be changed with :width in the shell. 0 for no limit")
+                .type(Integer.class)
+                .choices(Arguments.range(0, Integer.MAX_VALUE))
+                .dest("max-column-width")
+                .setDefault(0);
+        parser.addArgument("--parallel-formatting")
+                .help("format the rows of plain and verbose output on all cores, which pays off for results of " +
+                        "many thousands of rows")
+                .dest("parallel-formatting")
+                .action(new StoreTrueArgumentAction());
+        parser.addArgument("--pager")
+                .help("show results a screen at a time in interactive mode, rows are only fetched as they come " +
+                        "into view and quitting discards the rest. Combine with --sample-rows for verbose tables " +
+                        "to be shown before the whole result is fetched")
+                .action(new StoreTrueArgumentAction());
+        parser.addArgument("--max-rows")
+                .help("stop fetching records after this many rows of a result. Read only statements outside of " +
+                        "transactions are stopped on the server, the rest of other results is discarded as it " +
+                        "arrives. A note on stderr tells how many rows were left out. 0 for no limit")
+                .type(Integer.class)
+                .choices(Arguments.range(0, Integer.MAX_VALUE))
+                .dest("max-rows")
+                .setDefault(0);
+        parser.addArgument("--output")
+                .help("file to write result data to in place of STDOUT, compressed with gzip if the name ends " +
+                        "with .gz. Messages are still printed to the terminal")
+                .metavar("FILE")
+                .dest("output");
 
         parser.addArgument("--debug")
                 .help("print additional debug information")
@@ -165,6 +293,53 @@ public class CliArgHelper {
                 .dest("force-non-interactive")
               .action(new StoreTrueArgumentAction());
 
+        parser.addArgument("--parallelism")
+                .help("number of statements to execute concurrently when not running interactively. Commands, " +
+                        "schema changes and statements in explicit transactions wait for everything before them " +
+                        "to finish, and :barrier can be used to do the same. Not available with --format arrow")
+                .type(Integer.class)
+                .choices(Arguments.range(1, Integer.MAX_VALUE))
+                .setDefault(1);
+
+        parser.addArgument("--tx-batch-size")
+                .help("when not running interactively, commit every this many statements in one transaction. " +
+                        "Failed transactions are retried in smaller batches to find the failing statements, and " +
+                        "every committed range of statements is reported on stderr. Not available with --format arrow")
+                .dest("tx-batch-size")
+                .type(Integer.class)
+                .choices(Arguments.range(0, Integer.MAX_VALUE))
+                .setDefault(0);
+
+        parser.addArgument("--tx-batch-time")
+                .help("when not running interactively, commit statements in one transaction for at most this many " +
+                        "milliseconds, can be combined with --tx-batch-size. Not available with --format arrow")
+                .dest("tx-batch-time")
+                .type(Long.class)
+                .choices(Arguments.range(0L, Long.MAX_VALUE))
+                .setDefault(0L);
+
+        ArgumentGroup paramRowsGroup = parser.addArgumentGroup("parameter rows arguments");
+        paramRowsGroup.addArgument("--param-rows")
+                .help("file with rows of parameters, or - for STDIN. The cypher statement is executed for every row, " +
+                        "referring to its values as row.name, with rows sent in batches. --parallelism decides " +
+                        "how many batches are in flight at the same time")
+                .dest("param-rows");
+        paramRowsGroup.addArgument("--param-rows-format")
+                .help("format of the parameter rows, auto picks jsonl for .jsonl, .ndjson and .json files and csv " +
+                        "with a header line otherwise")
+                .choices(new CollectionArgumentChoice<>(
+                        RowFormat.AUTO.name().toLowerCase(),
+                        RowFormat.CSV.name().toLowerCase(),
+                        RowFormat.JSONL.name().toLowerCase()))
+                .dest("param-rows-format")
+                .setDefault(RowFormat.AUTO.name().toLowerCase());
+        paramRowsGroup.addArgument("--param-batch-size")
+                .help("number of parameter rows sent together")
+                .type(Integer.class)
+                .choices(Arguments.range(1, Integer.MAX_VALUE))
+                .dest("param-batch-size")
+                .setDefault(1000);
+
         parser.addArgument("-v", "--version")
                 .help("print version of cypher-shell and exit")
                 .action(new StoreTrueArgumentAction());
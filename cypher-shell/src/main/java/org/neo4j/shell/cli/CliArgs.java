@@ -12,10 +12,24 @@ public class CliArgs {
     private String password = "";
     private FailBehavior failBehavior = FailBehavior.FAIL_FAST;
     private Format format = Format.AUTO;
+    private Optional<Character> delimiter = Optional.empty();
+    private Optional<String> outputFile = Optional.empty();
+    private int sampleRows = 0;
+    private int maxColumnWidth = 0;
+    private boolean parallelFormatting = false;
+    private boolean pager = false;
+    private int maxRows = 0;
+    private AccessModePolicy accessModePolicy = AccessModePolicy.AUTO;
     private Optional<String> cypher = Optional.empty();
     private boolean encryption;
     private boolean debugMode;
     private boolean nonInteractive = false;
+    private int parallelism = 1;
+    private int txBatchSize = 0;
+    private long txBatchTime = 0;
+    private Optional<String> paramRows = Optional.empty();
+    private RowFormat paramRowsFormat = RowFormat.AUTO;
+    private int paramBatchSize = 1000;
     private boolean version = false;
 
     /**
@@ -67,6 +81,13 @@ public class CliArgs {
         this.format = format;
     }
 
+    /**
+     * Set which cluster members statements are sent to
+     */
+    public void setAccessModePolicy(@Nonnull AccessModePolicy accessModePolicy) {
+        this.accessModePolicy = accessModePolicy;
+    }
+
     /**
      * Set the specified cypher string to execute
      */
@@ -88,6 +109,97 @@ public class CliArgs {
         this.nonInteractive = nonInteractive;
     }
 
+    /**
+     * Set how many statements can be executed concurrently when not running interactively
+     */
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Set how many statements can be committed in one transaction when not running interactively, 0 to not limit it
+     */
+    public void setTxBatchSize(int txBatchSize) {
+        this.txBatchSize = txBatchSize;
+    }
+
+    /**
+     * Set for how many milliseconds a transaction can be kept open when not running interactively, 0 to not limit it
+     */
+    public void setTxBatchTime(long txBatchTime) {
+        this.txBatchTime = txBatchTime;
+    }
+
+    /**
+     * Set the delimiter to use in place of the default of a delimited format
+     */
+    public void setDelimiter(@Nullable Character delimiter) {
+        this.delimiter = Optional.ofNullable(delimiter);
+    }
+
+    /**
+     * Set how many rows table columns are sized by before the table is printed, 0 to size them by every row
+     */
+    public void setSampleRows(int sampleRows) {
+        this.sampleRows = sampleRows;
+    }
+
+    /**
+     * Set how wide table columns may be, 0 for no limit
+     */
+    public void setMaxColumnWidth(int maxColumnWidth) {
+        this.maxColumnWidth = maxColumnWidth;
+    }
+
+    /**
+     * Set whether rows are formatted on all cores
+     */
+    public void setParallelFormatting(boolean parallelFormatting) {
+        this.parallelFormatting = parallelFormatting;
+    }
+
+    /**
+     * Set whether interactive results are shown a screen at a time
+     */
+    public void setPager(boolean pager) {
+        this.pager = pager;
+    }
+
+    /**
+     * Set how many records of a result are fetched, 0 for all of them
+     */
+    public void setMaxRows(int maxRows) {
+        this.maxRows = maxRows;
+    }
+
+    /**
+     * Set the file to write result data to in place of STDOUT
+     */
+    public void setOutputFile(@Nullable String outputFile) {
+        this.outputFile = Optional.ofNullable(outputFile);
+    }
+
+    /**
+     * Set the file with rows of parameters to execute the cypher string for, or "-" to read them from STDIN
+     */
+    public void setParamRows(@Nullable String paramRows) {
+        this.paramRows = Optional.ofNullable(paramRows);
+    }
+
+    /**
+     * Set the format of the file with rows of parameters
+     */
+    public void setParamRowsFormat(@Nonnull RowFormat paramRowsFormat) {
+        this.paramRowsFormat = paramRowsFormat;
+    }
+
+    /**
+     * Set how many rows of parameters are sent together
+     */
+    public void setParamBatchSize(int paramBatchSize) {
+        this.paramBatchSize = paramBatchSize;
+    }
+
     /**
      * Enable/disable debug mode
      */
@@ -135,6 +247,11 @@ public class CliArgs {
         return format;
     }
 
+    @Nonnull
+    public AccessModePolicy getAccessModePolicy() {
+        return accessModePolicy;
+    }
+
     public boolean getEncryption() {
         return encryption;
     }
@@ -147,6 +264,69 @@ public class CliArgs {
         return nonInteractive;
     }
 
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public int getTxBatchSize() {
+        return txBatchSize;
+    }
+
+    public long getTxBatchTime() {
+        return txBatchTime;
+    }
+
+    /**
+     * @return true if statements should be committed in batches
+     */
+    public boolean isBatching() {
+        return txBatchSize > 0 || txBatchTime > 0;
+    }
+
+    @Nonnull
+    public Optional<Character> getDelimiter() {
+        return delimiter;
+    }
+
+    public int getSampleRows() {
+        return sampleRows;
+    }
+
+    public int getMaxColumnWidth() {
+        return maxColumnWidth;
+    }
+
+    public boolean isParallelFormatting() {
+        return parallelFormatting;
+    }
+
+    public boolean isPager() {
+        return pager;
+    }
+
+    public int getMaxRows() {
+        return maxRows;
+    }
+
+    @Nonnull
+    public Optional<String> getOutputFile() {
+        return outputFile;
+    }
+
+    @Nonnull
+    public Optional<String> getParamRows() {
+        return paramRows;
+    }
+
+    @Nonnull
+    public RowFormat getParamRowsFormat() {
+        return paramRowsFormat;
+    }
+
+    public int getParamBatchSize() {
+        return paramBatchSize;
+    }
+
     public boolean getVersion() {
         return version;
     }
@@ -10,14 +10,36 @@ public enum Format {
     // Intended for human consumption
     VERBOSE,
     // Intended for machine consumption (nothing except data is printed
-    PLAIN;
-    // TODO JSON, strictly intended for machine consumption with data formatted in JSON
+    PLAIN,
+    // Strictly intended for machine consumption with data formatted in JSON, one record per line
+    JSON,
+    // Strictly intended for machine consumption with data formatted as comma separated values (RFC 4180)
+    CSV,
+    // As CSV, but separated by tabs
+    TSV,
+    // Strictly intended for machine consumption with data in the binary Arrow IPC streaming format
+    ARROW;
+
+    /**
+     * @return true if values are separated by a delimiter, which can be changed
+     */
+    public boolean isDelimited() {
+        return this == CSV || this == TSV;
+    }
 
     public static Format parse(@Nonnull String format) {
         if (format.equalsIgnoreCase(PLAIN.name())) {
             return PLAIN;
         } else if (format.equalsIgnoreCase( VERBOSE.name() )) {
             return VERBOSE;
+        } else if (format.equalsIgnoreCase(JSON.name())) {
+            return JSON;
+        } else if (format.equalsIgnoreCase(CSV.name())) {
+            return CSV;
+        } else if (format.equalsIgnoreCase(TSV.name())) {
+            return TSV;
+        } else if (format.equalsIgnoreCase(ARROW.name())) {
+            return ARROW;
         } else {
             return isOutputInteractive() ? VERBOSE : PLAIN;
         }
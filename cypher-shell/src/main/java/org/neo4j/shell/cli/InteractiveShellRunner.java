@@ -7,18 +7,24 @@ import org.neo4j.shell.StatementExecuter;
 import org.neo4j.shell.TransactionHandler;
 import org.neo4j.shell.UserMessagesHandler;
 import org.neo4j.shell.commands.Exit;
+import org.neo4j.shell.exception.CommandException;
 import org.neo4j.shell.exception.ExitException;
 import org.neo4j.shell.exception.NoMoreInputException;
+import org.neo4j.shell.exception.PagerQuitException;
 import org.neo4j.shell.log.AnsiFormattedText;
 import org.neo4j.shell.log.Logger;
+import org.neo4j.shell.parser.StatementClassifier;
 import org.neo4j.shell.parser.StatementParser;
 import sun.misc.Signal;
 import sun.misc.SignalHandler;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -42,6 +48,8 @@ public class InteractiveShellRunner implements ShellRunner, SignalHandler {
     private final TransactionHandler txHandler;
     private final StatementExecuter executer;
     private final UserMessagesHandler userMessagesHandler;
+    @Nullable
+    private final Pager pager;
 
     public InteractiveShellRunner(@Nonnull StatementExecuter executer,
                                   @Nonnull TransactionHandler txHandler,
@@ -50,6 +58,20 @@ public class InteractiveShellRunner implements ShellRunner, SignalHandler {
                                   @Nonnull InputStream inputStream,
                                   @Nonnull File historyFile,
                                   @Nonnull UserMessagesHandler userMessagesHandler) throws IOException {
+        this(executer, txHandler, logger, statementParser, inputStream, historyFile, userMessagesHandler, false);
+    }
+
+    /**
+     * @param paged whether results are shown a screen at a time
+     */
+    public InteractiveShellRunner(@Nonnull StatementExecuter executer,
+                                  @Nonnull TransactionHandler txHandler,
+                                  @Nonnull Logger logger,
+                                  @Nonnull StatementParser statementParser,
+                                  @Nonnull InputStream inputStream,
+                                  @Nonnull File historyFile,
+                                  @Nonnull UserMessagesHandler userMessagesHandler,
+                                  boolean paged) throws IOException {
         this.userMessagesHandler = userMessagesHandler;
         this.currentyExecuting = new AtomicBoolean(false);
         this.executer = executer;
@@ -58,6 +80,7 @@ public class InteractiveShellRunner implements ShellRunner, SignalHandler {
         this.statementParser = statementParser;
         this.reader = setupConsoleReader(logger, inputStream);
         this.historian = FileHistorian.setupHistory(reader, logger, historyFile);
+        this.pager = paged ? setupPager(logger, reader) : null;
 
         // Catch ctrl-c
         Signal.handle(new Signal(INTERRUPT_SIGNAL), this);
@@ -73,6 +96,14 @@ public class InteractiveShellRunner implements ShellRunner, SignalHandler {
         return reader;
     }
 
+    @Nonnull
+    private static Pager setupPager(@Nonnull Logger logger, @Nonnull ConsoleReader reader) {
+        Pager pager = new Pager(new OutputStreamWriter(logger.getOutputStream()), reader::readCharacter,
+                () -> reader.getTerminal().getHeight());
+        logger.setDataWriter(new PrintWriter(pager));
+        return pager;
+    }
+
     @Override
     public int runUntilEnd() {
         int exitCode = 0;
@@ -84,7 +115,7 @@ public class InteractiveShellRunner implements ShellRunner, SignalHandler {
             try {
                 for (String statement : readUntilStatement()) {
                     currentyExecuting.set(true);
-                    executer.execute(statement);
+                    execute(statement);
                     currentyExecuting.set(false);
                 }
             } catch (ExitException e) {
@@ -103,6 +134,30 @@ public class InteractiveShellRunner implements ShellRunner, SignalHandler {
         return exitCode;
     }
 
+    private void execute(@Nonnull String statement) throws ExitException, CommandException {
+        if (pager == null) {
+            executer.execute(statement);
+            return;
+        }
+        pager.start();
+        try {
+            executer.execute(statement);
+        } catch (PagerQuitException e) {
+            discardResult(statement);
+        }
+    }
+
+    /**
+     * The rest of the result is not wanted, so the session is reset and the server stops producing it. Resetting
+     * would also roll back an open transaction, or the writes of the statement, in which case the remaining records
+     * are discarded as they arrive instead.
+     */
+    private void discardResult(@Nonnull String statement) {
+        if (!txHandler.isTransactionOpen() && StatementClassifier.isReadOnly(statement)) {
+            executer.reset();
+        }
+    }
+
     @Nonnull
     @Override
     public Historian getHistorian() {
@@ -3,8 +3,10 @@ package org.neo4j.shell.cli;
 import org.neo4j.shell.Historian;
 import org.neo4j.shell.ShellRunner;
 import org.neo4j.shell.StatementExecuter;
+import org.neo4j.shell.TransactionHandler;
 import org.neo4j.shell.exception.ExitException;
 import org.neo4j.shell.log.Logger;
+import org.neo4j.shell.parser.StatementClassifier;
 import org.neo4j.shell.parser.StatementParser;
 
 import javax.annotation.Nonnull;
@@ -20,10 +22,10 @@ import java.util.List;
  */
 public class NonInteractiveShellRunner implements ShellRunner {
 
-    private final FailBehavior failBehavior;
+    protected final FailBehavior failBehavior;
     @Nonnull
     private final StatementExecuter executer;
-    private final Logger logger;
+    protected final Logger logger;
     private final StatementParser statementParser;
     private final InputStream inputStream;
 
@@ -51,7 +53,15 @@ public class NonInteractiveShellRunner implements ShellRunner {
             logger.printError(e);
             return 1;
         }
+        return executeAll(statements);
+    }
 
+    /**
+     * Execute the statements one after another
+     *
+     * @return error code to exit with
+     */
+    protected int executeAll(@Nonnull List<String> statements) {
         int exitCode = 0;
         for (String statement : statements) {
             try {
@@ -70,6 +80,18 @@ public class NonInteractiveShellRunner implements ShellRunner {
         return exitCode;
     }
 
+    /**
+     * @return true if the statement has to be executed on its own by the main shell, instead of being run
+     * concurrently or batched with others: commands, schema changes, periodic commits which can not run in a
+     * transaction, and statements in explicit transactions
+     */
+    protected static boolean mustRunAlone(@Nonnull String statement, @Nonnull TransactionHandler transactionHandler) {
+        return statement.trim().startsWith(":") ||
+                StatementClassifier.isSchemaChange(statement) ||
+                StatementClassifier.isPeriodicCommit(statement) ||
+                transactionHandler.isTransactionOpen();
+    }
+
     @Nonnull
     @Override
     public Historian getHistorian() {
@@ -0,0 +1,164 @@
+package org.neo4j.shell.cli;
+
+import org.neo4j.shell.CypherShell;
+import org.neo4j.shell.log.BufferedLogger;
+import org.neo4j.shell.log.Logger;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Executes work concurrently on forks of a shell, each with a session of its own, and prints the output of the work
+ * in the order it was submitted. Output of finished work is printed as soon as everything before it has been.
+ *
+ * With {@link FailBehavior#FAIL_FAST}, nothing is printed after the first failure. Work which is already running
+ * can not be cancelled, so it still completes.
+ */
+class OrderedParallelExecuter implements AutoCloseable {
+    private final CypherShell shell;
+    private final Logger logger;
+    private final FailBehavior failBehavior;
+    private final ExecutorService executor;
+    private final Map<Thread, Worker> workers = new ConcurrentHashMap<>();
+    private final Deque<Future<Outcome>> pending = new ArrayDeque<>();
+    // Bounds how much output is buffered when early work is slow
+    private final int maxPending;
+    private boolean failed = false;
+
+    /**
+     * Work to execute on a fork, printing to the given logger
+     */
+    interface Work {
+        void execute(@Nonnull CypherShell fork, @Nonnull Logger output) throws Exception;
+    }
+
+    OrderedParallelExecuter(@Nonnull CypherShell shell, @Nonnull Logger logger, @Nonnull FailBehavior failBehavior,
+                            int parallelism) {
+        this.shell = shell;
+        this.logger = logger;
+        this.failBehavior = failBehavior;
+        this.executor = Executors.newFixedThreadPool(parallelism);
+        this.maxPending = 2 * parallelism;
+    }
+
+    /**
+     * Submit work, and print the output of finished work. Waits for earlier work if too much is pending.
+     *
+     * @return 1 if any printed work failed, 0 otherwise
+     */
+    int submit(@Nonnull Work work) {
+        if (!stopped()) {
+            pending.add(executor.submit(() -> executeOnWorker(work)));
+        }
+        return printFinished(maxPending);
+    }
+
+    /**
+     * Wait for all submitted work and print its output.
+     *
+     * @return 1 if any printed work failed, 0 otherwise
+     */
+    int awaitAll() {
+        return printFinished(0);
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            while (!executor.awaitTermination(1, TimeUnit.SECONDS)) {
+                // Work can not be cancelled, so wait for it to complete
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        workers.values().forEach(worker -> worker.fork.disconnectSession());
+    }
+
+    private boolean stopped() {
+        return failed && FailBehavior.FAIL_AT_END != failBehavior;
+    }
+
+    /**
+     * Runs on a thread of the executor, which forks a shell for itself the first time
+     */
+    @Nonnull
+    private Outcome executeOnWorker(@Nonnull Work work) {
+        Worker worker = workers.get(Thread.currentThread());
+        try {
+            if (worker == null) {
+                BufferedLogger output = new BufferedLogger(logger);
+                worker = new Worker(output, shell.fork(output));
+                workers.put(Thread.currentThread(), worker);
+            }
+            work.execute(worker.fork, worker.output);
+            return new Outcome(worker.output.drain(), null);
+        } catch (Throwable t) {
+            return new Outcome(worker == null ? Collections.emptyList() : worker.output.drain(), t);
+        }
+    }
+
+    /**
+     * Prints the output of finished work in order, waiting for work until no more than maxPending are left.
+     *
+     * @return 1 if any of the printed work failed, 0 otherwise
+     */
+    private int printFinished(int maxPending) {
+        int exitCode = 0;
+        while (!stopped() && !pending.isEmpty() && (pending.size() > maxPending || pending.peek().isDone())) {
+            Outcome outcome = await(pending.poll());
+            BufferedLogger.replay(outcome.output, logger);
+            if (outcome.error != null) {
+                exitCode = 1;
+                failed = true;
+                logger.printError(outcome.error);
+            }
+        }
+        return exitCode;
+    }
+
+    @Nonnull
+    private static Outcome await(@Nonnull Future<Outcome> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new Outcome(Collections.emptyList(), e);
+        } catch (ExecutionException e) {
+            return new Outcome(Collections.emptyList(), e.getCause());
+        }
+    }
+
+    private static class Worker {
+        final BufferedLogger output;
+        final CypherShell fork;
+
+        Worker(@Nonnull BufferedLogger output, @Nonnull CypherShell fork) {
+            this.output = output;
+            this.fork = fork;
+        }
+    }
+
+    private static class Outcome {
+        final List<Consumer<Logger>> output;
+        @Nullable
+        final Throwable error;
+
+        Outcome(@Nonnull List<Consumer<Logger>> output, @Nullable Throwable error) {
+            this.output = output;
+            this.error = error;
+        }
+    }
+}
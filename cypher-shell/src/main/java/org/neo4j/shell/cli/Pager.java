@@ -0,0 +1,114 @@
+package org.neo4j.shell.cli;
+
+import org.neo4j.shell.exception.PagerQuitException;
+import org.neo4j.shell.log.AnsiFormattedText;
+import org.neo4j.shell.prettyprint.OutputFormatter;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.function.IntSupplier;
+
+/**
+ * Shows result data a screen at a time. Once the screen is full, nothing more is written until the user asks for it,
+ * which holds up the formatter and with it the fetching of records, so rows are only formatted once they come into
+ * view. Quitting throws a {@link PagerQuitException} through the formatter.
+ */
+public class Pager extends Writer {
+    private static final AnsiFormattedText PROMPT =
+            AnsiFormattedText.s().bold().append("-- More -- (space: next page, enter: next line, q: quit)");
+
+    private final Writer out;
+    private final KeyReader keys;
+    private final IntSupplier height;
+    private int linesLeft;
+
+    /**
+     * Reads a single key press, without waiting for a line
+     */
+    public interface KeyReader {
+        /**
+         * @return the key, or -1 if there is no more input
+         */
+        int read() throws IOException;
+    }
+
+    /**
+     * @param out    the terminal
+     * @param keys   the keys pressed by the user
+     * @param height the number of lines of the terminal, which may change between results
+     */
+    public Pager(@Nonnull Writer out, @Nonnull KeyReader keys, @Nonnull IntSupplier height) {
+        this.out = out;
+        this.keys = keys;
+        this.height = height;
+        start();
+    }
+
+    /**
+     * Starts on a new screen, for the next result
+     */
+    public void start() {
+        linesLeft = pageSize();
+    }
+
+    /**
+     * @return the lines of a screen, less one for the prompt
+     */
+    private int pageSize() {
+        return Math.max(1, height.getAsInt() - 1);
+    }
+
+    @Override
+    public void write(@Nonnull char[] cbuf, int off, int len) throws IOException {
+        int end = off + len;
+        while (off < end) {
+            if (linesLeft <= 0) {
+                waitForMore();
+            }
+            int stop = off;
+            while (stop < end && cbuf[stop++] != '\n') {
+                // Up to and including the end of the line
+            }
+            out.write(cbuf, off, stop - off);
+            if (cbuf[stop - 1] == '\n') {
+                // Rows show up as they arrive, there is at most a screen of them
+                out.flush();
+                linesLeft--;
+            }
+            off = stop;
+        }
+    }
+
+    private void waitForMore() throws IOException {
+        out.write(PROMPT.renderedString());
+        out.flush();
+        int key = keys.read();
+        out.write('\r');
+        out.write(OutputFormatter.repeat(' ', PROMPT.plainString().length()));
+        out.write('\r');
+        switch (key) {
+            case 'q':
+            case 'Q':
+            case -1:
+                out.flush();
+                throw new PagerQuitException();
+            case '\r':
+            case '\n':
+                linesLeft = 1;
+                break;
+            default:
+                linesLeft = pageSize();
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+    }
+}
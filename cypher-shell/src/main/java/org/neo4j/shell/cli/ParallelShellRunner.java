@@ -0,0 +1,69 @@
+package org.neo4j.shell.cli;
+
+import org.neo4j.shell.CypherShell;
+import org.neo4j.shell.exception.ExitException;
+import org.neo4j.shell.log.Logger;
+import org.neo4j.shell.parser.StatementParser;
+
+import javax.annotation.Nonnull;
+import java.io.InputStream;
+import java.util.List;
+
+/**
+ * A shell runner which reads all of STDIN and executes the Cypher statements concurrently, each worker on a session
+ * of its own. Commands (such as :barrier), schema changes and statements in explicit transactions are fences: every
+ * statement before them finishes first, and they are executed on their own by the main shell. Output is printed in
+ * the order of the statements.
+ *
+ * In case of errors, the failBehavior determines if the shell exits immediately, or if it should keep trying the
+ * next statements. Statements which were already running when an error is printed still complete, but their output
+ * is not printed when failing fast.
+ */
+public class ParallelShellRunner extends NonInteractiveShellRunner {
+    private final CypherShell shell;
+    private final int parallelism;
+
+    public ParallelShellRunner(@Nonnull FailBehavior failBehavior,
+                               @Nonnull CypherShell shell,
+                               @Nonnull Logger logger,
+                               @Nonnull StatementParser statementParser,
+                               @Nonnull InputStream inputStream,
+                               int parallelism) {
+        super(failBehavior, shell, logger, statementParser, inputStream);
+        this.shell = shell;
+        this.parallelism = parallelism;
+    }
+
+    @Override
+    protected int executeAll(@Nonnull List<String> statements) {
+        int exitCode = 0;
+        try (OrderedParallelExecuter executer = new OrderedParallelExecuter(shell, logger, failBehavior, parallelism)) {
+            for (String statement : statements) {
+                if (mustRunAlone(statement, shell)) {
+                    exitCode |= executer.awaitAll();
+                    if (exitCode != 0 && FailBehavior.FAIL_AT_END != failBehavior) {
+                        return exitCode;
+                    }
+                    try {
+                        shell.execute(statement);
+                    } catch (ExitException e) {
+                        // These exceptions are always fatal
+                        return e.getCode();
+                    } catch (Throwable e) {
+                        exitCode = 1;
+                        logger.printError(e);
+                        if (FailBehavior.FAIL_AT_END != failBehavior) {
+                            return exitCode;
+                        }
+                    }
+                } else {
+                    exitCode |= executer.submit((fork, output) -> fork.execute(statement));
+                    if (exitCode != 0 && FailBehavior.FAIL_AT_END != failBehavior) {
+                        return exitCode;
+                    }
+                }
+            }
+            return exitCode | executer.awaitAll();
+        }
+    }
+}
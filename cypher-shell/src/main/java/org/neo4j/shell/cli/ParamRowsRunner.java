@@ -0,0 +1,121 @@
+package org.neo4j.shell.cli;
+
+import org.neo4j.shell.CypherShell;
+import org.neo4j.shell.Historian;
+import org.neo4j.shell.ShellRunner;
+import org.neo4j.shell.log.Logger;
+import org.neo4j.shell.parser.RowReader;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * A shell runner which executes a single Cypher statement for every row of parameters read from a file. Rows are
+ * sent in batches as {@code UNWIND $rows AS row <statement>}, so the statement refers to the values of a row as
+ * {@code row.name}, and one round trip covers a whole batch. With a parallelism above one, that many batches are
+ * in flight at the same time, each on a session of its own.
+ *
+ * The number of rows and their rate is reported on the error stream when done.
+ */
+public class ParamRowsRunner implements ShellRunner {
+    static final String ROWS_PARAMETER = "rows";
+    private final FailBehavior failBehavior;
+    private final CypherShell shell;
+    private final Logger logger;
+    private final String cypher;
+    private final RowReader rowReader;
+    private final int batchSize;
+    private final int parallelism;
+    private final LongSupplier nanoClock;
+
+    public ParamRowsRunner(@Nonnull FailBehavior failBehavior,
+                           @Nonnull CypherShell shell,
+                           @Nonnull Logger logger,
+                           @Nonnull String cypher,
+                           @Nonnull RowReader rowReader,
+                           int batchSize,
+                           int parallelism) {
+        this(failBehavior, shell, logger, cypher, rowReader, batchSize, parallelism, System::nanoTime);
+    }
+
+    ParamRowsRunner(@Nonnull FailBehavior failBehavior,
+                    @Nonnull CypherShell shell,
+                    @Nonnull Logger logger,
+                    @Nonnull String cypher,
+                    @Nonnull RowReader rowReader,
+                    int batchSize,
+                    int parallelism,
+                    @Nonnull LongSupplier nanoClock) {
+        this.failBehavior = failBehavior;
+        this.shell = shell;
+        this.logger = logger;
+        this.cypher = "UNWIND $" + ROWS_PARAMETER + " AS row " + cypher.trim().replaceAll(";+$", "");
+        this.rowReader = rowReader;
+        this.batchSize = batchSize;
+        this.parallelism = parallelism;
+        this.nanoClock = nanoClock;
+    }
+
+    @Override
+    public int runUntilEnd() {
+        long start = nanoClock.getAsLong();
+        long rowCount = 0;
+        int batchCount = 0;
+        int exitCode = 0;
+        try (RowReader reader = rowReader;
+             OrderedParallelExecuter executer = new OrderedParallelExecuter(shell, logger, failBehavior, parallelism)) {
+            List<Map<String, Object>> batch = new ArrayList<>(batchSize);
+            Map<String, Object> row;
+            while (!stopped(exitCode) && (row = reader.readRow()) != null) {
+                batch.add(row);
+                if (batch.size() == batchSize) {
+                    exitCode |= submit(executer, batch, rowCount + 1);
+                    rowCount += batch.size();
+                    batchCount++;
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+            if (!stopped(exitCode) && !batch.isEmpty()) {
+                exitCode |= submit(executer, batch, rowCount + 1);
+                rowCount += batch.size();
+                batchCount++;
+            }
+            exitCode |= executer.awaitAll();
+        } catch (Throwable t) {
+            logger.printError(t);
+            return 1;
+        }
+        long millis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(nanoClock.getAsLong() - start));
+        logger.printError(String.format("Processed %d rows in %d batches in %d ms (%d rows/s)",
+                rowCount, batchCount, millis, rowCount * 1000 / millis));
+        return exitCode;
+    }
+
+    private boolean stopped(int exitCode) {
+        return exitCode != 0 && FailBehavior.FAIL_AT_END != failBehavior;
+    }
+
+    private int submit(@Nonnull OrderedParallelExecuter executer, @Nonnull List<Map<String, Object>> batch,
+                       long firstRow) {
+        Map<String, Object> params = Collections.singletonMap(ROWS_PARAMETER, batch);
+        return executer.submit((fork, output) -> {
+            try {
+                fork.executeCypher(cypher, params);
+            } catch (Throwable t) {
+                output.printError(String.format("Rows %d-%d failed", firstRow, firstRow + batch.size() - 1));
+                throw t;
+            }
+        });
+    }
+
+    @Nonnull
+    @Override
+    public Historian getHistorian() {
+        return Historian.empty;
+    }
+}
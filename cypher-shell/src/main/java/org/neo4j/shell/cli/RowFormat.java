@@ -0,0 +1,40 @@
+package org.neo4j.shell.cli;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Format of a file with rows of parameters
+ */
+public enum RowFormat {
+    // Will select depending on the extension of the file
+    AUTO,
+    // Comma separated values with a header line
+    CSV,
+    // One JSON object per line
+    JSONL;
+
+    public static RowFormat parse(@Nonnull String format) {
+        if (format.equalsIgnoreCase(CSV.name())) {
+            return CSV;
+        } else if (format.equalsIgnoreCase(JSONL.name())) {
+            return JSONL;
+        } else {
+            return AUTO;
+        }
+    }
+
+    /**
+     * @return this format, or if it is AUTO, the format the name of the file suggests
+     */
+    @Nonnull
+    public RowFormat resolve(@Nonnull String fileName) {
+        if (this != AUTO) {
+            return this;
+        }
+        String lowerCaseName = fileName.toLowerCase();
+        if (lowerCaseName.endsWith(".jsonl") || lowerCaseName.endsWith(".ndjson") || lowerCaseName.endsWith(".json")) {
+            return JSONL;
+        }
+        return CSV;
+    }
+}
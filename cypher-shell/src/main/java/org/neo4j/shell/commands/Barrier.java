@@ -0,0 +1,54 @@
+package org.neo4j.shell.commands;
+
+import org.neo4j.shell.exception.CommandException;
+import org.neo4j.shell.exception.ExitException;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.neo4j.shell.commands.CommandHelper.simpleArgParse;
+
+/**
+ * This command does nothing by itself. When statements are executed in parallel, like all commands it waits for
+ * every statement before it to finish before any statement after it is started.
+ */
+public class Barrier implements Command {
+    private static final String COMMAND_NAME = ":barrier";
+
+    @Nonnull
+    @Override
+    public String getName() {
+        return COMMAND_NAME;
+    }
+
+    @Nonnull
+    @Override
+    public String getDescription() {
+        return "Wait for all previous statements to finish";
+    }
+
+    @Nonnull
+    @Override
+    public String getUsage() {
+        return "";
+    }
+
+    @Nonnull
+    @Override
+    public String getHelp() {
+        return "When statements are executed in parallel, wait for all statements before this to finish before " +
+                "executing any statements after it";
+    }
+
+    @Nonnull
+    @Override
+    public List<String> getAliases() {
+        return new ArrayList<>();
+    }
+
+    @Override
+    public void execute(@Nonnull final String argString) throws ExitException, CommandException {
+        simpleArgParse(argString, 0, COMMAND_NAME, getUsage());
+    }
+}
@@ -1,5 +1,6 @@
 package org.neo4j.shell.commands;
 
+import org.neo4j.shell.ColumnWidthHolder;
 import org.neo4j.shell.CypherShell;
 import org.neo4j.shell.Historian;
 import org.neo4j.shell.TransactionHandler;
@@ -22,11 +23,12 @@ public class CommandHelper {
     private final TreeMap<String, Command> commands = new TreeMap<>();
 
     public CommandHelper(Logger logger, Historian historian, CypherShell cypherShell) {
-        registerAllCommands(logger, historian, cypherShell, cypherShell);
+        registerAllCommands(logger, historian, cypherShell, cypherShell, cypherShell);
     }
 
     private void registerAllCommands(Logger logger, Historian historian,
-                                     TransactionHandler transactionHandler, VariableHolder variableHolder) {
+                                     TransactionHandler transactionHandler, VariableHolder variableHolder,
+                                     ColumnWidthHolder columnWidthHolder) {
         registerCommand(new Exit(logger));
         registerCommand(new Help(logger, this));
         registerCommand(new History(logger, historian));
@@ -35,6 +37,8 @@ public class CommandHelper {
         registerCommand(new Rollback(transactionHandler));
         registerCommand(new Param(variableHolder));
         registerCommand(new Params(logger, variableHolder));
+        registerCommand(new Barrier());
+        registerCommand(new Width(logger, columnWidthHolder));
     }
 
     private void registerCommand(@Nonnull final Command command) throws DuplicateCommandException {
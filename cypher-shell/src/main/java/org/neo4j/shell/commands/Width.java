@@ -0,0 +1,86 @@
+package org.neo4j.shell.commands;
+
+import org.neo4j.shell.ColumnWidthHolder;
+import org.neo4j.shell.exception.CommandException;
+import org.neo4j.shell.exception.ExitException;
+import org.neo4j.shell.log.AnsiFormattedText;
+import org.neo4j.shell.log.Logger;
+
+import javax.annotation.Nonnull;
+import java.util.Collections;
+import java.util.List;
+
+import static org.neo4j.shell.commands.CommandHelper.simpleArgParse;
+
+/**
+ * Shows or changes how wide the columns of verbose tables may be
+ */
+public class Width implements Command {
+    public static final String COMMAND_NAME = ":width";
+    private static final String OFF = "off";
+    private final Logger logger;
+    private final ColumnWidthHolder columnWidthHolder;
+
+    public Width(@Nonnull Logger logger, @Nonnull ColumnWidthHolder columnWidthHolder) {
+        this.logger = logger;
+        this.columnWidthHolder = columnWidthHolder;
+    }
+
+    @Nonnull
+    @Override
+    public String getName() {
+        return COMMAND_NAME;
+    }
+
+    @Nonnull
+    @Override
+    public String getDescription() {
+        return "Show or set the maximum width of table columns";
+    }
+
+    @Nonnull
+    @Override
+    public String getUsage() {
+        return "[characters|off]";
+    }
+
+    @Nonnull
+    @Override
+    public String getHelp() {
+        return AnsiFormattedText.from("Values longer than the maximum width are cut and end in an ellipsis, " +
+                "only their start is formatted. Use ").bold().append(COMMAND_NAME + " " + OFF).boldOff()
+                .append(" to print values in full").formattedString();
+    }
+
+    @Nonnull
+    @Override
+    public List<String> getAliases() {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public void execute(@Nonnull final String argString) throws ExitException, CommandException {
+        String[] args = simpleArgParse(argString, 0, 1, COMMAND_NAME, getUsage());
+        if (args.length > 0) {
+            columnWidthHolder.setMaxColumnWidth(parseWidth(args[0]));
+        }
+        int maxColumnWidth = columnWidthHolder.getMaxColumnWidth();
+        logger.printOut("Maximum column width: " + (maxColumnWidth == 0 ? OFF : maxColumnWidth));
+    }
+
+    private int parseWidth(@Nonnull String arg) throws CommandException {
+        if (OFF.equalsIgnoreCase(arg)) {
+            return 0;
+        }
+        try {
+            int width = Integer.parseInt(arg);
+            if (width >= 0) {
+                return width;
+            }
+        } catch (NumberFormatException ignored) {
+            // Reported below
+        }
+        throw new CommandException(AnsiFormattedText.from("Expected a number of characters or off, got: ")
+                .bold().append(arg).boldOff());
+    }
+}
@@ -0,0 +1,8 @@
+package org.neo4j.shell.exception;
+
+/**
+ * Signifies that the user quit the pager before the whole result was shown. Thrown from the writer the result is
+ * printed to, so the formatter stops fetching records.
+ */
+public class PagerQuitException extends RuntimeException {
+}
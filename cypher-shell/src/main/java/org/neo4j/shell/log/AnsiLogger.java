@@ -7,8 +7,14 @@ import org.neo4j.shell.cli.Format;
 import org.neo4j.shell.exception.AnsiFormattedException;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 
 import static org.fusesource.jansi.internal.CLibrary.STDERR_FILENO;
@@ -19,7 +25,14 @@ import static org.fusesource.jansi.internal.CLibrary.isatty;
  * A basic logger which prints Ansi formatted text to STDOUT and STDERR
  */
 public class AnsiLogger implements Logger {
+    // Large enough that exports are written to files and pipes in few system calls
+    static final int DATA_BUFFER_SIZE = 1 << 16;
+    // Enough to keep fetching records for a while when the reader of the output falls behind
+    static final int DATA_BUFFERS = 4;
     private final PrintStream out;
+    private final PrintWriter data;
+    @Nullable
+    private PrintWriter pagedData;
     private final PrintStream err;
     private final boolean debug;
     private Format format;
@@ -30,13 +43,23 @@ public class AnsiLogger implements Logger {
 
     public AnsiLogger(final boolean debug, @Nonnull Format format,
                       @Nonnull PrintStream out, @Nonnull PrintStream err) {
+        this(debug, format, out, err, null);
+    }
+
+    /**
+     * @param dataOutput where result data is written in place of the output stream, closed on shutdown
+     */
+    public AnsiLogger(final boolean debug, @Nonnull Format format,
+                      @Nonnull PrintStream out, @Nonnull PrintStream err, @Nullable OutputStream dataOutput) {
         this.debug = debug;
         this.format = format;
         this.out = out;
         this.err = err;
 
+        boolean interactive = false;
         try {
-            if (isOutputInteractive()) {
+            interactive = isOutputInteractive();
+            if (interactive) {
                 Ansi.setEnabled(true);
                 AnsiConsole.systemInstall();
             } else {
@@ -45,6 +68,49 @@ public class AnsiLogger implements Logger {
         } catch (UnsatisfiedLinkError t) {
             Ansi.setEnabled(false);
         }
+        if (dataOutput != null) {
+            this.data = dataWriter(dataOutput, false);
+            addRuntimeHookToFlushData(data, dataOutput);
+        } else {
+            this.data = dataWriter(out, interactive);
+            if (!interactive) {
+                addRuntimeHookToFlushData(data, null);
+            }
+        }
+    }
+
+    private void addRuntimeHookToFlushData(@Nonnull PrintWriter data, @Nullable OutputStream dataOutput) {
+        Runtime.getRuntime().addShutdownHook(new Thread() {
+            @Override
+            public void run() {
+                data.flush();
+                if (dataOutput != null) {
+                    // PrintWriter keeps write failures to itself
+                    if (data.checkError()) {
+                        err.println("Failed to write to the output file");
+                    }
+                    try {
+                        dataOutput.close();
+                    } catch (IOException e) {
+                        err.println("Failed to close the output file: " + e.getMessage());
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Rows are shown as they arrive on a terminal. Otherwise data is written to the output stream by a thread of its
+     * own, so records are fetched while a slow pipe or file catches up. Flushing waits until everything has been
+     * written, which happens once a result has been written.
+     */
+    @Nonnull
+    static PrintWriter dataWriter(@Nonnull OutputStream out, boolean interactive) {
+        if (interactive) {
+            return new PrintWriter(new LineFlushingWriter(new OutputStreamWriter(out, Charset.defaultCharset())));
+        }
+        return new PrintWriter(new OutputStreamWriter(new AsyncOutputStream(out, DATA_BUFFERS, DATA_BUFFER_SIZE),
+                Charset.defaultCharset()), false);
     }
 
     @Nonnull
@@ -69,6 +135,21 @@ public class AnsiLogger implements Logger {
         return out;
     }
 
+    /**
+     * Data is written to the output stream without rendering Ansi markup, so it is not scanned for markup and is
+     * printed exactly as it is.
+     */
+    @Nonnull
+    @Override
+    public PrintWriter getDataWriter() {
+        return pagedData != null ? pagedData : data;
+    }
+
+    @Override
+    public void setDataWriter(@Nullable PrintWriter dataWriter) {
+        this.pagedData = dataWriter;
+    }
+
     @Nonnull
     @Override
     public PrintStream getErrorStream() {
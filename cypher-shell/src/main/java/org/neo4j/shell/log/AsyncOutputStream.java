@@ -0,0 +1,161 @@
+package org.neo4j.shell.log;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * An output stream which hands what is written to a thread of its own, so whoever writes can carry on (fetching
+ * records, say) while a slow terminal or pipe catches up.
+ *
+ * Bytes are copied into a ring of reusable buffers. Full buffers are queued for the writer thread, which returns them
+ * once written. When every buffer is queued, writing blocks until one has been written. Flushing waits until
+ * everything written before it has been written and flushed to the target.
+ *
+ * A failure to write to the target is thrown by the next write or flush.
+ */
+public class AsyncOutputStream extends OutputStream {
+    private final OutputStream target;
+    private final BlockingQueue<Chunk> free;
+    private final BlockingQueue<Chunk> queued = new LinkedBlockingQueue<>();
+    private final Thread writer;
+    private volatile IOException failure;
+    private Chunk current;
+    private boolean closed = false;
+
+    public AsyncOutputStream(@Nonnull OutputStream target, int buffers, int bufferSize) {
+        this.target = target;
+        this.free = new ArrayBlockingQueue<>(buffers);
+        for (int i = 0; i < buffers; i++) {
+            free.add(new Chunk(new byte[bufferSize], null));
+        }
+        this.writer = new Thread(this::drain, "cypher-shell-output");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * A buffer of bytes to write, or a request to flush the target once everything before it has been written
+     */
+    private static class Chunk {
+        final byte[] bytes;
+        final CountDownLatch flushed;
+        int length = 0;
+
+        Chunk(byte[] bytes, CountDownLatch flushed) {
+            this.bytes = bytes;
+            this.flushed = flushed;
+        }
+    }
+
+    @Override
+    public synchronized void write(int b) throws IOException {
+        write(new byte[]{(byte) b}, 0, 1);
+    }
+
+    @Override
+    public synchronized void write(@Nonnull byte[] bytes, int offset, int length) throws IOException {
+        checkOpen();
+        while (length > 0) {
+            if (current == null) {
+                current = take();
+            }
+            int count = Math.min(length, current.bytes.length - current.length);
+            System.arraycopy(bytes, offset, current.bytes, current.length, count);
+            current.length += count;
+            offset += count;
+            length -= count;
+            if (current.length == current.bytes.length) {
+                queued.add(current);
+                current = null;
+            }
+        }
+    }
+
+    @Override
+    public synchronized void flush() throws IOException {
+        checkOpen();
+        if (current != null) {
+            queued.add(current);
+            current = null;
+        }
+        CountDownLatch flushed = new CountDownLatch(1);
+        queued.add(new Chunk(null, flushed));
+        try {
+            flushed.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for output to be written");
+        }
+        checkOpen();
+    }
+
+    /**
+     * Flushes and stops the writer thread, the target is left open
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        try {
+            flush();
+        } finally {
+            closed = true;
+            writer.interrupt();
+        }
+    }
+
+    @Nonnull
+    private Chunk take() throws IOException {
+        try {
+            return free.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for output to be written");
+        }
+    }
+
+    private void checkOpen() throws IOException {
+        if (failure != null) {
+            throw failure;
+        }
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+    }
+
+    private void drain() {
+        while (true) {
+            Chunk chunk;
+            try {
+                chunk = queued.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            // After a failure chunks are still taken, so nobody waits on them forever
+            try {
+                if (failure == null) {
+                    if (chunk.bytes != null) {
+                        target.write(chunk.bytes, 0, chunk.length);
+                    } else {
+                        target.flush();
+                    }
+                }
+            } catch (IOException e) {
+                failure = e;
+            }
+            if (chunk.bytes != null) {
+                chunk.length = 0;
+                free.add(chunk);
+            } else {
+                chunk.flushed.countDown();
+            }
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package org.neo4j.shell.log;
+
+import org.neo4j.shell.cli.Format;
+
+import javax.annotation.Nonnull;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * A logger which holds on to everything printed to it until it is replayed on another logger. Used to print the
+ * output of statements running concurrently in the order of the statements.
+ *
+ * Result data is kept as it was written and replayed to the data writer of the other logger, so it goes through the
+ * same raw channel as the data of the main shell.
+ */
+public class BufferedLogger implements Logger {
+    private final Logger target;
+    private List<Consumer<Logger>> buffer = new ArrayList<>();
+    private final StringBuilder data = new StringBuilder();
+    private final PrintWriter dataWriter = new PrintWriter(new Writer() {
+        @Override
+        public void write(@Nonnull char[] cbuf, int off, int len) {
+            data.append(cbuf, off, len);
+        }
+
+        @Override
+        public void flush() {
+            bufferData();
+        }
+
+        @Override
+        public void close() {
+            flush();
+        }
+    });
+    private Format format;
+
+    public BufferedLogger(@Nonnull Logger target) {
+        this.target = target;
+        this.format = target.getFormat();
+    }
+
+    /**
+     * Moves data written so far into the buffer, so it is replayed in order with the rest of the output
+     */
+    private void bufferData() {
+        if (data.length() > 0) {
+            String text = data.toString();
+            data.setLength(0);
+            buffer.add(logger -> {
+                PrintWriter writer = logger.getDataWriter();
+                writer.write(text);
+                writer.flush();
+            });
+        }
+    }
+
+    /**
+     * @return everything printed since the last call, to be replayed with {@link #replay(List, Logger)}
+     */
+    @Nonnull
+    public List<Consumer<Logger>> drain() {
+        dataWriter.flush();
+        List<Consumer<Logger>> drained = buffer;
+        buffer = new ArrayList<>();
+        return drained;
+    }
+
+    /**
+     * Print previously buffered output to the given logger
+     */
+    public static void replay(@Nonnull List<Consumer<Logger>> output, @Nonnull Logger logger) {
+        output.forEach(print -> print.accept(logger));
+    }
+
+    @Nonnull
+    @Override
+    public PrintStream getOutputStream() {
+        return target.getOutputStream();
+    }
+
+    @Nonnull
+    @Override
+    public PrintStream getErrorStream() {
+        return target.getErrorStream();
+    }
+
+    @Nonnull
+    @Override
+    public PrintWriter getDataWriter() {
+        return dataWriter;
+    }
+
+    @Override
+    public void printError(@Nonnull Throwable throwable) {
+        dataWriter.flush();
+        buffer.add(logger -> logger.printError(throwable));
+    }
+
+    @Override
+    public void printError(@Nonnull String text) {
+        dataWriter.flush();
+        buffer.add(logger -> logger.printError(text));
+    }
+
+    @Override
+    public void printOut(@Nonnull String text) {
+        dataWriter.flush();
+        buffer.add(logger -> logger.printOut(text));
+    }
+
+    @Nonnull
+    @Override
+    public Format getFormat() {
+        return format;
+    }
+
+    @Override
+    public void setFormat(@Nonnull Format format) {
+        this.format = format;
+    }
+
+    @Override
+    public boolean isDebugEnabled() {
+        return target.isDebugEnabled();
+    }
+}
@@ -0,0 +1,44 @@
+package org.neo4j.shell.log;
+
+import javax.annotation.Nonnull;
+import java.io.FilterWriter;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Flushes whenever a line has been completed, so every row reaches the terminal as soon as it has been written.
+ * Formatters end their rows with plain writes, which a {@link java.io.PrintWriter} does not flush on its own.
+ */
+class LineFlushingWriter extends FilterWriter {
+
+    LineFlushingWriter(@Nonnull Writer out) {
+        super(out);
+    }
+
+    @Override
+    public void write(int c) throws IOException {
+        out.write(c);
+        if (c == '\n') {
+            out.flush();
+        }
+    }
+
+    @Override
+    public void write(@Nonnull char[] cbuf, int off, int len) throws IOException {
+        out.write(cbuf, off, len);
+        for (int i = off + len - 1; i >= off; i--) {
+            if (cbuf[i] == '\n') {
+                out.flush();
+                return;
+            }
+        }
+    }
+
+    @Override
+    public void write(@Nonnull String str, int off, int len) throws IOException {
+        out.write(str, off, len);
+        if (str.lastIndexOf('\n', off + len - 1) >= off) {
+            out.flush();
+        }
+    }
+}
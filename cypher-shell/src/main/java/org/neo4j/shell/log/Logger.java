@@ -1,9 +1,12 @@
 package org.neo4j.shell.log;
 
 import org.neo4j.shell.cli.Format;
+import org.neo4j.shell.prettyprint.LineWriter;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import java.io.PrintStream;
+import java.io.PrintWriter;
 
 public interface Logger {
     /**
@@ -40,6 +43,27 @@ public interface Logger {
      */
     void printOut(@Nonnull String text);
 
+    /**
+     * A channel for result data, which is written as it is without any markup being rendered. Callers flush the
+     * writer once they are done with it, but must not close it. By default complete lines are printed with
+     * {@link #printOut(String)}.
+     *
+     * @return a writer for result data
+     */
+    @Nonnull
+    default PrintWriter getDataWriter() {
+        return new PrintWriter(new LineWriter(this::printOut));
+    }
+
+    /**
+     * Writes result data through the given writer, such as a pager, in place of the default channel. Loggers which do
+     * not print to a terminal ignore this.
+     *
+     * @param dataWriter to write result data to, or null for the default channel
+     */
+    default void setDataWriter(@Nullable PrintWriter dataWriter) {
+    }
+
     /**
      * @return the current format of the logger
      */
@@ -0,0 +1,37 @@
+package org.neo4j.shell.log;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.zip.GZIPOutputStream;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Opens files for result data, which is written instead of being printed to STDOUT
+ */
+public final class OutputFile {
+    static final int BUFFER_SIZE = 1 << 20;
+    private static final int GZIP_BUFFER_SIZE = 1 << 16;
+
+    private OutputFile() {
+    }
+
+    /**
+     * Creates or truncates the file. Files with names ending with .gz are compressed with gzip, which is completed
+     * when the stream is closed.
+     */
+    @Nonnull
+    public static OutputStream open(@Nonnull Path file) throws IOException {
+        OutputStream out = new ChannelOutputStream(FileChannel.open(file, WRITE, CREATE, TRUNCATE_EXISTING),
+                BUFFER_SIZE);
+        if (file.getFileName().toString().endsWith(".gz")) {
+            return new GZIPOutputStream(out, GZIP_BUFFER_SIZE);
+        }
+        return out;
+    }
+}
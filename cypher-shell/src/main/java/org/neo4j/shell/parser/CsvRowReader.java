@@ -0,0 +1,124 @@
+package org.neo4j.shell.parser;
+
+import org.neo4j.shell.exception.CommandException;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads rows from CSV with a header line naming the columns. Like LOAD CSV, all values are strings and empty
+ * values are null. Fields can be quoted with double quotes, which allows them to contain delimiters, doubled
+ * quotes and line breaks.
+ */
+public class CsvRowReader implements RowReader {
+    private static final char QUOTE = '"';
+    private final BufferedReader reader;
+    private final char delimiter;
+    private List<String> header;
+    private int lineNumber = 0;
+
+    public CsvRowReader(@Nonnull BufferedReader reader, char delimiter) {
+        this.reader = reader;
+        this.delimiter = delimiter;
+    }
+
+    @Nullable
+    @Override
+    public Map<String, Object> readRow() throws IOException, CommandException {
+        if (header == null) {
+            List<String> names = readFields();
+            if (names == null) {
+                return null;
+            }
+            header = names;
+        }
+        List<String> fields = readFields();
+        if (fields == null) {
+            return null;
+        }
+        if (fields.size() != header.size()) {
+            throw new CommandException(String.format("Expected %d fields but found %d on line %d",
+                    header.size(), fields.size(), lineNumber));
+        }
+        Map<String, Object> row = new LinkedHashMap<>(header.size());
+        for (int i = 0; i < header.size(); i++) {
+            row.put(header.get(i), fields.get(i));
+        }
+        return row;
+    }
+
+    /**
+     * @return the fields of the next non-empty record, where empty unquoted fields are null, or null at the end
+     */
+    @Nullable
+    private List<String> readFields() throws IOException, CommandException {
+        String line;
+        do {
+            line = reader.readLine();
+            lineNumber++;
+            if (line == null) {
+                return null;
+            }
+        } while (line.isEmpty());
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean wasQuoted = false;
+        int i = 0;
+        while (true) {
+            if (i >= line.length()) {
+                if (!quoted) {
+                    break;
+                }
+                // A quoted field continues on the next line
+                line = reader.readLine();
+                lineNumber++;
+                if (line == null) {
+                    throw new CommandException(String.format("Unterminated quoted field on line %d", lineNumber - 1));
+                }
+                field.append('\n');
+                i = 0;
+                continue;
+            }
+            char c = line.charAt(i++);
+            if (quoted) {
+                if (c == QUOTE && i < line.length() && line.charAt(i) == QUOTE) {
+                    field.append(QUOTE);
+                    i++;
+                } else if (c == QUOTE) {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == QUOTE) {
+                quoted = true;
+                wasQuoted = true;
+            } else if (c == delimiter) {
+                fields.add(fieldValue(field, wasQuoted));
+                field.setLength(0);
+                wasQuoted = false;
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(fieldValue(field, wasQuoted));
+        return fields;
+    }
+
+    @Nullable
+    private static String fieldValue(@Nonnull StringBuilder field, boolean wasQuoted) {
+        return field.length() == 0 && !wasQuoted ? null : field.toString();
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
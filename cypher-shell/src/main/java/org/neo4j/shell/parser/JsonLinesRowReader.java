@@ -0,0 +1,51 @@
+package org.neo4j.shell.parser;
+
+import org.neo4j.shell.exception.CommandException;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Reads rows from text with one JSON object per line. Blank lines are skipped.
+ */
+public class JsonLinesRowReader implements RowReader {
+    private final BufferedReader reader;
+    private int lineNumber = 0;
+
+    public JsonLinesRowReader(@Nonnull BufferedReader reader) {
+        this.reader = reader;
+    }
+
+    @Nullable
+    @Override
+    @SuppressWarnings("unchecked")
+    public Map<String, Object> readRow() throws IOException, CommandException {
+        String line;
+        do {
+            line = reader.readLine();
+            lineNumber++;
+            if (line == null) {
+                return null;
+            }
+        } while (line.trim().isEmpty());
+
+        final Object row;
+        try {
+            row = LiteralParser.parseJson(line);
+        } catch (CommandException e) {
+            throw new CommandException(String.format("Invalid JSON on line %d: %s", lineNumber, e.getMessage()));
+        }
+        if (!(row instanceof Map)) {
+            throw new CommandException(String.format("Expected a JSON object on line %d", lineNumber));
+        }
+        return (Map<String, Object>) row;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
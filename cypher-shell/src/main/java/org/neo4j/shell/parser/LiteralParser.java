@@ -0,0 +1,322 @@
+package org.neo4j.shell.parser;
+
+import org.neo4j.shell.exception.CommandException;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Parses literal values written as JSON or Cypher into the Java types the driver accepts as parameters: maps, lists,
+ * strings, longs, doubles, booleans and null. Cypher literals can also refer to parameters as $name.
+ *
+ * Anything else, such as an expression, is rejected, so the caller can leave it to the server.
+ */
+public class LiteralParser {
+    private static final char BACKTICK = '`';
+    private static final char DOUBLE_QUOTE = '"';
+    private static final char SINGLE_QUOTE = '\'';
+    private final String text;
+    @Nullable
+    private final Map<String, Object> params;
+    private int position = 0;
+
+    private LiteralParser(@Nonnull String text, @Nullable Map<String, Object> params) {
+        this.text = text;
+        this.params = params;
+    }
+
+    /**
+     * @param text containing exactly one JSON value
+     * @return the value
+     * @throws CommandException if the text is not a single valid value
+     */
+    @Nullable
+    public static Object parseJson(@Nonnull String text) throws CommandException {
+        return new LiteralParser(text, null).parseAll();
+    }
+
+    /**
+     * @param text containing exactly one Cypher literal
+     * @param params which the literal can refer to
+     * @return the value
+     * @throws CommandException if the text is not a single literal, or refers to a parameter which is not set
+     */
+    @Nullable
+    public static Object parseCypher(@Nonnull String text, @Nonnull Map<String, Object> params)
+            throws CommandException {
+        return new LiteralParser(text, params).parseAll();
+    }
+
+    private boolean isCypher() {
+        return params != null;
+    }
+
+    @Nullable
+    private Object parseAll() throws CommandException {
+        Object value = parseValue();
+        skipWhitespace();
+        if (position < text.length()) {
+            throw error("Unexpected text after value");
+        }
+        return value;
+    }
+
+    @Nullable
+    private Object parseValue() throws CommandException {
+        skipWhitespace();
+        if (position >= text.length()) {
+            throw error("Expected a value");
+        }
+        char c = text.charAt(position);
+        switch (c) {
+            case '{':
+                return parseMap();
+            case '[':
+                return parseList();
+            case DOUBLE_QUOTE:
+                return parseString(DOUBLE_QUOTE);
+            case SINGLE_QUOTE:
+                if (!isCypher()) {
+                    throw error("Expected a value");
+                }
+                return parseString(SINGLE_QUOTE);
+            case '$':
+                if (!isCypher()) {
+                    throw error("Expected a value");
+                }
+                return parseParameter();
+            default:
+                if (c == '-' || c == '.' || Character.isDigit(c)) {
+                    return parseNumber();
+                }
+                return parseKeyword();
+        }
+    }
+
+    @Nonnull
+    private Map<String, Object> parseMap() throws CommandException {
+        Map<String, Object> map = new LinkedHashMap<>();
+        expect('{');
+        skipWhitespace();
+        if (consume('}')) {
+            return map;
+        }
+        do {
+            skipWhitespace();
+            String key = parseKey();
+            skipWhitespace();
+            expect(':');
+            map.put(key, parseValue());
+            skipWhitespace();
+        } while (consume(','));
+        expect('}');
+        return map;
+    }
+
+    @Nonnull
+    private List<Object> parseList() throws CommandException {
+        List<Object> list = new ArrayList<>();
+        expect('[');
+        skipWhitespace();
+        if (consume(']')) {
+            return list;
+        }
+        do {
+            list.add(parseValue());
+            skipWhitespace();
+        } while (consume(','));
+        expect(']');
+        return list;
+    }
+
+    /**
+     * JSON keys are strings, Cypher keys are names which can be escaped with backticks
+     */
+    @Nonnull
+    private String parseKey() throws CommandException {
+        if (!isCypher()) {
+            if (position >= text.length() || text.charAt(position) != DOUBLE_QUOTE) {
+                throw error("Expected a quoted key");
+            }
+            return parseString(DOUBLE_QUOTE);
+        }
+        return parseName();
+    }
+
+    @Nonnull
+    private String parseName() throws CommandException {
+        if (consume(BACKTICK)) {
+            StringBuilder builder = new StringBuilder();
+            while (position < text.length()) {
+                char c = text.charAt(position++);
+                if (c != BACKTICK) {
+                    builder.append(c);
+                } else if (consume(BACKTICK)) {
+                    builder.append(BACKTICK);
+                } else {
+                    return builder.toString();
+                }
+            }
+            throw error("Unterminated name");
+        }
+        int start = position;
+        if (position < text.length() && isNameStart(text.charAt(position))) {
+            position++;
+            while (position < text.length() && isNamePart(text.charAt(position))) {
+                position++;
+            }
+        }
+        if (start == position) {
+            throw error("Expected a name");
+        }
+        return text.substring(start, position);
+    }
+
+    private static boolean isNameStart(char c) {
+        return Character.isLetter(c) || c == '_';
+    }
+
+    private static boolean isNamePart(char c) {
+        return Character.isLetterOrDigit(c) || c == '_';
+    }
+
+    @Nullable
+    private Object parseParameter() throws CommandException {
+        expect('$');
+        String name = parseName();
+        if (!params.containsKey(name)) {
+            throw error("Parameter '" + name + "' is not set");
+        }
+        return params.get(name);
+    }
+
+    @Nonnull
+    private String parseString(char quote) throws CommandException {
+        expect(quote);
+        StringBuilder builder = new StringBuilder();
+        while (position < text.length()) {
+            char c = text.charAt(position++);
+            if (c == quote) {
+                return builder.toString();
+            } else if (c == '\\') {
+                builder.append(parseEscape());
+            } else {
+                builder.append(c);
+            }
+        }
+        throw error("Unterminated string");
+    }
+
+    private char parseEscape() throws CommandException {
+        if (position >= text.length()) {
+            throw error("Unterminated string");
+        }
+        char c = text.charAt(position++);
+        switch (c) {
+            case 'b':
+                return '\b';
+            case 'f':
+                return '\f';
+            case 'n':
+                return '\n';
+            case 'r':
+                return '\r';
+            case 't':
+                return '\t';
+            case 'u':
+                if (position + 4 > text.length()) {
+                    throw error("Invalid unicode escape");
+                }
+                try {
+                    char unicode = (char) Integer.parseInt(text.substring(position, position + 4), 16);
+                    position += 4;
+                    return unicode;
+                } catch (NumberFormatException e) {
+                    throw error("Invalid unicode escape");
+                }
+            case '\\':
+            case '/':
+            case DOUBLE_QUOTE:
+            case SINGLE_QUOTE:
+                return c;
+            default:
+                throw error("Invalid escape '\\" + c + "'");
+        }
+    }
+
+    @Nonnull
+    private Number parseNumber() throws CommandException {
+        int start = position;
+        boolean isInteger = true;
+        consume('-');
+        while (position < text.length()) {
+            char c = text.charAt(position);
+            if (c == '.' || c == 'e' || c == 'E' || ((c == '+' || c == '-') && !isInteger)) {
+                isInteger = false;
+            } else if (!Character.isDigit(c)) {
+                break;
+            }
+            position++;
+        }
+        String number = text.substring(start, position);
+        if (isInteger && number.matches("-?0\\d+")) {
+            // Cypher reads these as octal, JSON does not allow them
+            throw error("Numbers with leading zeros are not supported");
+        }
+        try {
+            return isInteger ? (Number) Long.parseLong(number) : (Number) Double.parseDouble(number);
+        } catch (NumberFormatException e) {
+            throw error("Invalid number '" + number + "'");
+        }
+    }
+
+    @Nullable
+    private Object parseKeyword() throws CommandException {
+        int start = position;
+        while (position < text.length() && Character.isLetter(text.charAt(position))) {
+            position++;
+        }
+        String keyword = text.substring(start, position);
+        // Cypher keywords are case insensitive
+        switch (isCypher() ? keyword.toLowerCase() : keyword) {
+            case "true":
+                return true;
+            case "false":
+                return false;
+            case "null":
+                return null;
+            default:
+                position = start;
+                throw error("Expected a value");
+        }
+    }
+
+    private void skipWhitespace() {
+        while (position < text.length() && Character.isWhitespace(text.charAt(position))) {
+            position++;
+        }
+    }
+
+    private boolean consume(char expected) {
+        if (position < text.length() && text.charAt(position) == expected) {
+            position++;
+            return true;
+        }
+        return false;
+    }
+
+    private void expect(char expected) throws CommandException {
+        if (!consume(expected)) {
+            throw error("Expected '" + expected + "'");
+        }
+    }
+
+    @Nonnull
+    private CommandException error(@Nonnull String message) {
+        return new CommandException(String.format("%s at position %d", message, position));
+    }
+}
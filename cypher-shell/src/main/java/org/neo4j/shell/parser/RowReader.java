@@ -0,0 +1,22 @@
+package org.neo4j.shell.parser;
+
+import org.neo4j.shell.exception.CommandException;
+
+import javax.annotation.Nullable;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Reads rows of parameters, one at a time.
+ */
+public interface RowReader extends Closeable {
+
+    /**
+     * @return the next row, or null if there are no more rows
+     * @throws IOException if reading failed
+     * @throws CommandException if the row could not be parsed
+     */
+    @Nullable
+    Map<String, Object> readRow() throws IOException, CommandException;
+}
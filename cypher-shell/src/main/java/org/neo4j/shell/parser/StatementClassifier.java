@@ -0,0 +1,264 @@
+package org.neo4j.shell.parser;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * A lightweight lexer which decides if a Cypher statement only reads data, so it can be sent to a cluster member
+ * which does not accept writes. Only keywords outside of strings, comments and escaped names are looked at.
+ * Anything which could update the graph, including procedure calls, is treated as a write.
+ *
+ * It also finds the parameters a statement refers to, so parameters which are not used need not be sent.
+ */
+public class StatementClassifier {
+    private static final Set<String> UPDATING_KEYWORDS = new HashSet<>(Arrays.asList(
+            "CREATE", "MERGE", "DELETE", "DETACH", "SET", "REMOVE", "DROP", "FOREACH", "CALL", "PERIODIC"));
+    private static final Pattern SCHEMA_CHANGE =
+            Pattern.compile("^(CREATE|DROP)\\s+(INDEX|CONSTRAINT)\\b", Pattern.CASE_INSENSITIVE);
+    private static final Pattern PERIODIC_COMMIT =
+            Pattern.compile("^((EXPLAIN|PROFILE)\\s+)?USING\\s+PERIODIC\\s+COMMIT\\b", Pattern.CASE_INSENSITIVE);
+    private static final char BACKSLASH = '\\';
+    private static final char BACKTICK = '`';
+    private static final char DOUBLE_QUOTE = '"';
+    private static final char SINGLE_QUOTE = '\'';
+
+    /**
+     * @param cypher statement to classify
+     * @return true if the statement can not update the graph, false otherwise
+     */
+    public static boolean isReadOnly(@Nonnull String cypher) {
+        final int length = cypher.length();
+        // last character which was not whitespace, used to tell keywords from labels, properties and parameters
+        char previous = ' ';
+        int i = 0;
+        while (i < length) {
+            char c = cypher.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if (cypher.startsWith("//", i)) {
+                i = skipUntil(cypher, "\n", i + 2);
+            } else if (cypher.startsWith("/*", i)) {
+                i = skipUntil(cypher, "*/", i + 2);
+            } else if (c == SINGLE_QUOTE || c == DOUBLE_QUOTE || c == BACKTICK) {
+                i = skipQuoted(cypher, c, i + 1);
+                previous = c;
+            } else if (Character.isLetter(c) || c == '_') {
+                int start = i;
+                while (i < length && (Character.isLetterOrDigit(cypher.charAt(i)) || cypher.charAt(i) == '_')) {
+                    i++;
+                }
+                if (isKeywordPosition(cypher, previous, i) &&
+                        UPDATING_KEYWORDS.contains(cypher.substring(start, i).toUpperCase(Locale.ROOT))) {
+                    return false;
+                }
+                previous = cypher.charAt(i - 1);
+            } else {
+                previous = c;
+                i++;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Finds parameters written as $name or {name}. Anything which looks like a parameter is included, so a map
+     * projection of a variable may add a name which is not a parameter.
+     *
+     * @param cypher statement to scan
+     * @return the names of the parameters the statement refers to, or empty if any parameter could be used, which
+     * is the case when a procedure is called without arguments and takes them from the parameters instead
+     */
+    @Nonnull
+    public static Optional<Set<String>> referencedParameters(@Nonnull String cypher) {
+        final Set<String> names = new HashSet<>();
+        final int length = cypher.length();
+        char previous = ' ';
+        int i = 0;
+        while (i < length) {
+            char c = cypher.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if (cypher.startsWith("//", i)) {
+                i = skipUntil(cypher, "\n", i + 2);
+            } else if (cypher.startsWith("/*", i)) {
+                i = skipUntil(cypher, "*/", i + 2);
+            } else if (c == SINGLE_QUOTE || c == DOUBLE_QUOTE || c == BACKTICK) {
+                i = skipQuoted(cypher, c, i + 1);
+                previous = c;
+            } else if (c == '$') {
+                i = readName(cypher, i + 1, names);
+                previous = c;
+            } else if (c == '{') {
+                int end = readName(cypher, skipWhitespace(cypher, i + 1), null);
+                end = skipWhitespace(cypher, end);
+                if (end < length && cypher.charAt(end) == '}') {
+                    readName(cypher, skipWhitespace(cypher, i + 1), names);
+                }
+                previous = c;
+                i++;
+            } else if (Character.isLetter(c) || c == '_') {
+                int start = i;
+                i = skipIdentifier(cypher, i);
+                if (isKeywordPosition(cypher, previous, i) && "CALL".equalsIgnoreCase(cypher.substring(start, i)) &&
+                        !hasArguments(cypher, i)) {
+                    return Optional.empty();
+                }
+                previous = cypher.charAt(i - 1);
+            } else {
+                previous = c;
+                i++;
+            }
+        }
+        return Optional.of(names);
+    }
+
+    /**
+     * @return true if the procedure name after CALL is followed by an argument list
+     */
+    private static boolean hasArguments(@Nonnull String cypher, int from) {
+        int i = skipWhitespace(cypher, from);
+        while (i < cypher.length()) {
+            char c = cypher.charAt(i);
+            if (c == BACKTICK) {
+                i = skipQuoted(cypher, c, i + 1);
+            } else if (Character.isLetterOrDigit(c) || c == '_' || c == '.') {
+                i++;
+            } else {
+                break;
+            }
+        }
+        i = skipWhitespace(cypher, i);
+        return i < cypher.length() && cypher.charAt(i) == '(';
+    }
+
+    /**
+     * Reads a plain or escaped name, which for parameters may also be a number
+     *
+     * @param names to add the name to, if any
+     * @return the index after the name, or the given index if there is no name
+     */
+    private static int readName(@Nonnull String cypher, int from, @Nullable Set<String> names) {
+        int end;
+        String name;
+        if (from < cypher.length() && cypher.charAt(from) == BACKTICK) {
+            StringBuilder builder = new StringBuilder();
+            end = from + 1;
+            while (end < cypher.length()) {
+                char c = cypher.charAt(end++);
+                if (c != BACKTICK) {
+                    builder.append(c);
+                } else if (end < cypher.length() && cypher.charAt(end) == BACKTICK) {
+                    builder.append(c);
+                    end++;
+                } else {
+                    break;
+                }
+            }
+            name = builder.toString();
+        } else {
+            end = skipIdentifier(cypher, from);
+            name = cypher.substring(from, end);
+        }
+        if (names != null && end > from) {
+            names.add(name);
+        }
+        return end;
+    }
+
+    private static int skipIdentifier(@Nonnull String cypher, int from) {
+        int i = from;
+        while (i < cypher.length() && (Character.isLetterOrDigit(cypher.charAt(i)) || cypher.charAt(i) == '_')) {
+            i++;
+        }
+        return i;
+    }
+
+    private static int skipWhitespace(@Nonnull String cypher, int from) {
+        int i = from;
+        while (i < cypher.length() && Character.isWhitespace(cypher.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * @param cypher statement to classify
+     * @return true if the statement creates or drops an index or constraint
+     */
+    public static boolean isSchemaChange(@Nonnull String cypher) {
+        return SCHEMA_CHANGE.matcher(cypher.substring(skipWhitespaceAndComments(cypher))).find();
+    }
+
+    /**
+     * @param cypher statement to classify
+     * @return true if the statement commits periodically, which can only be done outside of explicit transactions
+     */
+    public static boolean isPeriodicCommit(@Nonnull String cypher) {
+        return PERIODIC_COMMIT.matcher(cypher.substring(skipWhitespaceAndComments(cypher))).find();
+    }
+
+    /**
+     * @return the index of the first character which is not whitespace or part of a comment
+     */
+    private static int skipWhitespaceAndComments(@Nonnull String cypher) {
+        int i = 0;
+        while (i < cypher.length()) {
+            if (Character.isWhitespace(cypher.charAt(i))) {
+                i++;
+            } else if (cypher.startsWith("//", i)) {
+                i = skipUntil(cypher, "\n", i + 2);
+            } else if (cypher.startsWith("/*", i)) {
+                i = skipUntil(cypher, "*/", i + 2);
+            } else {
+                break;
+            }
+        }
+        return i;
+    }
+
+    /**
+     * Labels, property keys, map keys and parameters can have the same name as a keyword
+     */
+    private static boolean isKeywordPosition(@Nonnull String cypher, char previous, int end) {
+        if (previous == ':' || previous == '.' || previous == '$') {
+            return false;
+        }
+        int next = end;
+        while (next < cypher.length() && Character.isWhitespace(cypher.charAt(next))) {
+            next++;
+        }
+        return next >= cypher.length() || cypher.charAt(next) != ':';
+    }
+
+    /**
+     * @return the index after the end delimiter, or the length of the text if it never ends
+     */
+    private static int skipUntil(@Nonnull String cypher, @Nonnull String end, int from) {
+        int index = cypher.indexOf(end, from);
+        return index < 0 ? cypher.length() : index + end.length();
+    }
+
+    /**
+     * @return the index after the closing quote, or the length of the text if it is never closed
+     */
+    private static int skipQuoted(@Nonnull String cypher, char quote, int from) {
+        int i = from;
+        while (i < cypher.length()) {
+            char c = cypher.charAt(i);
+            if (c == BACKSLASH && quote != BACKTICK) {
+                i += 2;
+            } else if (c == quote) {
+                return i + 1;
+            } else {
+                i++;
+            }
+        }
+        return cypher.length();
+    }
+}
@@ -0,0 +1,266 @@
+package org.neo4j.shell.prettyprint;
+
+import org.neo4j.driver.internal.types.TypeRepresentation;
+import org.neo4j.driver.internal.types.TypeConstructor;
+import org.neo4j.driver.v1.Record;
+import org.neo4j.driver.v1.Value;
+import org.neo4j.shell.state.BoltResult;
+
+import javax.annotation.Nonnull;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Writes results in the Arrow IPC streaming format, so they can be handed to analytics tools without being formatted
+ * as text and parsed again. Each result is a stream of its own: a schema, record batches and an end of stream marker.
+ *
+ * Columns are typed from the first batch: integers become 64 bit integers, floats 64 bit floats, booleans booleans
+ * and anything else UTF-8 strings, with lists, maps and graph entities written as JSON. Values in later batches which
+ * do not fit the type of their column are written as null, except integers in float columns which are converted.
+ */
+public class ArrowOutputFormatter implements OutputFormatter {
+    static final int DEFAULT_BATCH_SIZE = 1024;
+
+    private static final short METADATA_VERSION_V5 = 4;
+    private static final byte HEADER_SCHEMA = 1;
+    private static final byte HEADER_RECORD_BATCH = 3;
+    private static final int CONTINUATION = 0xFFFFFFFF;
+    private static final int ALIGNMENT = 8;
+
+    private final PrintStream out;
+    private final int batchSize;
+
+    public ArrowOutputFormatter(@Nonnull PrintStream out) {
+        this(out, DEFAULT_BATCH_SIZE);
+    }
+
+    ArrowOutputFormatter(@Nonnull PrintStream out, int batchSize) {
+        this.out = out;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * The type of a column, with its type in the Arrow schema
+     */
+    enum ColumnType {
+        INT64((byte) 2),
+        FLOAT64((byte) 3),
+        UTF8((byte) 5),
+        BOOL((byte) 6);
+
+        final byte typeId;
+
+        ColumnType(byte typeId) {
+            this.typeId = typeId;
+        }
+
+        @Nonnull
+        static ColumnType of(@Nonnull Value value) {
+            switch (((TypeRepresentation) value.type()).constructor()) {
+                case INTEGER_TyCon:
+                    return INT64;
+                case FLOAT_TyCon:
+                    return FLOAT64;
+                case BOOLEAN_TyCon:
+                    return BOOL;
+                default:
+                    return UTF8;
+            }
+        }
+
+        @Nonnull
+        FlatBuffer.Table schemaType() {
+            switch (this) {
+                case INT64:
+                    return FlatBuffer.table().addInt(0, 64).addBoolean(1, true);
+                case FLOAT64:
+                    // Precision.DOUBLE
+                    return FlatBuffer.table().addShort(0, (short) 2);
+                default:
+                    return FlatBuffer.table();
+            }
+        }
+    }
+
+    /**
+     * Writes the result to the stream given when this was created, nothing is written to the text output
+     *
+     * @return the number of records which were written
+     */
+    @Override
+    public int formatAndCount(@Nonnull BoltResult result, @Nonnull PrintWriter output) {
+        List<String> keys = result.getKeys();
+        if (keys.isEmpty()) {
+            return 0;
+        }
+        Iterator<Record> records = result.iterate();
+        List<Record> batch = new ArrayList<>(batchSize);
+        ColumnType[] types = null;
+        int numberOfRows = 0;
+        while (records.hasNext()) {
+            batch.add(records.next());
+            numberOfRows++;
+            if (batch.size() == batchSize) {
+                if (types == null) {
+                    types = writeSchema(keys, batch);
+                }
+                writeBatch(types, batch);
+                batch.clear();
+            }
+        }
+        if (types == null) {
+            types = writeSchema(keys, batch);
+        }
+        if (!batch.isEmpty()) {
+            writeBatch(types, batch);
+        }
+        writeInt(CONTINUATION);
+        writeInt(0);
+        out.flush();
+        return numberOfRows;
+    }
+
+    @Nonnull
+    private ColumnType[] writeSchema(@Nonnull List<String> keys, @Nonnull List<Record> firstBatch) {
+        ColumnType[] types = new ColumnType[keys.size()];
+        List<FlatBuffer.Table> fields = new ArrayList<>(keys.size());
+        for (int column = 0; column < types.length; column++) {
+            types[column] = ColumnType.UTF8;
+            for (Record record : firstBatch) {
+                Value value = record.get(column);
+                if (!value.isNull()) {
+                    types[column] = ColumnType.of(value);
+                    break;
+                }
+            }
+            fields.add(FlatBuffer.table()
+                    .addOffset(0, FlatBuffer.string(keys.get(column)))
+                    .addBoolean(1, true)
+                    .addByte(2, types[column].typeId)
+                    .addOffset(3, types[column].schemaType())
+                    .addOffset(5, FlatBuffer.tables(new ArrayList<>())));
+        }
+        writeMessage(HEADER_SCHEMA, FlatBuffer.table().addOffset(1, FlatBuffer.tables(fields)), new byte[0]);
+        return types;
+    }
+
+    private void writeBatch(@Nonnull ColumnType[] types, @Nonnull List<Record> batch) {
+        int rows = batch.size();
+        Body body = new Body();
+        ByteBuffer nodes = FlatBuffer.order(ByteBuffer.allocate(16 * types.length));
+        for (int column = 0; column < types.length; column++) {
+            byte[] validity = new byte[(rows + 7) / 8];
+            int nullCount = 0;
+            ByteBuffer values = null;
+            byte[] booleans = null;
+            ByteArrayOutputStream strings = null;
+            switch (types[column]) {
+                case INT64:
+                case FLOAT64:
+                    values = FlatBuffer.order(ByteBuffer.allocate(8 * rows));
+                    break;
+                case BOOL:
+                    booleans = new byte[validity.length];
+                    break;
+                default:
+                    values = FlatBuffer.order(ByteBuffer.allocate(4 * (rows + 1)));
+                    values.putInt(0);
+                    strings = new ByteArrayOutputStream();
+            }
+            for (int row = 0; row < rows; row++) {
+                Value value = batch.get(row).get(column);
+                TypeConstructor type = ((TypeRepresentation) value.type()).constructor();
+                boolean valid = true;
+                switch (types[column]) {
+                    case INT64:
+                        valid = type == TypeConstructor.INTEGER_TyCon;
+                        values.putLong(valid ? value.asLong() : 0);
+                        break;
+                    case FLOAT64:
+                        valid = type == TypeConstructor.INTEGER_TyCon || type == TypeConstructor.FLOAT_TyCon;
+                        values.putDouble(valid ? value.asNumber().doubleValue() : 0);
+                        break;
+                    case BOOL:
+                        valid = type == TypeConstructor.BOOLEAN_TyCon;
+                        if (valid && value.asBoolean()) {
+                            booleans[row / 8] |= 1 << (row % 8);
+                        }
+                        break;
+                    default:
+                        valid = !value.isNull();
+                        if (valid) {
+                            String text = type == TypeConstructor.STRING_TyCon ? value.asString() :
+                                    JsonOutputFormatter.appendJson(new StringBuilder(), value).toString();
+                            byte[] utf8 = text.getBytes(StandardCharsets.UTF_8);
+                            strings.write(utf8, 0, utf8.length);
+                        }
+                        values.putInt(strings.size());
+                }
+                if (valid) {
+                    validity[row / 8] |= 1 << (row % 8);
+                } else {
+                    nullCount++;
+                }
+            }
+            nodes.putLong(rows).putLong(nullCount);
+            body.add(validity);
+            if (booleans != null) {
+                body.add(booleans);
+            } else {
+                body.add(values.array());
+            }
+            if (strings != null) {
+                body.add(strings.toByteArray());
+            }
+        }
+        FlatBuffer.Table recordBatch = FlatBuffer.table()
+                .addLong(0, rows)
+                .addOffset(1, FlatBuffer.structs(nodes.array(), types.length))
+                .addOffset(2, FlatBuffer.structs(body.buffers(), body.count));
+        writeMessage(HEADER_RECORD_BATCH, recordBatch, body.toByteArray());
+    }
+
+    /**
+     * The buffers of a record batch, each padded to 8 bytes, together with their offsets and lengths
+     */
+    private static class Body extends ByteArrayOutputStream {
+        private final ByteArrayOutputStream buffers = new ByteArrayOutputStream();
+        private int count = 0;
+
+        void add(@Nonnull byte[] buffer) {
+            byte[] location = FlatBuffer.order(ByteBuffer.allocate(16)).putLong(size()).putLong(buffer.length).array();
+            buffers.write(location, 0, location.length);
+            count++;
+            write(buffer, 0, buffer.length);
+            int padding = FlatBuffer.align(buffer.length, ALIGNMENT) - buffer.length;
+            write(new byte[padding], 0, padding);
+        }
+
+        @Nonnull
+        byte[] buffers() {
+            return buffers.toByteArray();
+        }
+    }
+
+    private void writeMessage(byte headerType, @Nonnull FlatBuffer.Table header, @Nonnull byte[] body) {
+        byte[] metadata = FlatBuffer.finish(FlatBuffer.table()
+                .addShort(0, METADATA_VERSION_V5)
+                .addByte(1, headerType)
+                .addOffset(2, header)
+                .addLong(3, body.length));
+        writeInt(CONTINUATION);
+        writeInt(metadata.length);
+        out.write(metadata, 0, metadata.length);
+        out.write(body, 0, body.length);
+    }
+
+    private void writeInt(int value) {
+        out.write(FlatBuffer.order(ByteBuffer.allocate(4)).putInt(value).array(), 0, 4);
+    }
+}
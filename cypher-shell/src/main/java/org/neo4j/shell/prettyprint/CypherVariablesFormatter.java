@@ -1,31 +1,72 @@
 package org.neo4j.shell.prettyprint;
 
 import javax.annotation.Nonnull;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 
 public class CypherVariablesFormatter {
     private static final String BACKTICK = "`";
-    private static final Pattern ALPHA_NUMERIC = Pattern.compile("^[\\p{L}_][\\p{L}0-9_]*");
+    // Labels, types and keys repeat across a result, so escaping them once is enough. Bounded, as map keys can be
+    // anything.
+    static final int CACHE_SIZE = 1024;
+    static final int MAX_CACHED_LENGTH = 128;
+    private static final Map<String, String> ESCAPED = new ConcurrentHashMap<>();
+    private static final LongAdder HITS = new LongAdder();
+    private static final LongAdder MISSES = new LongAdder();
 
     @Nonnull
     public static String escape(@Nonnull String string) {
-        Matcher alphaNumericMatcher = ALPHA_NUMERIC.matcher(string);
-        if (!alphaNumericMatcher.matches()) {
-            String reEscapeBackTicks = string.replaceAll(BACKTICK, BACKTICK + BACKTICK);
-            return BACKTICK + reEscapeBackTicks + BACKTICK;
+        String escaped = ESCAPED.get(string);
+        if (escaped != null) {
+            HITS.increment();
+            return escaped;
         }
-        return string;
+        MISSES.increment();
+        escaped = isAlphaNumeric(string) ? string :
+                BACKTICK + string.replace(BACKTICK, BACKTICK + BACKTICK) + BACKTICK;
+        if (ESCAPED.size() < CACHE_SIZE && string.length() <= MAX_CACHED_LENGTH) {
+            ESCAPED.putIfAbsent(string, escaped);
+        }
+        return escaped;
     }
 
     @Nonnull
     public static String unescapedCypherVariable(@Nonnull String string) {
-        Matcher alphaNumericMatcher = ALPHA_NUMERIC.matcher(string);
-        if (!alphaNumericMatcher.matches()) {
+        if (!isAlphaNumeric(string)) {
             String substring = string.substring(1, string.length() - 1);
             return substring.replace(BACKTICK + BACKTICK, BACKTICK);
         } else {
             return string;
         }
     }
+
+    /**
+     * @return true if the string is a letter or underscore followed by letters, digits and underscores, which are
+     * variables that need no escaping
+     */
+    static boolean isAlphaNumeric(@Nonnull String string) {
+        if (string.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < string.length(); ) {
+            int c = string.codePointAt(i);
+            if (!(c == '_' || Character.isLetter(c) || (i > 0 && c >= '0' && c <= '9'))) {
+                return false;
+            }
+            i += Character.charCount(c);
+        }
+        return true;
+    }
+
+    /**
+     * @return how often escaped variables were found in the cache since the shell started
+     */
+    @Nonnull
+    public static String cacheStatistics() {
+        long hits = HITS.sum();
+        long lookups = hits + MISSES.sum();
+        return String.format("Escaped variables: %d lookups, %.1f%% cached", lookups,
+                lookups == 0 ? 0.0 : 100.0 * hits / lookups);
+    }
 }
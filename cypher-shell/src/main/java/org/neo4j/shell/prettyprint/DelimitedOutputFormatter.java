@@ -0,0 +1,106 @@
+package org.neo4j.shell.prettyprint;
+
+import org.neo4j.driver.internal.types.TypeRepresentation;
+import org.neo4j.driver.v1.Record;
+import org.neo4j.driver.v1.Value;
+import org.neo4j.shell.state.BoltResult;
+
+import javax.annotation.Nonnull;
+import java.io.PrintWriter;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Prints records as delimited values following RFC 4180: a header row of the column names, then one row per record.
+ * Fields containing the delimiter, a quote or a line break are quoted, with quotes doubled. Fields are written
+ * straight to the output as the records arrive.
+ *
+ * Nulls are empty fields, strings are written as they are and lists, maps and graph entities are written as JSON.
+ */
+public class DelimitedOutputFormatter implements OutputFormatter {
+    private static final char QUOTE = '"';
+    private final char delimiter;
+
+    public DelimitedOutputFormatter(char delimiter) {
+        this.delimiter = delimiter;
+    }
+
+    @Override
+    public int formatAndCount(@Nonnull BoltResult result, @Nonnull PrintWriter output) {
+        List<String> keys = result.getKeys();
+        if (keys.isEmpty()) {
+            return 0;
+        }
+        for (int i = 0; i < keys.size(); i++) {
+            writeField(output, i, keys.get(i));
+        }
+        output.println();
+        Iterator<Record> records = result.iterate();
+        int numberOfRows = 0;
+        while (records.hasNext()) {
+            Record record = records.next();
+            for (int i = 0; i < keys.size(); i++) {
+                writeField(output, i, record.get(i));
+            }
+            output.println();
+            numberOfRows++;
+        }
+        return numberOfRows;
+    }
+
+    private void writeField(@Nonnull PrintWriter output, int column, @Nonnull Value value) {
+        TypeRepresentation type = (TypeRepresentation) value.type();
+        switch (type.constructor()) {
+            case NULL_TyCon:
+                if (column > 0) {
+                    output.write(delimiter);
+                }
+                break;
+            case BOOLEAN_TyCon:
+                writeField(output, column, String.valueOf(value.asBoolean()));
+                break;
+            case STRING_TyCon:
+                writeField(output, column, value.asString());
+                break;
+            case LIST_TyCon:
+            case MAP_TyCon:
+            case NODE_TyCon:
+            case RELATIONSHIP_TyCon:
+            case PATH_TyCon:
+                writeField(output, column, JsonOutputFormatter.appendJson(new StringBuilder(), value).toString());
+                break;
+            default:
+                writeField(output, column, value.toString());
+        }
+    }
+
+    private void writeField(@Nonnull PrintWriter output, int column, @Nonnull String text) {
+        if (column > 0) {
+            output.write(delimiter);
+        }
+        if (needsQuotes(text)) {
+            output.write(QUOTE);
+            int start = 0;
+            for (int i = 0; i < text.length(); i++) {
+                if (text.charAt(i) == QUOTE) {
+                    output.write(text, start, i + 1 - start);
+                    start = i;
+                }
+            }
+            output.write(text, start, text.length() - start);
+            output.write(QUOTE);
+        } else {
+            output.write(text);
+        }
+    }
+
+    private boolean needsQuotes(@Nonnull String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == delimiter || c == QUOTE || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+}
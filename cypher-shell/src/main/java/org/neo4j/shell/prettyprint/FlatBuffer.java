@@ -0,0 +1,242 @@
+package org.neo4j.shell.prettyprint;
+
+import javax.annotation.Nonnull;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Just enough of the FlatBuffers encoding to write the metadata of Arrow messages: tables of scalars, strings,
+ * vectors of tables and vectors of 8 byte aligned structs.
+ *
+ * The buffer is laid out front to back. Offsets to other objects are unsigned in FlatBuffers, so every object is
+ * written after the object which refers to it, while the vtable of a table is written just before the table.
+ */
+class FlatBuffer {
+    private static final int ALIGNMENT = 8;
+
+    private byte[] bytes = new byte[256];
+    private int position = 0;
+
+    private FlatBuffer() {
+    }
+
+    /**
+     * @return the encoded buffer with the given root table, padded to a multiple of 8 bytes
+     */
+    @Nonnull
+    static byte[] finish(@Nonnull Table root) {
+        FlatBuffer buffer = new FlatBuffer();
+        buffer.putInt(0);
+        buffer.patchOffset(0, root.write(buffer));
+        buffer.pad(ALIGNMENT);
+        return Arrays.copyOf(buffer.bytes, buffer.position);
+    }
+
+    @Nonnull
+    static Table table() {
+        return new Table();
+    }
+
+    @Nonnull
+    static Item string(@Nonnull String text) {
+        byte[] utf8 = text.getBytes(StandardCharsets.UTF_8);
+        return buffer -> {
+            buffer.pad(4);
+            int start = buffer.position;
+            buffer.putInt(utf8.length);
+            buffer.put(utf8);
+            buffer.put(new byte[]{0});
+            return start;
+        };
+    }
+
+    @Nonnull
+    static Item tables(@Nonnull List<Table> tables) {
+        return buffer -> {
+            buffer.pad(4);
+            int start = buffer.position;
+            buffer.putInt(tables.size());
+            int first = buffer.position;
+            for (int i = 0; i < tables.size(); i++) {
+                buffer.putInt(0);
+            }
+            for (int i = 0; i < tables.size(); i++) {
+                buffer.patchOffset(first + 4 * i, tables.get(i).write(buffer));
+            }
+            return start;
+        };
+    }
+
+    /**
+     * @param structs the encoded structs, each a multiple of 8 bytes long
+     */
+    @Nonnull
+    static Item structs(@Nonnull byte[] structs, int count) {
+        return buffer -> {
+            // The length comes just before the elements, which must be 8 byte aligned
+            while ((buffer.position + 4) % ALIGNMENT != 0) {
+                buffer.put(new byte[]{0});
+            }
+            int start = buffer.position;
+            buffer.putInt(count);
+            buffer.put(structs);
+            return start;
+        };
+    }
+
+    /**
+     * Something which can be referred to by an offset
+     */
+    interface Item {
+        /**
+         * @return the position the item starts at, which offsets point to
+         */
+        int write(@Nonnull FlatBuffer buffer);
+    }
+
+    /**
+     * A table with fields in numbered slots, as declared in the schema. Unset slots take their default values.
+     */
+    static class Table implements Item {
+        private final List<Field> fields = new ArrayList<>();
+
+        @Nonnull
+        Table addByte(int slot, byte value) {
+            return add(slot, 1, ByteBuffer.allocate(1).put(value).array(), null);
+        }
+
+        @Nonnull
+        Table addBoolean(int slot, boolean value) {
+            return addByte(slot, (byte) (value ? 1 : 0));
+        }
+
+        @Nonnull
+        Table addShort(int slot, short value) {
+            return add(slot, 2, order(ByteBuffer.allocate(2)).putShort(value).array(), null);
+        }
+
+        @Nonnull
+        Table addInt(int slot, int value) {
+            return add(slot, 4, order(ByteBuffer.allocate(4)).putInt(value).array(), null);
+        }
+
+        @Nonnull
+        Table addLong(int slot, long value) {
+            return add(slot, 8, order(ByteBuffer.allocate(8)).putLong(value).array(), null);
+        }
+
+        @Nonnull
+        Table addOffset(int slot, @Nonnull Item item) {
+            return add(slot, 4, new byte[4], item);
+        }
+
+        @Nonnull
+        private Table add(int slot, int size, @Nonnull byte[] value, Item item) {
+            fields.add(new Field(slot, size, value, item));
+            return this;
+        }
+
+        @Override
+        public int write(@Nonnull FlatBuffer buffer) {
+            // Larger fields first, so every field is aligned to its size without padding between them
+            List<Field> sorted = new ArrayList<>(fields);
+            sorted.sort((a, b) -> Integer.compare(b.size, a.size));
+            int slots = 0;
+            int inlineSize = 4;
+            for (Field field : sorted) {
+                slots = Math.max(slots, field.slot + 1);
+                inlineSize = align(inlineSize, field.size);
+                field.offset = inlineSize;
+                inlineSize += field.size;
+            }
+
+            buffer.pad(2);
+            int vtable = buffer.position;
+            buffer.putShort(4 + 2 * slots);
+            buffer.putShort(inlineSize);
+            short[] offsets = new short[slots];
+            for (Field field : sorted) {
+                offsets[field.slot] = (short) field.offset;
+            }
+            for (short offset : offsets) {
+                buffer.putShort(offset);
+            }
+
+            buffer.pad(ALIGNMENT);
+            int start = buffer.position;
+            buffer.putInt(start - vtable);
+            for (Field field : sorted) {
+                while (buffer.position < start + field.offset) {
+                    buffer.put(new byte[]{0});
+                }
+                buffer.put(field.value);
+            }
+            for (Field field : sorted) {
+                if (field.item != null) {
+                    buffer.patchOffset(start + field.offset, field.item.write(buffer));
+                }
+            }
+            return start;
+        }
+    }
+
+    private static class Field {
+        final int slot;
+        final int size;
+        final byte[] value;
+        final Item item;
+        int offset;
+
+        Field(int slot, int size, @Nonnull byte[] value, Item item) {
+            this.slot = slot;
+            this.size = size;
+            this.value = value;
+            this.item = item;
+        }
+    }
+
+    @Nonnull
+    static ByteBuffer order(@Nonnull ByteBuffer buffer) {
+        return buffer.order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    static int align(int position, int alignment) {
+        return (position + alignment - 1) / alignment * alignment;
+    }
+
+    private void pad(int alignment) {
+        ensureCapacity(ALIGNMENT);
+        position = align(position, alignment);
+    }
+
+    private void putShort(int value) {
+        put(order(ByteBuffer.allocate(2)).putShort((short) value).array());
+    }
+
+    private void putInt(int value) {
+        put(order(ByteBuffer.allocate(4)).putInt(value).array());
+    }
+
+    private void put(@Nonnull byte[] data) {
+        ensureCapacity(data.length);
+        System.arraycopy(data, 0, bytes, position, data.length);
+        position += data.length;
+    }
+
+    /**
+     * Offsets are relative to where they are stored
+     */
+    private void patchOffset(int at, int target) {
+        order(ByteBuffer.wrap(bytes)).putInt(at, target - at);
+    }
+
+    private void ensureCapacity(int extra) {
+        if (position + extra > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, position + extra));
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package org.neo4j.shell.prettyprint;
+
+import org.neo4j.driver.internal.types.TypeRepresentation;
+import org.neo4j.driver.v1.Record;
+import org.neo4j.driver.v1.Value;
+import org.neo4j.driver.v1.types.MapAccessor;
+import org.neo4j.driver.v1.types.Node;
+import org.neo4j.driver.v1.types.Path;
+import org.neo4j.driver.v1.types.Relationship;
+import org.neo4j.shell.state.BoltResult;
+
+import javax.annotation.Nonnull;
+import java.io.PrintWriter;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Prints each record as a JSON object on a line of its own (JSON lines), with the column names as keys. Records are
+ * written straight from the driver values as they arrive, reusing one buffer for every line.
+ *
+ * Nodes, relationships and paths are written as objects of their ids, labels or types and properties. Floats which
+ * JSON can not represent, such as NaN, are written as strings.
+ */
+public class JsonOutputFormatter implements OutputFormatter {
+
+    @Override
+    public int formatAndCount(@Nonnull BoltResult result, @Nonnull PrintWriter output) {
+        Iterator<Record> records = result.iterate();
+        if (!records.hasNext()) {
+            return 0;
+        }
+        List<String> keys = result.getKeys();
+        String[] prefixes = new String[keys.size()];
+        StringBuilder line = new StringBuilder();
+        for (int i = 0; i < prefixes.length; i++) {
+            line.setLength(0);
+            appendString(line.append(i == 0 ? "{" : ","), keys.get(i)).append(':');
+            prefixes[i] = line.toString();
+        }
+        int numberOfRows = 0;
+        while (records.hasNext()) {
+            Record record = records.next();
+            line.setLength(0);
+            for (int i = 0; i < prefixes.length; i++) {
+                appendJson(line.append(prefixes[i]), record.get(i));
+            }
+            output.append(line.append(prefixes.length == 0 ? "{}" : "}")).println();
+            numberOfRows++;
+        }
+        return numberOfRows;
+    }
+
+    @Nonnull
+    @Override
+    public StringBuilder formatValue(@Nonnull StringBuilder sb, @Nonnull Value value) {
+        return appendJson(sb, value);
+    }
+
+    @Nonnull
+    static StringBuilder appendJson(@Nonnull StringBuilder sb, @Nonnull Value value) {
+        TypeRepresentation type = (TypeRepresentation) value.type();
+        switch (type.constructor()) {
+            case NULL_TyCon:
+                return sb.append("null");
+            case BOOLEAN_TyCon:
+                return sb.append(value.asBoolean());
+            case INTEGER_TyCon:
+                return sb.append(value.asLong());
+            case FLOAT_TyCon:
+                double number = value.asDouble();
+                if (Double.isNaN(number) || Double.isInfinite(number)) {
+                    return appendString(sb, Double.toString(number));
+                }
+                return sb.append(number);
+            case STRING_TyCon:
+                return appendString(sb, value.asString());
+            case LIST_TyCon:
+                sb.append('[');
+                boolean first = true;
+                for (Value item : value.values()) {
+                    if (!first) {
+                        sb.append(',');
+                    }
+                    appendJson(sb, item);
+                    first = false;
+                }
+                return sb.append(']');
+            case MAP_TyCon:
+                return appendProperties(sb, value);
+            case NODE_TyCon:
+                return appendNode(sb, value.asNode());
+            case RELATIONSHIP_TyCon:
+                return appendRelationship(sb, value.asRelationship());
+            case PATH_TyCon:
+                return appendPath(sb, value.asPath());
+            default:
+                return appendString(sb, value.toString());
+        }
+    }
+
+    @Nonnull
+    private static StringBuilder appendNode(@Nonnull StringBuilder sb, @Nonnull Node node) {
+        sb.append("{\"id\":").append(node.id()).append(",\"labels\":[");
+        boolean first = true;
+        for (String label : node.labels()) {
+            if (!first) {
+                sb.append(',');
+            }
+            appendString(sb, label);
+            first = false;
+        }
+        sb.append("],\"properties\":");
+        return appendProperties(sb, node).append('}');
+    }
+
+    @Nonnull
+    private static StringBuilder appendRelationship(@Nonnull StringBuilder sb, @Nonnull Relationship relationship) {
+        sb.append("{\"id\":").append(relationship.id()).append(",\"type\":");
+        appendString(sb, relationship.type());
+        sb.append(",\"start\":").append(relationship.startNodeId())
+                .append(",\"end\":").append(relationship.endNodeId())
+                .append(",\"properties\":");
+        return appendProperties(sb, relationship).append('}');
+    }
+
+    @Nonnull
+    private static StringBuilder appendPath(@Nonnull StringBuilder sb, @Nonnull Path path) {
+        sb.append("{\"nodes\":[");
+        boolean first = true;
+        for (Node node : path.nodes()) {
+            if (!first) {
+                sb.append(',');
+            }
+            appendNode(sb, node);
+            first = false;
+        }
+        sb.append("],\"relationships\":[");
+        first = true;
+        for (Relationship relationship : path.relationships()) {
+            if (!first) {
+                sb.append(',');
+            }
+            appendRelationship(sb, relationship);
+            first = false;
+        }
+        return sb.append("]}");
+    }
+
+    @Nonnull
+    private static StringBuilder appendProperties(@Nonnull StringBuilder sb, @Nonnull MapAccessor properties) {
+        sb.append('{');
+        boolean first = true;
+        for (String key : properties.keys()) {
+            if (!first) {
+                sb.append(',');
+            }
+            appendString(sb, key).append(':');
+            appendJson(sb, properties.get(key));
+            first = false;
+        }
+        return sb.append('}');
+    }
+
+    @Nonnull
+    static StringBuilder appendString(@Nonnull StringBuilder sb, @Nonnull String text) {
+        sb.append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '"':
+                    sb.append("\\\"");
+                    break;
+                case '\\':
+                    sb.append("\\\\");
+                    break;
+                case '\n':
+                    sb.append("\\n");
+                    break;
+                case '\r':
+                    sb.append("\\r");
+                    break;
+                case '\t':
+                    sb.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+            }
+        }
+        return sb.append('"');
+    }
+}
@@ -0,0 +1,15 @@
+package org.neo4j.shell.prettyprint;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Something which can receive formatted output one line at a time.
+ */
+@FunctionalInterface
+public interface LinePrinter {
+
+    /**
+     * @param line to print, without a trailing newline
+     */
+    void printOut(@Nonnull String line);
+}
@@ -0,0 +1,49 @@
+package org.neo4j.shell.prettyprint;
+
+import javax.annotation.Nonnull;
+import java.io.Writer;
+
+/**
+ * Adapts a {@link LinePrinter} to a {@link Writer}, for output which can only be printed a line at a time. Text is
+ * held until a line is complete, flushing does not break up lines.
+ */
+public class LineWriter extends Writer {
+    private final LinePrinter linePrinter;
+    private final StringBuilder line = new StringBuilder();
+
+    public LineWriter(@Nonnull LinePrinter linePrinter) {
+        this.linePrinter = linePrinter;
+    }
+
+    @Override
+    public void write(@Nonnull char[] chars, int offset, int length) {
+        for (int i = offset; i < offset + length; i++) {
+            char c = chars[i];
+            if (c == '\n') {
+                int end = line.length();
+                if (end > 0 && line.charAt(end - 1) == '\r') {
+                    line.setLength(end - 1);
+                }
+                linePrinter.printOut(line.toString());
+                line.setLength(0);
+            } else {
+                line.append(c);
+            }
+        }
+    }
+
+    @Override
+    public void flush() {
+    }
+
+    /**
+     * Prints what is left of an unfinished line
+     */
+    @Override
+    public void close() {
+        if (line.length() > 0) {
+            linePrinter.printOut(line.toString());
+            line.setLength(0);
+        }
+    }
+}
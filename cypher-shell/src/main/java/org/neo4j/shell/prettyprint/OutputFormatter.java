@@ -5,13 +5,14 @@ import org.neo4j.driver.v1.Value;
 import org.neo4j.driver.v1.Values;
 import org.neo4j.driver.v1.summary.Plan;
 import org.neo4j.driver.v1.summary.ResultSummary;
+import org.neo4j.driver.v1.types.MapAccessor;
 import org.neo4j.driver.v1.types.Node;
 import org.neo4j.driver.v1.types.Path;
 import org.neo4j.driver.v1.types.Relationship;
 import org.neo4j.shell.state.BoltResult;
 
+import java.io.PrintWriter;
 import java.util.*;
-import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
 
 import static java.util.Arrays.asList;
@@ -30,98 +31,166 @@ public interface OutputFormatter {
     String SPACE = " ";
     String NEWLINE =  System.getProperty("line.separator");
 
-    @Nonnull String format(@Nonnull BoltResult result);
+    /**
+     * Formats the result and writes it as it is being consumed. Rows are written straight to the output, which is
+     * not flushed.
+     *
+     * @return the number of records which were written
+     */
+    int formatAndCount(@Nonnull BoltResult result, @Nonnull PrintWriter output);
 
     @Nonnull default String formatValue(@Nonnull final Value value) {
+        return formatValue(new StringBuilder(), value).toString();
+    }
+
+    /**
+     * Appends the formatted value, with nested values appended as they are visited rather than formatted on their
+     * own, so one buffer can be reused for a whole row.
+     *
+     * @return the given builder
+     */
+    @Nonnull default StringBuilder formatValue(@Nonnull StringBuilder sb, @Nonnull final Value value) {
+        int room = remaining(sb);
+        if (room <= 0) {
+            return sb;
+        }
         TypeRepresentation type = (TypeRepresentation) value.type();
         switch (type.constructor()) {
             case LIST_TyCon:
-                return listAsString(value.asList(this::formatValue));
+                sb.append('[');
+                boolean first = true;
+                for (Value item : value.values()) {
+                    if (remaining(sb) <= 0) {
+                        return sb;
+                    }
+                    if (!first) {
+                        sb.append(COMMA_SEPARATOR);
+                    }
+                    formatValue(sb, item);
+                    first = false;
+                }
+                return sb.append(']');
             case MAP_TyCon:
-                return mapAsString(value.asMap(this::formatValue));
+                return formatProperties(sb, value);
             case NODE_TyCon:
-                return nodeAsString(value.asNode());
+                return formatNode(sb, value.asNode());
             case RELATIONSHIP_TyCon:
-                return relationshipAsString(value.asRelationship());
+                return formatRelationship(sb, value.asRelationship());
             case PATH_TyCon:
-                return pathAsString(value.asPath());
+                return formatPath(sb, value.asPath());
+            case STRING_TyCon:
+                return formatString(sb, value.asString(), room);
             case ANY_TyCon:
             case BOOLEAN_TyCon:
-            case STRING_TyCon:
             case NUMBER_TyCon:
             case INTEGER_TyCon:
             case FLOAT_TyCon:
             case NULL_TyCon:
             default:
-                return value.toString();
+                return sb.append(value.toString());
         }
     }
 
-    @Nonnull
-    default String pathAsString(@Nonnull Path path) {
-        List<String> list = new ArrayList<>(path.length());
+    /**
+     * Appends the string quoted, as the driver prints it, but no more than the given number of characters of it
+     */
+    @Nonnull default StringBuilder formatString(@Nonnull StringBuilder sb, @Nonnull String text, int room) {
+        if (text.length() + 2 <= room && text.indexOf('"') < 0) {
+            return sb.append('"').append(text).append('"');
+        }
+        long end = (long) sb.length() + room;
+        sb.append('"');
+        for (int i = 0; i < text.length() && sb.length() < end; i++) {
+            char c = text.charAt(i);
+            if (c == '"') {
+                sb.append('\\');
+            }
+            sb.append(c);
+        }
+        return sb.length() < end ? sb.append('"') : sb;
+    }
+
+    /**
+     * Formatting stops once there is no room left, for formatters which only print the start of long values
+     *
+     * @return how many more characters may be appended to the builder
+     */
+    default int remaining(@Nonnull StringBuilder sb) {
+        return Integer.MAX_VALUE;
+    }
+
+    @Nonnull default StringBuilder formatPath(@Nonnull StringBuilder sb, @Nonnull Path path) {
         Node lastTraversed = path.start();
         if (lastTraversed != null) {
-            list.add(nodeAsString(lastTraversed));
+            formatNode(sb, lastTraversed);
 
             for (Path.Segment segment : path) {
+                if (remaining(sb) <= 0) {
+                    return sb;
+                }
                 Relationship relationship = segment.relationship();
                 if (relationship.startNodeId() == lastTraversed.id()) {
                     //-[:r]->
-                    list.add("-" + relationshipAsString(relationship) + "->");
-                    list.add(nodeAsString(segment.end()));
+                    formatRelationship(sb.append('-'), relationship).append("->");
+                    formatNode(sb, segment.end());
                     lastTraversed = segment.start();
                 } else {
-                    list.add("<-" + relationshipAsString(relationship) + "-");
-                    list.add(nodeAsString(segment.end()));
+                    formatRelationship(sb.append("<-"), relationship).append('-');
+                    formatNode(sb, segment.end());
                     lastTraversed = segment.end();
                 }
             }
         }
-
-        return list.stream().collect(Collectors.joining());
-    }
-
-    @Nonnull default String relationshipAsString(@Nonnull Relationship relationship) {
-        List<String> relationshipAsString = new ArrayList<>();
-        relationshipAsString.add(COLON + escape(relationship.type()));
-        relationshipAsString.add(mapAsString(relationship.asMap(this::formatValue)));
-
-        return "[" + joinWithSpace(relationshipAsString) + "]";
+        return sb;
     }
 
-    @Nonnull default String nodeAsString(@Nonnull final Node node) {
-        List<String> nodeAsString = new ArrayList<>();
-        nodeAsString.add(collectNodeLabels(node));
-        nodeAsString.add(mapAsString(node.asMap(this::formatValue)));
-
-        return "(" + joinWithSpace(nodeAsString) + ")";
-    }
-
-    @Nonnull static String collectNodeLabels(@Nonnull Node node) {
-        StringBuilder sb = new StringBuilder();
-        node.labels().forEach(label -> sb.append(COLON).append(escape(label)));
-        return sb.toString();
+    @Nonnull default StringBuilder formatRelationship(@Nonnull StringBuilder sb, @Nonnull Relationship relationship) {
+        sb.append('[').append(COLON).append(escape(relationship.type()));
+        appendWithSpace(sb, relationship);
+        return sb.append(']');
     }
 
-    @Nonnull static String listAsString(@Nonnull List<String> list) {
-        return list.stream().collect(Collectors.joining(COMMA_SEPARATOR,"[","]"));
+    @Nonnull default StringBuilder formatNode(@Nonnull StringBuilder sb, @Nonnull final Node node) {
+        int start = sb.append('(').length();
+        for (String label : node.labels()) {
+            sb.append(COLON).append(escape(label));
+        }
+        if (sb.length() == start) {
+            formatProperties(sb, node);
+        } else {
+            appendWithSpace(sb, node);
+        }
+        return sb.append(')');
     }
 
-    @Nonnull static String mapAsString(@Nonnull Map<String, Object> map) {
-        if (map.isEmpty()) {
-            return "";
+    /**
+     * Appends the properties after a space, unless there are none
+     */
+    default void appendWithSpace(@Nonnull StringBuilder sb, @Nonnull MapAccessor properties) {
+        int end = sb.append(SPACE).length();
+        formatProperties(sb, properties);
+        if (sb.length() == end) {
+            sb.setLength(end - 1);
         }
-        return map.entrySet().stream()
-                .map(e -> escape(e.getKey()) + COLON_SEPARATOR + e.getValue())
-                .collect(Collectors.joining(COMMA_SEPARATOR,"{","}"));
     }
 
-    @Nonnull static String joinWithSpace(@Nonnull List<String> strings) {
-        return strings.stream().filter(OutputFormatter::isNotBlank).collect(Collectors.joining(SPACE));
-    }
-    @Nonnull static  String joinNonBlanks(@Nonnull String delim, @Nonnull List<String> strings) {
-        return strings.stream().filter(OutputFormatter::isNotBlank).collect(Collectors.joining(delim));
+    /**
+     * Nothing is appended for empty maps
+     */
+    @Nonnull default StringBuilder formatProperties(@Nonnull StringBuilder sb, @Nonnull MapAccessor properties) {
+        boolean first = true;
+        for (String key : properties.keys()) {
+            if (remaining(sb) <= 0) {
+                return sb;
+            }
+            sb.append(first ? "{" : COMMA_SEPARATOR).append(escape(key)).append(COLON_SEPARATOR);
+            formatValue(sb, properties.get(key));
+            first = false;
+        }
+        if (!first) {
+            sb.append('}');
+        }
+        return sb;
     }
 
     static boolean isNotBlank(String string) {
@@ -160,7 +229,7 @@ public interface OutputFormatter {
     @Nonnull default String formatInfo(@Nonnull ResultSummary summary) {
         return "";
     }
-    @Nonnull default String formatFooter(@Nonnull BoltResult result) {
+    @Nonnull default String formatFooter(@Nonnull BoltResult result, int numberOfRows) {
         return "";
     }
 
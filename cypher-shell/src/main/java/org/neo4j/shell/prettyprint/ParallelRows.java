@@ -0,0 +1,45 @@
+package org.neo4j.shell.prettyprint;
+
+import org.neo4j.driver.v1.Record;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Formats rows on the common fork join pool. Rows do not depend on each other, so they are split between the cores
+ * and put back together in the order of the records. Records are still fetched by the calling thread.
+ */
+class ParallelRows {
+    /**
+     * Rows fetched before they are formatted together, large enough for the split to pay off
+     */
+    static final int CHUNK_SIZE = 4096;
+
+    private ParallelRows() {
+    }
+
+    /**
+     * @return up to the given number of the next records, none once the result is exhausted
+     */
+    @Nonnull
+    static List<Record> next(@Nonnull Iterator<Record> records, int count) {
+        List<Record> chunk = new ArrayList<>(Math.min(count, CHUNK_SIZE));
+        while (chunk.size() < count && records.hasNext()) {
+            chunk.add(records.next());
+        }
+        return chunk;
+    }
+
+    /**
+     * @param formatRow called concurrently, so it must not share buffers between rows
+     * @return the formatted rows, in the order of the records
+     */
+    @Nonnull
+    static <T> List<T> format(@Nonnull List<Record> records, @Nonnull Function<Record, T> formatRow) {
+        return records.parallelStream().map(formatRow).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,92 @@
+package org.neo4j.shell.prettyprint;
+
+import org.neo4j.shell.cli.CliArgs;
+import org.neo4j.shell.cli.Format;
+
+import javax.annotation.Nonnull;
+import java.io.PrintStream;
+
+/**
+ * The settings which decide how results are printed
+ */
+public class PrettyConfig {
+    private final Format format;
+    private final char delimiter;
+    private final PrintStream binaryOutput;
+    private final int sampleRows;
+    private final int maxColumnWidth;
+    private final boolean parallelFormatting;
+
+    public PrettyConfig(@Nonnull CliArgs cliArgs) {
+        this(cliArgs, System.out);
+    }
+
+    public PrettyConfig(@Nonnull CliArgs cliArgs, @Nonnull PrintStream binaryOutput) {
+        this(cliArgs.getFormat(), cliArgs.getDelimiter().orElse(defaultDelimiter(cliArgs.getFormat())),
+                binaryOutput, cliArgs.getSampleRows(), cliArgs.getMaxColumnWidth(),
+                cliArgs.isParallelFormatting());
+    }
+
+    public PrettyConfig(@Nonnull Format format) {
+        this(format, defaultDelimiter(format), System.out);
+    }
+
+    public PrettyConfig(@Nonnull Format format, char delimiter, @Nonnull PrintStream binaryOutput) {
+        this(format, delimiter, binaryOutput, 0, 0, false);
+    }
+
+    public PrettyConfig(@Nonnull Format format, char delimiter, @Nonnull PrintStream binaryOutput, int sampleRows,
+                        int maxColumnWidth, boolean parallelFormatting) {
+        this.format = format;
+        this.delimiter = delimiter;
+        this.binaryOutput = binaryOutput;
+        this.sampleRows = sampleRows;
+        this.maxColumnWidth = maxColumnWidth;
+        this.parallelFormatting = parallelFormatting;
+    }
+
+    private static char defaultDelimiter(@Nonnull Format format) {
+        return format == Format.TSV ? '\t' : ',';
+    }
+
+    @Nonnull
+    public Format getFormat() {
+        return format;
+    }
+
+    /**
+     * @return the character separating values of the delimited formats
+     */
+    public char getDelimiter() {
+        return delimiter;
+    }
+
+    /**
+     * @return how many rows table columns are sized by, 0 for every row
+     */
+    public int getSampleRows() {
+        return sampleRows;
+    }
+
+    /**
+     * @return how wide table columns may be, 0 for no limit
+     */
+    public int getMaxColumnWidth() {
+        return maxColumnWidth;
+    }
+
+    /**
+     * @return whether rows are formatted on all cores
+     */
+    public boolean isParallelFormatting() {
+        return parallelFormatting;
+    }
+
+    /**
+     * @return where the binary formats are written, as they can not be printed line by line
+     */
+    @Nonnull
+    public PrintStream getBinaryOutput() {
+        return binaryOutput;
+    }
+}
@@ -1,11 +1,11 @@
 package org.neo4j.shell.prettyprint;
 
+import org.neo4j.driver.v1.summary.ResultSummary;
 import org.neo4j.shell.cli.Format;
 import org.neo4j.shell.state.BoltResult;
 
 import javax.annotation.Nonnull;
-
-import static java.util.Arrays.asList;
+import java.io.PrintWriter;
 
 /**
  * Print the result from neo4j in a intelligible fashion.
@@ -15,16 +15,73 @@ public class PrettyPrinter {
     private final OutputFormatter outputFormatter;
 
     public PrettyPrinter(@Nonnull Format format) {
-        this.statisticsCollector = new StatisticsCollector(format);
-        this.outputFormatter = format == Format.VERBOSE ? new TableOutputFormatter() : new SimpleOutputFormatter();
+        this(new PrettyConfig(format));
+    }
+
+    public PrettyPrinter(@Nonnull PrettyConfig config) {
+        this.statisticsCollector = new StatisticsCollector(config.getFormat());
+        this.outputFormatter = selectFormatter(config);
+    }
+
+    @Nonnull
+    private static OutputFormatter selectFormatter(@Nonnull PrettyConfig config) {
+        switch (config.getFormat()) {
+            case VERBOSE:
+                return new TableOutputFormatter(config.getSampleRows(), config.getMaxColumnWidth(),
+                        config.isParallelFormatting());
+            case JSON:
+                return new JsonOutputFormatter();
+            case CSV:
+            case TSV:
+                return new DelimitedOutputFormatter(config.getDelimiter());
+            case ARROW:
+                return new ArrowOutputFormatter(config.getBinaryOutput());
+            default:
+                return new SimpleOutputFormatter(config.isParallelFormatting());
+        }
+    }
+
+    /**
+     * @return how wide table columns may be, 0 for no limit
+     */
+    public int getMaxColumnWidth() {
+        return outputFormatter instanceof TableOutputFormatter ?
+                ((TableOutputFormatter) outputFormatter).getMaxColumnWidth() : 0;
+    }
+
+    /**
+     * Caps the width of table columns, has no effect on the other formats
+     *
+     * @param maxColumnWidth how wide columns may be, 0 for no limit
+     */
+    public void setMaxColumnWidth(int maxColumnWidth) {
+        if (outputFormatter instanceof TableOutputFormatter) {
+            ((TableOutputFormatter) outputFormatter).setMaxColumnWidth(maxColumnWidth);
+        }
+    }
+
+    /**
+     * Writes the records as they arrive, followed by anything which is derived from the summary. The summary is
+     * only available once all records have been consumed, which is why it comes last. The output is flushed once
+     * everything has been written, or the result has failed.
+     */
+    public void format(@Nonnull final BoltResult result, @Nonnull PrintWriter output) {
+        try {
+            int numberOfRows = outputFormatter.formatAndCount(result, output);
+            ResultSummary summary = result.getSummary();
+            printIfNotBlank(outputFormatter.formatInfo(summary), output);
+            printIfNotBlank(outputFormatter.formatPlan(summary), output);
+            printIfNotBlank(outputFormatter.formatFooter(result, numberOfRows), output);
+            printIfNotBlank(statisticsCollector.collect(summary), output);
+        } finally {
+            // Also when the result fails part way, so the rows come before the error
+            output.flush();
+        }
     }
 
-    public String format(@Nonnull final BoltResult result) {
-        String infoOutput = outputFormatter.formatInfo(result.getSummary());
-        String planOutput = outputFormatter.formatPlan(result.getSummary());
-        String statistics = statisticsCollector.collect(result.getSummary());
-        String resultOutput = outputFormatter.format(result);
-        String footer = outputFormatter.formatFooter(result);
-        return OutputFormatter.joinNonBlanks(OutputFormatter.NEWLINE, asList(infoOutput, planOutput, resultOutput, footer, statistics));
+    private static void printIfNotBlank(@Nonnull String text, @Nonnull PrintWriter output) {
+        if (OutputFormatter.isNotBlank(text)) {
+            output.println(text);
+        }
     }
 }
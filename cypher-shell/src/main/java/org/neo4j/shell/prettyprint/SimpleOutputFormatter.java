@@ -5,6 +5,8 @@ import org.neo4j.driver.v1.Value;
 import org.neo4j.driver.v1.summary.ResultSummary;
 import org.neo4j.shell.state.BoltResult;
 
+import java.io.PrintWriter;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -12,23 +14,56 @@ import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
 
 public class SimpleOutputFormatter implements OutputFormatter {
+    private final boolean parallel;
+
+    public SimpleOutputFormatter() {
+        this(false);
+    }
+
+    /**
+     * @param parallel whether chunks of rows are formatted on all cores
+     */
+    public SimpleOutputFormatter(boolean parallel) {
+        this.parallel = parallel;
+    }
 
     @Override
-    @Nonnull
-    public String format(@Nonnull final BoltResult result) {
-        StringBuilder sb = new StringBuilder();
-        List<Record> records = result.getRecords();
-        if (!records.isEmpty()) {
-            sb.append(records.get(0).keys().stream().collect(Collectors.joining(COMMA_SEPARATOR)));
-            sb.append("\n");
-            sb.append(records.stream().map(this::formatRecord).collect(Collectors.joining("\n")));
+    public int formatAndCount(@Nonnull final BoltResult result, @Nonnull PrintWriter output) {
+        Iterator<Record> records = result.iterate();
+        int numberOfRows = 0;
+        if (records.hasNext()) {
+            output.println(String.join(COMMA_SEPARATOR, result.getKeys()));
+            if (parallel) {
+                List<Record> chunk;
+                while (!(chunk = ParallelRows.next(records, ParallelRows.CHUNK_SIZE)).isEmpty()) {
+                    for (StringBuilder line : ParallelRows.format(chunk, r -> formatRecord(r, new StringBuilder()))) {
+                        output.append(line).println();
+                    }
+                    numberOfRows += chunk.size();
+                }
+            } else {
+                StringBuilder line = new StringBuilder();
+                while (records.hasNext()) {
+                    line.setLength(0);
+                    output.append(formatRecord(records.next(), line)).println();
+                    numberOfRows++;
+                }
+            }
         }
-        return sb.toString();
+        return numberOfRows;
     }
 
     @Nonnull
-    private String formatRecord(@Nonnull final Record record) {
-        return record.values().stream().map(this::formatValue).collect(Collectors.joining(COMMA_SEPARATOR));
+    private StringBuilder formatRecord(@Nonnull final Record record, @Nonnull StringBuilder line) {
+        boolean first = true;
+        for (Value value : record.values()) {
+            if (!first) {
+                line.append(COMMA_SEPARATOR);
+            }
+            formatValue(line, value);
+            first = false;
+        }
+        return line;
     }
 
     @Nonnull
@@ -1,8 +1,7 @@
 package org.neo4j.shell.prettyprint;
 
 import org.neo4j.driver.internal.InternalRecord;
-import org.neo4j.driver.internal.util.Iterables;
-import org.neo4j.driver.internal.value.MapValue;
+import org.neo4j.driver.v1.Record;
 import org.neo4j.driver.v1.Value;
 import org.neo4j.driver.v1.Values;
 import org.neo4j.driver.v1.summary.ResultSummary;
@@ -10,99 +9,274 @@ import org.neo4j.shell.state.BoltResult;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.io.PrintWriter;
+import java.io.StringWriter;
 import java.util.*;
 import java.util.concurrent.TimeUnit;
-import java.util.stream.Collectors;
+import java.util.function.Function;
 
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 
+/**
+ * Prints records as a table. Columns are as wide as their widest value, which means the whole result is fetched
+ * before anything is printed. Alternatively the widths can be taken from a sample of the first rows, after which the
+ * table is printed as records arrive, with longer values in later rows cut to fit.
+ *
+ * Columns can also be capped at a maximum width, in which case values are only formatted up to the cap. Cells which
+ * are cut, for either reason, end in an ellipsis.
+ *
+ * Rows which are fetched before the table is printed can be formatted on all cores, as can the later rows of a
+ * sampled table, in chunks.
+ */
 public class TableOutputFormatter implements OutputFormatter {
+    private static final char ELLIPSIS = '\u2026';
+    private final int sampleRows;
+    private final boolean parallel;
+    // Changed from the shell while forks may be printing
+    private volatile int maxColumnWidth;
+
+    public TableOutputFormatter() {
+        this(0);
+    }
+
+    /**
+     * @param sampleRows how many rows columns are sized by, 0 for every row
+     */
+    public TableOutputFormatter(int sampleRows) {
+        this(sampleRows, 0);
+    }
+
+    /**
+     * @param sampleRows     how many rows columns are sized by, 0 for every row
+     * @param maxColumnWidth how wide columns may be, 0 for no limit
+     */
+    public TableOutputFormatter(int sampleRows, int maxColumnWidth) {
+        this(sampleRows, maxColumnWidth, false);
+    }
+
+    /**
+     * @param sampleRows     how many rows columns are sized by, 0 for every row
+     * @param maxColumnWidth how wide columns may be, 0 for no limit
+     * @param parallel       whether rows are formatted on all cores
+     */
+    public TableOutputFormatter(int sampleRows, int maxColumnWidth, boolean parallel) {
+        this.sampleRows = sampleRows;
+        this.maxColumnWidth = maxColumnWidth;
+        this.parallel = parallel;
+    }
+
+    /**
+     * @return how wide columns may be, 0 for no limit
+     */
+    public int getMaxColumnWidth() {
+        return maxColumnWidth;
+    }
+
+    /**
+     * @param maxColumnWidth how wide columns may be, 0 for no limit
+     */
+    public void setMaxColumnWidth(int maxColumnWidth) {
+        this.maxColumnWidth = maxColumnWidth;
+    }
 
     @Override
-    @Nonnull
-    public String format(@Nonnull final BoltResult result) {
-        List<Value> data = result.getRecords().stream().map(r -> new MapValue(r.<Value>asMap(v -> v))).collect(Collectors.toList());
-        return formatValues(data);
+    public int formatAndCount(@Nonnull final BoltResult result, @Nonnull PrintWriter output) {
+        // Each cell is formatted once, while measuring, and printed from the buffer
+        Iterator<Record> records = result.iterate();
+        if (!records.hasNext()) {
+            return 0;
+        }
+        Record first = records.next();
+        String[] columns = first.keys().toArray(new String[0]);
+        int[] widths = headerWidths(columns);
+        StringBuilder cell = new StringBuilder();
+        List<String[]> rows;
+        if (parallel) {
+            List<Record> sample = new ArrayList<>();
+            sample.add(first);
+            sample.addAll(ParallelRows.next(records, sampleRows == 0 ? Integer.MAX_VALUE : sampleRows - 1));
+            rows = formatRows(columns, sample);
+            widen(rows, widths);
+        } else {
+            rows = new ArrayList<>();
+            rows.add(widen(formatRow(columns, first::get, cell), widths));
+            while (records.hasNext() && (sampleRows == 0 || rows.size() < sampleRows)) {
+                rows.add(widen(formatRow(columns, records.next()::get, cell), widths));
+            }
+        }
+        int numberOfRows = rows.size();
+        if (columns.length == 0) {
+            while (records.hasNext()) {
+                records.next();
+                numberOfRows++;
+            }
+            return numberOfRows;
+        }
+
+        String dashes = dashes(widths);
+        writeHeader(columns, widths, dashes, output);
+        for (String[] row : rows) {
+            writeRow(row, widths, output);
+        }
+        if (parallel) {
+            List<Record> chunk;
+            while (!(chunk = ParallelRows.next(records, ParallelRows.CHUNK_SIZE)).isEmpty()) {
+                for (String[] row : formatRows(columns, chunk)) {
+                    writeRow(row, widths, output);
+                }
+                numberOfRows += chunk.size();
+            }
+        } else {
+            while (records.hasNext()) {
+                writeRow(formatRow(columns, records.next()::get, cell), widths, output);
+                numberOfRows++;
+            }
+        }
+        output.append(dashes).append(NEWLINE);
+        output.println();
+        return numberOfRows;
     }
 
     @Nonnull
-    String formatValues(@Nonnull List<Value> data) {
-        if (data.isEmpty()) return "";
-        List<String> columns = Iterables.asList(data.get(0).keys());
-        if (columns.isEmpty()) return "";
-
-        StringBuilder sb = new StringBuilder();
-        Map<String, Integer> columnSizes = calculateColumnSizes(columns, data);
-        String headerLine = createString(columns, columnSizes);
-        int lineWidth = headerLine.length() - 2;
-        String dashes = "+" + OutputFormatter.repeat('-', lineWidth) + "+";
-
-        sb.append(dashes).append(NEWLINE);
-        sb.append(headerLine).append(NEWLINE);
-        sb.append(dashes).append(NEWLINE);
-
-        for (Value record : data) {
-            sb.append(createString(columns, columnSizes, record)).append(NEWLINE);
+    private int[] headerWidths(@Nonnull String[] columns) {
+        int[] widths = new int[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            widths[i] = capped(columns[i].length());
         }
-        sb.append(dashes).append(NEWLINE);
-        return sb.toString();
+        return widths;
     }
 
     @Nonnull
-    public String formatFooter(@Nonnull BoltResult result) {
-        int rows = result.getRecords().size();
-        ResultSummary summary = result.getSummary();
-        return String.format("%d row%s available after %d ms, consumed after another %d ms", rows, rows != 1 ? "s" : "", summary.resultAvailableAfter(MILLISECONDS), summary.resultConsumedAfter(MILLISECONDS));
+    private String[] formatRow(@Nonnull String[] columns, @Nonnull Function<String, Value> row,
+                               @Nonnull StringBuilder cell) {
+        String[] cells = new String[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            cell.setLength(0);
+            formatValue(cell, row.apply(columns[i]));
+            // Escaped characters may go past the cap
+            int maxWidth = maxColumnWidth;
+            if (maxWidth != 0 && cell.length() > maxWidth) {
+                cell.setLength(maxWidth - 1);
+                cell.append(ELLIPSIS);
+            }
+            cells[i] = cell.toString();
+        }
+        return cells;
+    }
+
+    private int capped(int width) {
+        int maxWidth = maxColumnWidth;
+        return maxWidth == 0 ? width : Math.min(width, maxWidth);
+    }
+
+    /**
+     * Cells are formatted into a builder of their own, so only the start of values longer than the cap is formatted.
+     * That goes one character past the cap, to tell values which were cut from values which fit exactly.
+     */
+    @Override
+    public int remaining(@Nonnull StringBuilder sb) {
+        int maxWidth = maxColumnWidth;
+        return maxWidth == 0 ? Integer.MAX_VALUE : (int) Math.min(Integer.MAX_VALUE, maxWidth + 1L - sb.length());
     }
 
     @Nonnull
-    private String createString(@Nonnull List<String> columns, @Nonnull Map<String, Integer> columnSizes, @Nonnull Value m) {
-        StringBuilder sb = new StringBuilder("|");
-        for (String column : columns) {
-            sb.append(" ");
-            Integer length = columnSizes.get(column);
-            String txt = formatValue(m.get(column));
-            String value = OutputFormatter.rightPad(txt, length);
-            sb.append(value);
-            sb.append(" |");
+    private List<String[]> formatRows(@Nonnull String[] columns, @Nonnull List<Record> records) {
+        return ParallelRows.format(records, record -> formatRow(columns, record::get, new StringBuilder()));
+    }
+
+    /**
+     * Widens the columns to fit the cells of the rows, measuring parts of the rows on all cores and keeping the
+     * widest of each column
+     */
+    private static void widen(@Nonnull List<String[]> rows, @Nonnull int[] widths) {
+        int[] rowWidths = rows.parallelStream().collect(() -> new int[widths.length],
+                (partWidths, row) -> widen(row, partWidths), TableOutputFormatter::keepWidest);
+        keepWidest(widths, rowWidths);
+    }
+
+    private static void keepWidest(@Nonnull int[] widths, @Nonnull int[] other) {
+        for (int i = 0; i < widths.length; i++) {
+            widths[i] = Math.max(widths[i], other[i]);
         }
-        return sb.toString();
     }
 
+    /**
+     * Widens the columns to fit the cells of the row
+     *
+     * @return the row
+     */
     @Nonnull
-    private String createString(@Nonnull List<String> columns, @Nonnull Map<String, Integer> columnSizes) {
-        StringBuilder sb = new StringBuilder("|");
-        for (String column : columns) {
-            sb.append(" ");
-            sb.append(OutputFormatter.rightPad(column, columnSizes.get(column)));
-            sb.append(" |");
+    private static String[] widen(@Nonnull String[] cells, @Nonnull int[] widths) {
+        for (int i = 0; i < cells.length; i++) {
+            widths[i] = Math.max(widths[i], cells[i].length());
         }
-        return sb.toString();
+        return cells;
     }
 
     @Nonnull
-    private Map<String, Integer> calculateColumnSizes(@Nonnull List<String> columns, @Nonnull List<Value> data) {
-        Map<String, Integer> columnSizes = new LinkedHashMap<>();
-        for (String column : columns) {
-            columnSizes.put(column, column.length());
+    private static String dashes(@Nonnull int[] widths) {
+        int lineWidth = -1;
+        for (int width : widths) {
+            lineWidth += width + 3;
         }
-        for (Value record : data) {
-            for (String column : columns) {
-                int len = formatValue(record.get(column)).length();
-                int existing = columnSizes.get(column);
-                if (existing < len) {
-                    columnSizes.put(column, len);
-                }
+        return "+" + OutputFormatter.repeat('-', lineWidth) + "+";
+    }
+
+    private static void writeHeader(@Nonnull String[] columns, @Nonnull int[] widths, @Nonnull String dashes,
+                                    @Nonnull PrintWriter output) {
+        output.append(dashes).append(NEWLINE);
+        writeRow(columns, widths, output);
+        output.append(dashes).append(NEWLINE);
+    }
+
+    private static void writeTable(@Nonnull String[] columns, @Nonnull int[] widths, @Nonnull List<String[]> rows,
+                                   @Nonnull PrintWriter output) {
+        String dashes = dashes(widths);
+        writeHeader(columns, widths, dashes, output);
+        for (String[] row : rows) {
+            writeRow(row, widths, output);
+        }
+        output.append(dashes).append(NEWLINE);
+    }
+
+    private static void writeRow(@Nonnull String[] cells, @Nonnull int[] widths, @Nonnull PrintWriter output) {
+        output.write('|');
+        for (int i = 0; i < cells.length; i++) {
+            output.write(' ');
+            String cell = cells[i];
+            if (cell.length() > widths[i] && widths[i] > 0) {
+                output.write(cell, 0, widths[i] - 1);
+                output.write(ELLIPSIS);
+            } else {
+                output.write(cell, 0, Math.min(cell.length(), widths[i]));
             }
+            for (int pad = cell.length(); pad < widths[i]; pad++) {
+                output.write(' ');
+            }
+            output.write(" |");
         }
-        return columnSizes;
+        output.write(NEWLINE);
+    }
+
+    @Nonnull
+    public String formatFooter(@Nonnull BoltResult result, int numberOfRows) {
+        ResultSummary summary = result.getSummary();
+        return String.format("%d row%s available after %d ms, consumed after another %d ms", numberOfRows, numberOfRows != 1 ? "s" : "", summary.resultAvailableAfter(MILLISECONDS), summary.resultConsumedAfter(MILLISECONDS));
     }
 
     @Override
     @Nonnull
     public String formatInfo(@Nonnull ResultSummary summary) {
         Map<String, Value> info = OutputFormatter.info(summary);
-        return formatValues(Collections.singletonList(new MapValue(info)));
+        if (info.isEmpty()) {
+            return "";
+        }
+        String[] columns = info.keySet().toArray(new String[0]);
+        int[] widths = headerWidths(columns);
+        String[] row = widen(formatRow(columns, info::get, new StringBuilder()), widths);
+        StringWriter table = new StringWriter();
+        writeTable(columns, widths, Collections.singletonList(row), new PrintWriter(table));
+        return table.toString();
     }
 
     @Override
@@ -4,28 +4,50 @@ import org.neo4j.driver.v1.Record;
 import org.neo4j.driver.v1.summary.ResultSummary;
 
 import javax.annotation.Nonnull;
+import java.util.Iterator;
 import java.util.List;
 
 /**
- * A class holds the result from executing some Cypher.
+ * The result from executing some Cypher. Records may still be arriving from the server while the result is being
+ * consumed, so prefer {@link #iterate()} over {@link #getRecords()} whenever the whole result is not needed at once.
  */
-public class BoltResult {
-    private final List<Record> records;
-    private final ResultSummary summary;
+public interface BoltResult {
 
-    public BoltResult(@Nonnull List<Record> records, @Nonnull ResultSummary summary) {
+    /**
+     * @return the names of the columns in the result
+     */
+    @Nonnull
+    List<String> getKeys();
 
-        this.records = records;
-        this.summary = summary;
-    }
+    /**
+     * Fetches all remaining records from the server and holds them in memory.
+     *
+     * @return all records of the result
+     */
+    @Nonnull
+    List<Record> getRecords();
 
+    /**
+     * @return an iterator which fetches records from the server as they are needed
+     */
     @Nonnull
-    public List<Record> getRecords() {
-        return records;
-    }
+    Iterator<Record> iterate();
+
+    /**
+     * Note that this will discard any records which have not been consumed yet.
+     *
+     * @return the summary of the executed Cypher
+     */
+    @Nonnull
+    ResultSummary getSummary();
 
+    /**
+     * Only known once the summary has been fetched.
+     *
+     * @return a note about records which were left out, or an empty string if none were
+     */
     @Nonnull
-    public ResultSummary getSummary() {
-        return summary;
+    default String getTruncationNote() {
+        return "";
     }
 }
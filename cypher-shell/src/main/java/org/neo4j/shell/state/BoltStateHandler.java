@@ -1,6 +1,7 @@
 package org.neo4j.shell.state;
 
 import org.neo4j.driver.internal.logging.ConsoleLogging;
+import org.neo4j.driver.v1.AccessMode;
 import org.neo4j.driver.v1.AuthToken;
 import org.neo4j.driver.v1.AuthTokens;
 import org.neo4j.driver.v1.Config;
@@ -10,33 +11,51 @@ import org.neo4j.driver.v1.Session;
 import org.neo4j.driver.v1.Statement;
 import org.neo4j.driver.v1.StatementResult;
 import org.neo4j.driver.v1.Transaction;
+import org.neo4j.driver.v1.Value;
+import org.neo4j.driver.v1.Values;
+import org.neo4j.driver.v1.exceptions.Neo4jException;
+import org.neo4j.driver.v1.exceptions.ServiceUnavailableException;
+import org.neo4j.driver.v1.exceptions.SessionExpiredException;
+import org.neo4j.driver.v1.exceptions.TransientException;
 import org.neo4j.shell.ConnectionConfig;
 import org.neo4j.shell.Connector;
 import org.neo4j.shell.TransactionHandler;
 import org.neo4j.shell.TriFunction;
+import org.neo4j.shell.cli.AccessModePolicy;
 import org.neo4j.shell.exception.CommandException;
+import org.neo4j.shell.parser.StatementClassifier;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
-import java.util.function.BiFunction;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
-import java.util.stream.Collectors;
-
-import static java.util.Arrays.asList;
 
 /**
  * Handles interactions with the driver
  */
 public class BoltStateHandler implements TransactionHandler, Connector {
+    // The same as the retries of transaction functions in the driver
+    private static final long MAX_RETRY_TIME_MS = TimeUnit.SECONDS.toMillis(30);
+    private static final long INITIAL_RETRY_DELAY_MS = TimeUnit.SECONDS.toMillis(1);
+
     private final TriFunction<String, AuthToken, Config, Driver> driverProvider;
     protected Driver driver;
     protected Session session;
+    // Only used when read only statements are routed separately, see AccessModePolicy.AUTO
+    private Session readSession;
+    private String readSessionBookmark;
+    // Auto-commit writes do not move the bookmark, so reads stay in the default session until a transaction does
+    private boolean unbookmarkedWrites = false;
+    private String bookmarkBeforeWrites;
+    private AccessModePolicy accessModePolicy = AccessModePolicy.AUTO;
+    private int maxRows = 0;
     private String version;
-    private List<Statement> transactionStatements;
+    private Transaction tx;
+    // The driver keeps a transaction open when one of its statements fails, so failures are recorded here
+    private volatile boolean txFailed = false;
 
     public BoltStateHandler() {
         this(GraphDatabase::driver);
@@ -54,19 +73,31 @@ public class BoltStateHandler implements TransactionHandler, Connector {
         if (isTransactionOpen()) {
             throw new CommandException("There is already an open transaction");
         }
-        transactionStatements = new ArrayList<>();
+        tx = session.beginTransaction();
+        txFailed = false;
     }
 
     @Override
-    public Optional<List<BoltResult>> commitTransaction() throws CommandException {
+    public void commitTransaction() throws CommandException {
         if (!isConnected()) {
             throw new CommandException("Not connected to Neo4j");
         }
         if (!isTransactionOpen()) {
             throw new CommandException("There is no open transaction to commit");
         }
-        return captureResults(transactionStatements);
-
+        // A transaction in which a statement failed can only be rolled back, closing it would do so silently
+        boolean failed = txFailed;
+        try {
+            if (!failed) {
+                tx.success();
+            }
+            tx.close();
+        } finally {
+            tx = null;
+        }
+        if (failed) {
+            throw new CommandException("The transaction has been rolled back because a statement in it failed");
+        }
     }
 
     @Override
@@ -77,12 +108,17 @@ public class BoltStateHandler implements TransactionHandler, Connector {
         if (!isTransactionOpen()) {
             throw new CommandException("There is no open transaction to rollback");
         }
-        clearTransactionStatements();
+        try {
+            tx.failure();
+            tx.close();
+        } finally {
+            tx = null;
+        }
     }
 
     @Override
     public boolean isTransactionOpen() {
-        return transactionStatements != null;
+        return tx != null;
     }
 
     @Override
@@ -99,8 +135,11 @@ public class BoltStateHandler implements TransactionHandler, Connector {
         final AuthToken authToken = AuthTokens.basic(connectionConfig.username(), connectionConfig.password());
 
         try {
+            accessModePolicy = connectionConfig.accessModePolicy();
+            maxRows = connectionConfig.maxRows();
             driver = getDriver(connectionConfig, authToken);
-            session = driver.session();
+            // Explicit transactions can contain anything, so they go to the leader unless told otherwise
+            session = accessModePolicy == AccessModePolicy.READ ? driver.session(AccessMode.READ) : driver.session();
             // Bug in Java driver forces us to run a statement to make it actually connect
             StatementResult run = session.run( "RETURN 1" );
             this.version = run.summary().server().version();
@@ -138,13 +177,175 @@ public class BoltStateHandler implements TransactionHandler, Connector {
         if (!isConnected()) {
             throw new CommandException("Not connected to Neo4j");
         }
-        if (this.transactionStatements != null) {
-            transactionStatements.add(new Statement(cypher, queryParams));
-            return Optional.empty();
-        } else {
-            List<Statement> transactionStatements = asList(new Statement(cypher, queryParams));
-            BoltResult boltResult = captureResults(transactionStatements).get().get(0);
-            return Optional.of(boltResult);
+        // Records are pulled lazily as the result is consumed, so nothing is held in memory up front
+        Statement statement = new Statement(cypher, asValue(queryParams));
+        if (isTransactionOpen()) {
+            // Statements of a transaction can not move to another cluster member, so failures are left to the user
+            StatementResult statementResult;
+            try {
+                statementResult = tx.run(statement);
+            } catch (Neo4jException e) {
+                txFailed = true;
+                throw e;
+            }
+            return Optional.of(limit(new TransactionBoltResult(new StatementBoltResult(statementResult),
+                    () -> txFailed = true), null));
+        }
+        Session target = sessionFor(cypher);
+        StatementBoltResult result = new StatementBoltResult(runWithRetries(target, statement));
+        // Stopping a statement rolls back its writes, so only reads are stopped
+        return Optional.of(limit(result, StatementClassifier.isReadOnly(cypher) ? () -> resetSession(target) : null));
+    }
+
+    /**
+     * Resetting is deprecated for sessions which are shared between threads, these are only reset by the thread
+     * which uses them. The session is used again for the next statement, so it can not be closed instead, and the
+     * procedures to terminate queries are not available on every server version.
+     */
+    @SuppressWarnings("deprecation")
+    private static void resetSession(@Nonnull Session session) {
+        session.reset();
+    }
+
+    /**
+     * @param stop stops the statement, or null if the records after the cap have to be consumed
+     */
+    @Nonnull
+    private BoltResult limit(@Nonnull BoltResult result, @Nullable Runnable stop) {
+        return maxRows == 0 ? result : new LimitedBoltResult(result, maxRows, stop);
+    }
+
+    /**
+     * The parameters of the shell are converted once per version rather than once per statement
+     */
+    @Nonnull
+    private static Value asValue(@Nonnull Map<String, Object> queryParams) {
+        if (queryParams instanceof ParamMap) {
+            return ((ParamMap) queryParams).asValue();
+        }
+        return Values.value(queryParams);
+    }
+
+    /**
+     * Runs an auto-commit statement, retrying it with a growing delay while it fails before its first record, the way
+     * transaction functions of the driver retry. That covers transient errors such as deadlocks, and cluster members
+     * which went away or stopped accepting writes. The routing driver has already refreshed its routing table at that
+     * point, so the retry goes to the new leader or another available member. Once records have been received, a
+     * failure is left to the user, since the records may already have been printed.
+     */
+    @Nonnull
+    private StatementResult runWithRetries(@Nonnull Session target, @Nonnull Statement statement) {
+        long delay = INITIAL_RETRY_DELAY_MS;
+        long waited = 0;
+        while (true) {
+            try {
+                StatementResult statementResult = target.run(statement);
+                // Waits for the first record or the end of the result, the record is kept for whoever reads it
+                statementResult.hasNext();
+                return statementResult;
+            } catch (Neo4jException e) {
+                if (!canRetryOn(e) || waited + delay > MAX_RETRY_TIME_MS || !pause(delay)) {
+                    throw e;
+                }
+                waited += delay;
+                delay *= 2;
+            }
+        }
+    }
+
+    private static boolean canRetryOn(@Nonnull Neo4jException e) {
+        if (e instanceof TransientException) {
+            // Transactions terminated by a user are reported as transient, but should stay terminated
+            return !"Neo.TransientError.Transaction.Terminated".equals(e.code())
+                    && !"Neo.TransientError.Transaction.LockClientStopped".equals(e.code());
+        }
+        return e instanceof SessionExpiredException || e instanceof ServiceUnavailableException;
+    }
+
+    /**
+     * @return false if the wait was interrupted
+     */
+    boolean pause(long millis) {
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * @return the session an auto-commit statement should run in, based on the access mode policy
+     */
+    @Nonnull
+    private Session sessionFor(@Nonnull String cypher) {
+        if (accessModePolicy != AccessModePolicy.AUTO) {
+            return session;
+        }
+        String bookmark = session.lastBookmark();
+        if (!StatementClassifier.isReadOnly(cypher)) {
+            if (!unbookmarkedWrites) {
+                unbookmarkedWrites = true;
+                bookmarkBeforeWrites = bookmark;
+            }
+            return session;
+        }
+        if (unbookmarkedWrites && Objects.equals(bookmark, bookmarkBeforeWrites)) {
+            // Only the default session is sure to observe the writes until a transaction gives a bookmark after them
+            return session;
+        }
+        unbookmarkedWrites = false;
+        // Chain reads after the latest bookmark of the writing session so they observe its committed writes
+        if (readSession == null || !Objects.equals(bookmark, readSessionBookmark)) {
+            closeReadSession();
+            readSession = driver.session(AccessMode.READ, bookmark);
+            readSessionBookmark = bookmark;
+        }
+        return readSession;
+    }
+
+    private void closeReadSession() {
+        try {
+            if (readSession != null) {
+                readSession.close();
+            }
+        } finally {
+            readSession = null;
+            readSessionBookmark = null;
+        }
+    }
+
+    /**
+     * @return a connected handler with sessions of its own on the same driver, for running statements concurrently
+     */
+    @Nonnull
+    public BoltStateHandler fork() throws CommandException {
+        if (!isConnected()) {
+            throw new CommandException("Not connected to Neo4j");
+        }
+        BoltStateHandler fork = new BoltStateHandler(driverProvider);
+        fork.driver = driver;
+        fork.version = version;
+        fork.accessModePolicy = accessModePolicy;
+        fork.maxRows = maxRows;
+        fork.session = accessModePolicy == AccessModePolicy.READ ? driver.session(AccessMode.READ) : driver.session();
+        return fork;
+    }
+
+    /**
+     * Close the sessions of this handler, but leave the driver open since it may be shared with forks.
+     */
+    public void disconnectSession() {
+        try {
+            closeReadSession();
+            if (session != null) {
+                session.close();
+            }
+        } finally {
+            session = null;
+            unbookmarkedWrites = false;
+            tx = null;
         }
     }
 
@@ -154,6 +355,7 @@ public class BoltStateHandler implements TransactionHandler, Connector {
      */
     void silentDisconnect() {
         try {
+            closeReadSession();
             if (session != null) {
                 session.close();
             }
@@ -162,6 +364,7 @@ public class BoltStateHandler implements TransactionHandler, Connector {
             }
         } finally {
             session = null;
+            unbookmarkedWrites = false;
             driver = null;
         }
     }
@@ -171,22 +374,19 @@ public class BoltStateHandler implements TransactionHandler, Connector {
      */
     public void reset() {
         if (isConnected()) {
-            session.reset();
-
-            // Clear current state
-            if (isTransactionOpen()) {
-                // Bolt has already rolled back the transaction but it doesn't close it properly
-                clearTransactionStatements();
+            resetSession(session);
+            if (readSession != null) {
+                resetSession(readSession);
             }
-        }
-    }
 
-    List<Statement> getTransactionStatements() {
-        return this.transactionStatements;
+            // Bolt has already rolled back the transaction and detached it from the session
+            tx = null;
+        }
     }
 
-    private void clearTransactionStatements() {
-        this.transactionStatements = null;
+    @Nullable
+    Transaction getTransaction() {
+        return tx;
     }
 
     private Driver getDriver(@Nonnull ConnectionConfig connectionConfig, @Nullable AuthToken authToken) {
@@ -195,26 +395,4 @@ public class BoltStateHandler implements TransactionHandler, Connector {
                               .withEncryptionLevel(connectionConfig.encryption()).toConfig();
         return driverProvider.apply(connectionConfig.driverUrl(), authToken, config);
     }
-
-    private Optional<List<BoltResult>> captureResults(@Nonnull List<Statement> transactionStatements) {
-        List<BoltResult> results = executeWithRetry(transactionStatements, (statement, transaction) -> {
-            // calling list()/consume() is what actually executes cypher on the server
-            StatementResult sr = transaction.run(statement);
-            return new BoltResult(sr.list(), sr.consume());
-        });
-
-        clearTransactionStatements();
-        if (results == null || results.isEmpty()) {
-            return Optional.empty();
-        }
-        return Optional.of(results);
-    }
-
-    private List<BoltResult> executeWithRetry(List<Statement> transactionStatements, BiFunction<Statement, Transaction, BoltResult> biFunction) {
-        return session.writeTransaction(tx ->
-                transactionStatements.stream()
-                        .map(transactionStatement -> biFunction.apply(transactionStatement, tx))
-                        .collect(Collectors.toList()));
-
-    }
 }
@@ -0,0 +1,129 @@
+package org.neo4j.shell.state;
+
+import org.neo4j.driver.v1.Record;
+import org.neo4j.driver.v1.exceptions.Neo4jException;
+import org.neo4j.driver.v1.summary.ResultSummary;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * A result which ends after a number of records. The records after the cap are discarded once the summary is asked
+ * for, since the summary only comes after every record. They are counted on the way, without being held in memory.
+ *
+ * When the statement can be stopped, the server is told to stop producing records first, and only the records which
+ * were already on their way are counted.
+ */
+public class LimitedBoltResult implements BoltResult {
+    private final BoltResult result;
+    private final int maxRows;
+    @Nullable
+    private final Runnable stop;
+    private Iterator<Record> records;
+    private int returned = 0;
+    private long discarded = 0;
+    private boolean stopped = false;
+
+    /**
+     * @param maxRows the number of records to keep
+     * @param stop    stops the statement on the server, or null if the remaining records have to be consumed
+     */
+    public LimitedBoltResult(@Nonnull BoltResult result, int maxRows, @Nullable Runnable stop) {
+        this.result = result;
+        this.maxRows = maxRows;
+        this.stop = stop;
+    }
+
+    @Nonnull
+    @Override
+    public List<String> getKeys() {
+        return result.getKeys();
+    }
+
+    @Nonnull
+    @Override
+    public List<Record> getRecords() {
+        List<Record> kept = new ArrayList<>();
+        iterate().forEachRemaining(kept::add);
+        return kept;
+    }
+
+    @Nonnull
+    @Override
+    public Iterator<Record> iterate() {
+        if (records == null) {
+            records = result.iterate();
+        }
+        return new Iterator<Record>() {
+            @Override
+            public boolean hasNext() {
+                return returned < maxRows && records.hasNext();
+            }
+
+            @Override
+            public Record next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                returned++;
+                return records.next();
+            }
+        };
+    }
+
+    @Nonnull
+    @Override
+    public ResultSummary getSummary() {
+        if (records != null && returned == maxRows && discarded == 0 && records.hasNext()) {
+            discardRest();
+        }
+        if (!stopped) {
+            return result.getSummary();
+        }
+        try {
+            return result.getSummary();
+        } catch (Neo4jException e) {
+            // The failure of the stopped statement ends the result, which keeps the summary of what had arrived
+            return result.getSummary();
+        }
+    }
+
+    private void discardRest() {
+        if (stop != null) {
+            stop.run();
+            stopped = true;
+        }
+        try {
+            while (records.hasNext()) {
+                records.next();
+                discarded++;
+            }
+        } catch (Neo4jException e) {
+            if (!stopped) {
+                throw e;
+            }
+            // The statement was stopped while the records were being counted
+        }
+    }
+
+    /**
+     * @return how many records there were after the cap, which is a lower bound if the statement was stopped
+     */
+    public long getDiscardedRows() {
+        return discarded;
+    }
+
+    @Nonnull
+    @Override
+    public String getTruncationNote() {
+        if (discarded == 0) {
+            return "";
+        }
+        return String.format("Stopped after %d rows of %s%d, set by --max-rows", maxRows, stopped ? "at least " : "",
+                maxRows + discarded);
+    }
+}
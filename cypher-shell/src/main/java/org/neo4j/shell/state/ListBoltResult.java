@@ -0,0 +1,52 @@
+package org.neo4j.shell.state;
+
+import org.neo4j.driver.v1.Record;
+import org.neo4j.driver.v1.summary.ResultSummary;
+
+import javax.annotation.Nonnull;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * A result which has been fully fetched from the server and is held in memory.
+ */
+public class ListBoltResult implements BoltResult {
+    private final List<String> keys;
+    private final List<Record> records;
+    private final ResultSummary summary;
+
+    public ListBoltResult(@Nonnull List<Record> records, @Nonnull ResultSummary summary) {
+        this(records.isEmpty() ? Collections.emptyList() : records.get(0).keys(), records, summary);
+    }
+
+    public ListBoltResult(@Nonnull List<String> keys, @Nonnull List<Record> records, @Nonnull ResultSummary summary) {
+        this.keys = keys;
+        this.records = records;
+        this.summary = summary;
+    }
+
+    @Nonnull
+    @Override
+    public List<String> getKeys() {
+        return keys;
+    }
+
+    @Nonnull
+    @Override
+    public List<Record> getRecords() {
+        return records;
+    }
+
+    @Nonnull
+    @Override
+    public Iterator<Record> iterate() {
+        return records.iterator();
+    }
+
+    @Nonnull
+    @Override
+    public ResultSummary getSummary() {
+        return summary;
+    }
+}
@@ -0,0 +1,326 @@
+package org.neo4j.shell.state;
+
+import org.neo4j.driver.internal.types.InternalTypeSystem;
+import org.neo4j.driver.v1.Value;
+import org.neo4j.driver.v1.Values;
+import org.neo4j.driver.v1.types.TypeSystem;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * An immutable map of parameters. Setting a parameter creates a new version which shares all unchanged parts with
+ * the previous one, so versions are cheap to create and a statement can hold on to the version it was created with
+ * while later parameters are set.
+ *
+ * The parameters are stored in a hash array mapped trie, 5 bits of the key hash per level.
+ */
+public final class ParamMap extends AbstractMap<String, Object> {
+    public static final ParamMap EMPTY = new ParamMap(Node.EMPTY, 0);
+
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+    // Below this level all hash bits are used up, so the remaining keys have equal hashes
+    private static final int MAX_SHIFT = 30;
+
+    private final Node root;
+    private final int size;
+    // Converted on first use, versions are immutable so it never goes stale
+    private volatile Value value;
+
+    private ParamMap(@Nonnull Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    /**
+     * @return a version of this map with the given parameter set, replacing any parameter with the same name
+     */
+    @Nonnull
+    public ParamMap with(@Nonnull String name, @Nullable Object value) {
+        Node.Change change = new Node.Change();
+        Node newRoot = root.with(0, name.hashCode(), name, value, change);
+        if (newRoot == root) {
+            return this;
+        }
+        return new ParamMap(newRoot, change.added ? size + 1 : size);
+    }
+
+    /**
+     * @return a version of this map with all of the given parameters set, replacing any parameters with the same names
+     */
+    @Nonnull
+    public ParamMap withAll(@Nonnull Map<String, Object> params) {
+        ParamMap result = this;
+        for (Entry<String, Object> entry : params.entrySet()) {
+            result = result.with(entry.getKey(), entry.getValue());
+        }
+        return result;
+    }
+
+    /**
+     * @return a map of only the given parameters, reusing the values already converted for this version
+     */
+    @Nonnull
+    public ParamMap only(@Nonnull Set<String> names) {
+        ParamMap result = EMPTY;
+        Map<String, Object> values = new HashMap<>();
+        Value all = asValue();
+        for (String name : names) {
+            Entry<String, Object> entry = root.find(0, name.hashCode(), name);
+            if (entry != null) {
+                result = result.with(name, entry.getValue());
+                values.put(name, all.get(name));
+            }
+        }
+        if (result.size == size) {
+            return this;
+        } else if (result.size == 0) {
+            return EMPTY;
+        }
+        result.value = Values.value(values);
+        return result;
+    }
+
+    /**
+     * @return the number of bytes the parameters take up when sent to the server
+     */
+    public long packedSize() {
+        return packedSize(asValue());
+    }
+
+    /**
+     * Follows the PackStream encoding used by Bolt. Types which are not sent as parameters count as nothing.
+     */
+    private static long packedSize(@Nonnull Value value) {
+        TypeSystem types = InternalTypeSystem.TYPE_SYSTEM;
+        if (value.hasType(types.NULL()) || value.hasType(types.BOOLEAN())) {
+            return 1;
+        } else if (value.hasType(types.INTEGER())) {
+            long number = value.asLong();
+            if (number >= -16 && number <= Byte.MAX_VALUE) {
+                return 1;
+            } else if (number >= Byte.MIN_VALUE && number <= Byte.MAX_VALUE) {
+                return 2;
+            } else if (number >= Short.MIN_VALUE && number <= Short.MAX_VALUE) {
+                return 3;
+            } else if (number >= Integer.MIN_VALUE && number <= Integer.MAX_VALUE) {
+                return 5;
+            }
+            return 9;
+        } else if (value.hasType(types.FLOAT())) {
+            return 9;
+        } else if (value.hasType(types.STRING())) {
+            int bytes = value.asString().getBytes(StandardCharsets.UTF_8).length;
+            return headerSize(bytes) + bytes;
+        } else if (value.hasType(types.LIST())) {
+            long size = headerSize(value.size());
+            for (Value item : value.values()) {
+                size += packedSize(item);
+            }
+            return size;
+        } else if (value.hasType(types.MAP())) {
+            long size = headerSize(value.size());
+            for (String key : value.keys()) {
+                size += packedSize(Values.value(key)) + packedSize(value.get(key));
+            }
+            return size;
+        }
+        return 0;
+    }
+
+    private static int headerSize(int size) {
+        if (size < 16) {
+            return 1;
+        } else if (size <= 0xFF) {
+            return 2;
+        } else if (size <= 0xFFFF) {
+            return 3;
+        }
+        return 5;
+    }
+
+    /**
+     * @return the parameters as a driver value, converted only once per version
+     */
+    @Nonnull
+    public Value asValue() {
+        Value result = value;
+        if (result == null) {
+            result = Values.value(this);
+            value = result;
+        }
+        return result;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return key instanceof String && root.find(0, key.hashCode(), (String) key) != null;
+    }
+
+    @Override
+    public Object get(Object key) {
+        if (!(key instanceof String)) {
+            return null;
+        }
+        Entry<String, Object> entry = root.find(0, key.hashCode(), (String) key);
+        return entry == null ? null : entry.getValue();
+    }
+
+    @Override
+    @Nonnull
+    public Set<Entry<String, Object>> entrySet() {
+        return new AbstractSet<Entry<String, Object>>() {
+            @Override
+            @Nonnull
+            public Iterator<Entry<String, Object>> iterator() {
+                List<Entry<String, Object>> entries = new ArrayList<>(size);
+                root.collect(entries);
+                return Collections.unmodifiableList(entries).iterator();
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    /**
+     * A level of the trie. The bitmap has a bit set for each occupied slot, and the slots are packed in bit order.
+     * Each slot is either an entry or the node of the next level. Below {@link #MAX_SHIFT} slots are only entries,
+     * which are searched by name.
+     */
+    private static final class Node {
+        static final Node EMPTY = new Node(0, new Object[0]);
+
+        final int bitmap;
+        final Object[] slots;
+
+        Node(int bitmap, @Nonnull Object[] slots) {
+            this.bitmap = bitmap;
+            this.slots = slots;
+        }
+
+        static class Change {
+            boolean added;
+        }
+
+        @Nullable
+        @SuppressWarnings("unchecked")
+        Entry<String, Object> find(int shift, int hash, @Nonnull String name) {
+            if (shift > MAX_SHIFT) {
+                for (Object slot : slots) {
+                    Entry<String, Object> entry = (Entry<String, Object>) slot;
+                    if (entry.getKey().equals(name)) {
+                        return entry;
+                    }
+                }
+                return null;
+            }
+            int bit = bit(shift, hash);
+            if ((bitmap & bit) == 0) {
+                return null;
+            }
+            Object slot = slots[index(bit)];
+            if (slot instanceof Node) {
+                return ((Node) slot).find(shift + BITS, hash, name);
+            }
+            Entry<String, Object> entry = (Entry<String, Object>) slot;
+            return entry.getKey().equals(name) ? entry : null;
+        }
+
+        @Nonnull
+        @SuppressWarnings("unchecked")
+        Node with(int shift, int hash, @Nonnull String name, @Nullable Object value, @Nonnull Change change) {
+            if (shift > MAX_SHIFT) {
+                for (int i = 0; i < slots.length; i++) {
+                    Entry<String, Object> entry = (Entry<String, Object>) slots[i];
+                    if (entry.getKey().equals(name)) {
+                        return Objects.equals(entry.getValue(), value) ? this : replace(i, entry(name, value));
+                    }
+                }
+                change.added = true;
+                return insert(slots.length, 0, entry(name, value));
+            }
+            int bit = bit(shift, hash);
+            int index = index(bit);
+            if ((bitmap & bit) == 0) {
+                change.added = true;
+                return insert(index, bit, entry(name, value));
+            }
+            Object slot = slots[index];
+            if (slot instanceof Node) {
+                Node child = (Node) slot;
+                Node newChild = child.with(shift + BITS, hash, name, value, change);
+                return newChild == child ? this : replace(index, newChild);
+            }
+            Entry<String, Object> existing = (Entry<String, Object>) slot;
+            if (existing.getKey().equals(name)) {
+                return Objects.equals(existing.getValue(), value) ? this : replace(index, entry(name, value));
+            }
+            // Push both entries down a level, where their hashes may differ
+            Node child = EMPTY
+                    .with(shift + BITS, existing.getKey().hashCode(), existing.getKey(), existing.getValue(),
+                            new Change())
+                    .with(shift + BITS, hash, name, value, change);
+            return replace(index, child);
+        }
+
+        @SuppressWarnings("unchecked")
+        void collect(@Nonnull List<Entry<String, Object>> entries) {
+            for (Object slot : slots) {
+                if (slot instanceof Node) {
+                    ((Node) slot).collect(entries);
+                } else {
+                    entries.add((Entry<String, Object>) slot);
+                }
+            }
+        }
+
+        @Nonnull
+        private Node insert(int index, int bit, @Nonnull Object slot) {
+            Object[] newSlots = new Object[slots.length + 1];
+            System.arraycopy(slots, 0, newSlots, 0, index);
+            newSlots[index] = slot;
+            System.arraycopy(slots, index, newSlots, index + 1, slots.length - index);
+            return new Node(bitmap | bit, newSlots);
+        }
+
+        @Nonnull
+        private Node replace(int index, @Nonnull Object slot) {
+            Object[] newSlots = slots.clone();
+            newSlots[index] = slot;
+            return new Node(bitmap, newSlots);
+        }
+
+        private int index(int bit) {
+            return Integer.bitCount(bitmap & (bit - 1));
+        }
+
+        private static int bit(int shift, int hash) {
+            return 1 << ((hash >>> shift) & MASK);
+        }
+
+        @Nonnull
+        private static Entry<String, Object> entry(@Nonnull String name, @Nullable Object value) {
+            return new SimpleImmutableEntry<>(name, value);
+        }
+    }
+}
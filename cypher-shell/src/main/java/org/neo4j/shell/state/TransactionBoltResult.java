@@ -0,0 +1,77 @@
+package org.neo4j.shell.state;
+
+import org.neo4j.driver.v1.Record;
+import org.neo4j.driver.v1.exceptions.Neo4jException;
+import org.neo4j.driver.v1.summary.ResultSummary;
+
+import javax.annotation.Nonnull;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * A result of a statement in an explicit transaction. The driver does not mark a transaction as failed when one of
+ * its statements fails on the server, so failures are reported as they are seen while the result is consumed.
+ */
+class TransactionBoltResult implements BoltResult {
+    private final BoltResult result;
+    private final Runnable onFailure;
+
+    /**
+     * @param onFailure called when the statement turns out to have failed
+     */
+    TransactionBoltResult(@Nonnull BoltResult result, @Nonnull Runnable onFailure) {
+        this.result = result;
+        this.onFailure = onFailure;
+    }
+
+    @Nonnull
+    @Override
+    public List<String> getKeys() {
+        return watch(result::getKeys);
+    }
+
+    @Nonnull
+    @Override
+    public List<Record> getRecords() {
+        return watch(result::getRecords);
+    }
+
+    @Nonnull
+    @Override
+    public Iterator<Record> iterate() {
+        Iterator<Record> records = watch(result::iterate);
+        return new Iterator<Record>() {
+            @Override
+            public boolean hasNext() {
+                return watch(records::hasNext);
+            }
+
+            @Override
+            public Record next() {
+                return watch(records::next);
+            }
+        };
+    }
+
+    @Nonnull
+    @Override
+    public ResultSummary getSummary() {
+        return watch(result::getSummary);
+    }
+
+    @Nonnull
+    @Override
+    public String getTruncationNote() {
+        return result.getTruncationNote();
+    }
+
+    private <T> T watch(@Nonnull Supplier<T> action) {
+        try {
+            return action.get();
+        } catch (Neo4jException e) {
+            onFailure.run();
+            throw e;
+        }
+    }
+}
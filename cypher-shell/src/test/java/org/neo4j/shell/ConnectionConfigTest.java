@@ -2,15 +2,12 @@ package org.neo4j.shell;
 
 import org.junit.Test;
 import org.neo4j.driver.v1.Config;
-import org.neo4j.shell.log.Logger;
+import org.neo4j.shell.cli.AccessModePolicy;
 
 import static org.junit.Assert.assertEquals;
-import static org.mockito.Mockito.mock;
-import static org.mockito.Mockito.verify;
 
 public class ConnectionConfigTest {
-    private Logger logger = mock(Logger.class);
-    private ConnectionConfig config = new ConnectionConfig(logger, "bolt://", "localhost", 1, "bob",
+    private ConnectionConfig config = new ConnectionConfig("bolt://", "localhost", 1, "bob",
             "pass", false);
 
     @Test
@@ -45,17 +42,23 @@ public class ConnectionConfigTest {
 
     @Test
     public void driverUrlRoutingScheme() throws Exception {
-        ConnectionConfig config = new ConnectionConfig(logger, "bolt+routing://", "localhost", 1, "bob",
+        ConnectionConfig config = new ConnectionConfig("bolt+routing://", "localhost", 1, "bob",
                 "pass", false);
-        verify(logger).printError("@|RED Routing is not supported by cypher-shell. Falling back to direct connection.|@");
-        assertEquals("bolt://localhost:1", config.driverUrl());
+        assertEquals("bolt+routing://localhost:1", config.driverUrl());
+    }
+
+    @Test
+    public void accessModePolicy() {
+        assertEquals(AccessModePolicy.AUTO, config.accessModePolicy());
+        assertEquals(AccessModePolicy.READ, new ConnectionConfig("bolt://", "", -1, "", "", false,
+                AccessModePolicy.READ).accessModePolicy());
     }
 
     @Test
     public void encryption() {
         assertEquals(Config.EncryptionLevel.REQUIRED,
-                new ConnectionConfig(logger, "bolt://", "", -1, "", "", true).encryption());
+                new ConnectionConfig("bolt://", "", -1, "", "", true).encryption());
         assertEquals(Config.EncryptionLevel.NONE,
-                new ConnectionConfig(logger, "bolt://", "", -1, "", "", false).encryption());
+                new ConnectionConfig("bolt://", "", -1, "", "", false).encryption());
     }
 }
@@ -14,6 +14,7 @@ import org.neo4j.shell.cli.StringShellRunner;
 import org.neo4j.shell.commands.CommandExecutable;
 import org.neo4j.shell.commands.CommandHelper;
 import org.neo4j.shell.exception.CommandException;
+import org.neo4j.shell.exception.PagerQuitException;
 import org.neo4j.shell.log.Logger;
 import org.neo4j.shell.prettyprint.PrettyPrinter;
 import org.neo4j.shell.state.BoltResult;
@@ -21,7 +22,13 @@ import org.neo4j.shell.state.BoltStateHandler;
 import org.neo4j.shell.test.OfflineTestShell;
 
 import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
 import java.util.Optional;
 
 import static java.util.Arrays.asList;
@@ -30,10 +37,15 @@ import static junit.framework.TestCase.fail;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.mockito.Matchers.anyMap;
+import static org.mockito.Matchers.anyObject;
 import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.contains;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -59,7 +71,7 @@ public class CypherShellTest {
 
     @Test
     public void verifyDelegationOfConnectionMethods() throws CommandException {
-        ConnectionConfig cc = new ConnectionConfig(logger, "bolt://", "", 1, "", "", false);
+        ConnectionConfig cc = new ConnectionConfig("bolt://", "", 1, "", "", false);
         CypherShell shell = new CypherShell(logger, mockedBoltStateHandler, mockedPrettyPrinter);
 
         shell.connect(cc);
@@ -96,7 +108,6 @@ public class CypherShellTest {
     @Test
     public void verifyDelegationOfTransactionMethods() throws CommandException {
         CypherShell shell = new CypherShell(logger, mockedBoltStateHandler, mockedPrettyPrinter);
-        when(mockedBoltStateHandler.commitTransaction()).thenReturn(Optional.empty());
 
         shell.beginTransaction();
         verify(mockedBoltStateHandler).beginTransaction();
@@ -118,7 +129,7 @@ public class CypherShellTest {
 
         when(mockedBoltStateHandler.runCypher(anyString(), anyMap())).thenThrow(new CommandException("not connected"));
 
-        shell.set("bob", "99");
+        shell.set("bob", "98 + 1");
     }
 
     @Test
@@ -145,7 +156,7 @@ public class CypherShellTest {
 
         assertTrue(offlineTestShell.getAll().isEmpty());
 
-        Optional result = offlineTestShell.set("`bo``b`", "99");
+        Optional result = offlineTestShell.set("`bo``b`", "98 + 1");
         assertEquals("99", result.get());
         assertEquals("99", offlineTestShell.getAll().get("bo`b"));
     }
@@ -163,7 +174,7 @@ public class CypherShellTest {
 
         assertTrue(offlineTestShell.getAll().isEmpty());
 
-        Optional result = offlineTestShell.set("`bob`", "99");
+        Optional result = offlineTestShell.set("`bob`", "98 + 1");
         assertEquals("99", result.get());
         assertEquals("99", offlineTestShell.getAll().get("bob"));
     }
@@ -175,30 +186,91 @@ public class CypherShellTest {
         BoltResult result = mock(BoltResult.class);
 
         BoltStateHandler boltStateHandler = mock(BoltStateHandler.class);
+        StringWriter data = new StringWriter();
+        doReturn(new PrintWriter(data)).when(logger).getDataWriter();
 
         when(boltStateHandler.isConnected()).thenReturn(true);
         when(boltStateHandler.runCypher(anyString(), anyMap())).thenReturn(Optional.of(result));
-        when(mockedPrettyPrinter.format(result)).thenReturn("999");
+        doAnswer(a -> {
+            ((PrintWriter) a.getArguments()[1]).println("999");
+            return null;
+        }).when(mockedPrettyPrinter).format(eq(result), anyObject());
         when(mockedDriver.session()).thenReturn(session);
 
         OfflineTestShell shell = new OfflineTestShell(logger, boltStateHandler, mockedPrettyPrinter);
         shell.execute("RETURN 999");
-        verify(logger).printOut(contains("999"));
+        assertEquals("999" + System.lineSeparator(), data.toString());
     }
 
     @Test
-    public void commitShouldPrintResult() throws CommandException {
+    public void truncationNoteIsPrintedAsAnError() throws CommandException {
         BoltResult result = mock(BoltResult.class);
+        when(result.getTruncationNote()).thenReturn("Stopped after 2 rows of 3, set by --max-rows");
+        StringWriter data = new StringWriter();
+        doReturn(new PrintWriter(data)).when(logger).getDataWriter();
 
         BoltStateHandler boltStateHandler = mock(BoltStateHandler.class);
+        when(boltStateHandler.isConnected()).thenReturn(true);
+        when(boltStateHandler.runCypher(anyString(), anyMap())).thenReturn(Optional.of(result));
+
+        OfflineTestShell shell = new OfflineTestShell(logger, boltStateHandler, mockedPrettyPrinter);
+        shell.execute("MATCH (n) RETURN n");
 
-        when(mockedPrettyPrinter.format(result)).thenReturn("999");
-        when(boltStateHandler.commitTransaction()).thenReturn(Optional.of(asList(result)));
+        verify(logger).printError("Stopped after 2 rows of 3, set by --max-rows");
+        assertEquals("", data.toString());
+    }
+
+    @Test
+    public void writesAreConsumedWithoutPrintingWhenThePagerIsQuit() throws CommandException {
+        Iterator<Record> records = asList(mock(Record.class), mock(Record.class), mock(Record.class)).iterator();
+        BoltResult result = mock(BoltResult.class);
+        when(result.iterate()).thenReturn(records);
+        BoltStateHandler boltStateHandler = mock(BoltStateHandler.class);
+        when(boltStateHandler.isConnected()).thenReturn(true);
+        when(boltStateHandler.runCypher(anyString(), anyMap())).thenReturn(Optional.of(result));
+        doAnswer(a -> {
+            records.next();
+            throw new PagerQuitException();
+        }).when(mockedPrettyPrinter).format(eq(result), anyObject());
+
+        OfflineTestShell shell = new OfflineTestShell(logger, boltStateHandler, mockedPrettyPrinter);
+        try {
+            shell.execute("MATCH (n) SET n.x = 1 RETURN n");
+            fail("Expected the pager to have been quit");
+        } catch (PagerQuitException e) {
+            assertFalse(records.hasNext());
+            verify(result).getSummary();
+        }
+    }
+
+    @Test
+    public void readsAreLeftForTheRunnerToStopWhenThePagerIsQuit() throws CommandException {
+        BoltResult result = mock(BoltResult.class);
+        BoltStateHandler boltStateHandler = mock(BoltStateHandler.class);
+        when(boltStateHandler.isConnected()).thenReturn(true);
+        when(boltStateHandler.runCypher(anyString(), anyMap())).thenReturn(Optional.of(result));
+        doThrow(new PagerQuitException()).when(mockedPrettyPrinter).format(eq(result), anyObject());
+
+        OfflineTestShell shell = new OfflineTestShell(logger, boltStateHandler, mockedPrettyPrinter);
+        try {
+            shell.execute("MATCH (n) RETURN n");
+            fail("Expected the pager to have been quit");
+        } catch (PagerQuitException e) {
+            verify(result, never()).iterate();
+            verify(result, never()).getSummary();
+        }
+    }
+
+    @Test
+    public void commitShouldNotPrintAnything() throws CommandException {
+        // results of statements in a transaction have already been printed when they were executed
+        BoltStateHandler boltStateHandler = mock(BoltStateHandler.class);
 
         OfflineTestShell shell = new OfflineTestShell(logger, boltStateHandler, mockedPrettyPrinter);
 
         shell.commitTransaction();
-        verify(logger).printOut(contains("999"));
+        verify(boltStateHandler).commitTransaction();
+        verify(logger, never()).printOut(anyString());
     }
 
     @Test
@@ -280,6 +352,77 @@ public class CypherShellTest {
         CypherShell shell = new CypherShell(logger, mockedBoltStateHandler, mockedPrettyPrinter);
 
         // when
-        shell.set("bob", "99");
+        shell.set("bob", "98 + 1");
+    }
+
+    @Test
+    public void setParamShouldEvaluateLiteralsWithoutTheServer() throws CommandException {
+        CypherShell shell = new CypherShell(logger, mockedBoltStateHandler, mockedPrettyPrinter);
+        shell.set("other", "'a'");
+
+        Optional result = shell.set("`bo``b`", "{list: [1, 2.5, true, null], other: $other}");
+
+        Map<String, Object> expected = new HashMap<>();
+        expected.put("list", asList(1L, 2.5, true, null));
+        expected.put("other", "a");
+        assertEquals(expected, result.get());
+        assertEquals(expected, shell.getAll().get("bo`b"));
+        verify(mockedBoltStateHandler, never()).runCypher(anyString(), anyMap());
+    }
+
+    @Test
+    public void setParamShouldLeaveExpressionsToTheServer() throws CommandException {
+        Value value = mock(Value.class);
+        Record recordMock = mock(Record.class);
+        BoltResult boltResult = mock(BoltResult.class);
+        when(mockedBoltStateHandler.runCypher(anyString(), anyMap())).thenReturn(Optional.of(boltResult));
+        when(boltResult.getRecords()).thenReturn(asList(recordMock));
+        when(recordMock.get("bob")).thenReturn(value);
+        when(value.asObject()).thenReturn(3L);
+        CypherShell shell = new CypherShell(logger, mockedBoltStateHandler, mockedPrettyPrinter);
+        Map<String, Object> before = shell.getAll();
+
+        Optional result = shell.set("bob", "size([1, 2, 3])");
+
+        assertEquals(3L, result.get());
+        verify(mockedBoltStateHandler).runCypher("RETURN size([1, 2, 3]) as bob", before);
+        assertTrue(before.isEmpty());
+    }
+
+    @Test
+    public void executeShouldOnlySendReferencedParams() throws CommandException {
+        when(mockedBoltStateHandler.isConnected()).thenReturn(true);
+        when(mockedBoltStateHandler.runCypher(anyString(), anyMap())).thenReturn(Optional.empty());
+        when(logger.isDebugEnabled()).thenReturn(true);
+        CypherShell shell = new CypherShell(logger, mockedBoltStateHandler, mockedPrettyPrinter);
+        shell.set("used", "1");
+        shell.set("unused", "'some long string'");
+
+        shell.execute("RETURN $used");
+        shell.execute("CALL db.labels");
+
+        verify(mockedBoltStateHandler).runCypher("RETURN $used", Collections.singletonMap("used", 1L));
+        verify(mockedBoltStateHandler).runCypher("CALL db.labels", shell.getAll());
+        verify(logger).printIfDebug("Sending 1 of 2 parameters, 25 bytes saved");
+    }
+
+    @Test
+    public void executeCypherWithParamsAddsThemToTheShellParams() throws CommandException {
+        BoltResult result = mock(BoltResult.class);
+        when(mockedBoltStateHandler.isConnected()).thenReturn(true);
+        when(mockedBoltStateHandler.runCypher(anyString(), anyMap())).thenReturn(Optional.of(result));
+        CypherShell shell = new CypherShell(logger, mockedBoltStateHandler, mockedPrettyPrinter);
+        shell.set("shared", "1");
+        shell.set("rows", "'replaced'");
+
+        shell.executeCypher("UNWIND $rows AS row RETURN row, $shared",
+                Collections.singletonMap("rows", asList(1L, 2L)));
+
+        Map<String, Object> expected = new HashMap<>();
+        expected.put("shared", 1L);
+        expected.put("rows", asList(1L, 2L));
+        verify(mockedBoltStateHandler).runCypher("UNWIND $rows AS row RETURN row, $shared", expected);
+        verify(mockedPrettyPrinter).format(eq(result), anyObject());
+        assertEquals("replaced", shell.getAll().get("rows"));
     }
 }
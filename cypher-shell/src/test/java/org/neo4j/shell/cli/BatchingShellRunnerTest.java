@@ -0,0 +1,219 @@
+package org.neo4j.shell.cli;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.neo4j.driver.v1.exceptions.ClientException;
+import org.neo4j.driver.v1.exceptions.TransientException;
+import org.neo4j.shell.CypherShell;
+import org.neo4j.shell.exception.CommandException;
+import org.neo4j.shell.exception.ExitException;
+import org.neo4j.shell.log.Logger;
+import org.neo4j.shell.parser.ShellStatementParser;
+import org.neo4j.shell.prettyprint.PrettyPrinter;
+import org.neo4j.shell.state.BoltStateHandler;
+
+import javax.annotation.Nonnull;
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+public class BatchingShellRunnerTest {
+    private final Logger logger = mock(Logger.class);
+    private final List<String> printed = new ArrayList<>();
+    private final List<String> reported = new ArrayList<>();
+    private final List<List<String>> commits = new ArrayList<>();
+    private final ClientException badLineError = new ClientException("Found a bad line");
+    private FakeShell shell;
+    private FakeShell batchShell;
+    private long now = 0;
+
+    @Before
+    public void setup() {
+        doAnswer(invocation -> printed.add((String) invocation.getArguments()[0])).when(logger).printOut(anyString());
+        doAnswer(invocation -> reported.add((String) invocation.getArguments()[0])).when(logger).printError(anyString());
+        doAnswer(invocation -> reported.add(((Throwable) invocation.getArguments()[0]).getMessage()))
+                .when(logger).printError(any(Throwable.class));
+        shell = new FakeShell(logger);
+    }
+
+    @Test
+    public void commitsEveryBatchSizeStatements() throws Exception {
+        int code = run(FailBehavior.FAIL_FAST, 2, 0, "a;\nb;\nc;\nd;\ne;\n");
+
+        assertEquals("Exit code incorrect", 0, code);
+        assertEquals(asList(asList("a", "b"), asList("c", "d"), asList("e")), commits);
+        assertEquals(asList("a", "b", "c", "d", "e"), printed);
+        assertEquals(asList("Committed statements 1-2", "Committed statements 3-4", "Committed statements 5-5"),
+                reported);
+    }
+
+    @Test
+    public void commitsWhenTheBatchTimeHasPassed() throws Exception {
+        // Every statement takes 10 milliseconds
+        shell.onExecute = statement -> now += 10;
+
+        int code = run(FailBehavior.FAIL_FAST, 0, 25, "a;\nb;\nc;\nd;\ne;\n");
+
+        assertEquals("Exit code incorrect", 0, code);
+        assertEquals(asList(asList("a", "b", "c"), asList("d", "e")), commits);
+    }
+
+    @Test
+    public void failingStatementIsSeparatedFromTheRestOfItsBatch() throws Exception {
+        int code = run(FailBehavior.FAIL_AT_END, 4, 0, "a;\nb;\nbad;\nc;\nd;\n");
+
+        assertEquals("Exit code incorrect", 1, code);
+        assertEquals(asList(asList("a", "b"), asList("c", "d")), commits);
+        assertEquals(asList("a", "b", "c", "d"), printed);
+        assertEquals(asList("Committed statements 1-2", "Statement 3 failed", "Found a bad line",
+                "Committed statements 4-5"), reported);
+    }
+
+    @Test
+    public void batchWhichFailsToCommitIsBisected() throws Exception {
+        int code = run(FailBehavior.FAIL_AT_END, 4, 0, "a;\nb;\nc;\nnocommit;\n");
+
+        assertEquals("Exit code incorrect", 1, code);
+        assertEquals(asList(asList("a", "b"), asList("c")), commits);
+        assertEquals(asList("a", "b", "c"), printed);
+        assertEquals(asList("Committed statements 1-2", "Committed statements 3-3", "Statement 4 failed",
+                "Commit failed"), reported);
+    }
+
+    @Test
+    public void failFastStopsAtTheFailingStatement() throws Exception {
+        int code = run(FailBehavior.FAIL_FAST, 4, 0, "a;\nb;\nbad;\nc;\nd;\n");
+
+        assertEquals("Exit code incorrect", 1, code);
+        assertEquals(asList(asList("a", "b")), commits);
+        assertEquals(asList("a", "b"), printed);
+        assertEquals(asList("Committed statements 1-2", "Statement 3 failed", "Found a bad line"), reported);
+        assertFalse(batchShell.isTransactionOpen());
+    }
+
+    @Test
+    public void transientFailuresAreRetried() throws Exception {
+        shell.transientFailures = 2;
+
+        int code = run(FailBehavior.FAIL_FAST, 3, 0, "a;\ntransient;\nb;\n");
+
+        assertEquals("Exit code incorrect", 0, code);
+        assertEquals(asList(asList("a", "transient"), asList("b")), commits);
+        assertEquals(asList("a", "transient", "b"), printed);
+    }
+
+    @Test
+    public void commandsAreExecutedBetweenBatches() throws Exception {
+        int code = run(FailBehavior.FAIL_FAST, 10, 0, "a;\n:barrier\nb;\nCREATE INDEX ON :Person(name);\nc;\n");
+
+        assertEquals("Exit code incorrect", 0, code);
+        assertEquals(asList(asList("a"), asList("b"), asList("c")), commits);
+        assertEquals(asList("a", "main :barrier", "b", "main CREATE INDEX ON :Person(name)", "c"), printed);
+    }
+
+    @Test
+    public void periodicCommitsRunOutsideOfBatches() throws Exception {
+        int code = run(FailBehavior.FAIL_FAST, 10, 0,
+                "a;\nUSING PERIODIC COMMIT LOAD CSV FROM 'x' AS l CREATE (:Line);\nb;\n");
+
+        assertEquals("Exit code incorrect", 0, code);
+        assertEquals(asList(asList("a"), asList("b")), commits);
+        assertEquals(asList("a", "main USING PERIODIC COMMIT LOAD CSV FROM 'x' AS l CREATE (:Line)", "b"), printed);
+    }
+
+    private int run(@Nonnull FailBehavior failBehavior, int batchSize, long batchTime, @Nonnull String input) {
+        LongSupplier clock = () -> now;
+        return new BatchingShellRunner(failBehavior, shell, logger, new ShellStatementParser(),
+                new ByteArrayInputStream(input.getBytes()), batchSize, batchTime, clock).runUntilEnd();
+    }
+
+    private interface Action {
+        void run(String statement);
+    }
+
+    /**
+     * Prints every statement it executes, keeping track of which are committed. Statements containing bad fail,
+     * statements containing transient fail transiently the first times, and
+     * transactions containing nocommit fail to commit.
+     */
+    private class FakeShell extends CypherShell {
+        private final Logger output;
+        private Action onExecute = statement -> {};
+        private int transientFailures = 0;
+        private List<String> transaction = null;
+
+        FakeShell(Logger output) {
+            super(output, mock(BoltStateHandler.class), mock(PrettyPrinter.class));
+            this.output = output;
+        }
+
+        @Override
+        protected void addRuntimeHookToResetShell() {
+        }
+
+        @Override
+        public void execute(@Nonnull String text) throws ExitException, CommandException {
+            String statement = text.trim().replaceAll(";$", "");
+            onExecute.run(statement);
+            if (statement.contains("bad")) {
+                throw badLineError;
+            }
+            if (statement.contains("transient") && shell.transientFailures > 0) {
+                shell.transientFailures--;
+                throw new TransientException("Neo.TransientError.Transaction.DeadlockDetected", "Deadlock");
+            }
+            if (transaction != null) {
+                transaction.add(statement);
+                output.printOut(statement);
+            } else {
+                output.printOut("main " + statement);
+            }
+        }
+
+        @Override
+        public void beginTransaction() throws CommandException {
+            transaction = new ArrayList<>();
+        }
+
+        @Override
+        public void commitTransaction() throws CommandException {
+            if (transaction.stream().anyMatch(statement -> statement.contains("nocommit"))) {
+                transaction = null;
+                throw new CommandException("Commit failed");
+            }
+            commits.add(transaction);
+            transaction = null;
+        }
+
+        @Override
+        public void rollbackTransaction() throws CommandException {
+            transaction = null;
+        }
+
+        @Override
+        public boolean isTransactionOpen() {
+            return transaction != null;
+        }
+
+        @Nonnull
+        @Override
+        public CypherShell fork(@Nonnull Logger logger) throws CommandException {
+            batchShell = new FakeShell(logger);
+            batchShell.onExecute = onExecute;
+            return batchShell;
+        }
+
+        @Override
+        public void disconnectSession() {
+        }
+    }
+}
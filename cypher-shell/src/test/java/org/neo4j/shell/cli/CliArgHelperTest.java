@@ -89,6 +89,108 @@ public class CliArgHelperTest {
     public void parseFormat() throws Exception {
         assertEquals(Format.PLAIN, CliArgHelper.parse("--format", "plain").getFormat());
         assertEquals(Format.VERBOSE, CliArgHelper.parse("--format", "verbose").getFormat());
+        assertEquals(Format.JSON, CliArgHelper.parse("--format", "json").getFormat());
+    }
+
+    @Test
+    public void parseDelimiter() throws Exception {
+        assertEquals(Format.CSV, CliArgHelper.parse("--format", "csv").getFormat());
+        assertEquals(Optional.empty(), CliArgHelper.parse("--format", "tsv").getDelimiter());
+        assertEquals(Optional.of(';'), CliArgHelper.parse("--format", "csv", "--delimiter", ";").getDelimiter());
+        assertEquals(Optional.of('\t'), CliArgHelper.parse("--format", "csv", "--delimiter", "\\t").getDelimiter());
+        assertNull("Delimiter needs a delimited format", CliArgHelper.parse("--format", "plain", "--delimiter", ";"));
+        assertNull("Delimiter must be one character", CliArgHelper.parse("--format", "csv", "--delimiter", ";;"));
+        assertNull("Delimiter can not be a quote", CliArgHelper.parse("--format", "csv", "--delimiter", "\""));
+    }
+
+    @Test
+    public void parseSampleRows() throws Exception {
+        assertEquals(0, CliArgHelper.parse().getSampleRows());
+        assertEquals(100, CliArgHelper.parse("--sample-rows", "100").getSampleRows());
+        assertNull(CliArgHelper.parse("--sample-rows", "-1"));
+    }
+
+    @Test
+    public void parseMaxColumnWidth() throws Exception {
+        assertEquals(0, CliArgHelper.parse().getMaxColumnWidth());
+        assertEquals(80, CliArgHelper.parse("--max-column-width", "80").getMaxColumnWidth());
+        assertNull(CliArgHelper.parse("--max-column-width", "-1"));
+    }
+
+    @Test
+    public void parseParallelFormatting() throws Exception {
+        assertFalse(CliArgHelper.parse().isParallelFormatting());
+        assertTrue(CliArgHelper.parse("--parallel-formatting").isParallelFormatting());
+    }
+
+    @Test
+    public void parsePager() throws Exception {
+        assertFalse(CliArgHelper.parse().isPager());
+        assertTrue(CliArgHelper.parse("--pager").isPager());
+    }
+
+    @Test
+    public void parseMaxRows() throws Exception {
+        assertEquals(0, CliArgHelper.parse().getMaxRows());
+        assertEquals(1000, CliArgHelper.parse("--max-rows", "1000").getMaxRows());
+        assertNull(CliArgHelper.parse("--max-rows", "-1"));
+    }
+
+    @Test
+    public void parseOutputFile() throws Exception {
+        assertEquals(Optional.empty(), CliArgHelper.parse().getOutputFile());
+        assertEquals(Optional.of("out.csv.gz"), CliArgHelper.parse("--output", "out.csv.gz").getOutputFile());
+        assertNull("zstd is not supported", CliArgHelper.parse("--output", "out.csv.zst"));
+    }
+
+    @Test
+    public void parseAccessMode() throws Exception {
+        assertEquals(AccessModePolicy.AUTO, CliArgHelper.parse().getAccessModePolicy());
+        assertEquals(AccessModePolicy.READ, CliArgHelper.parse("--access-mode", "read").getAccessModePolicy());
+        assertEquals(AccessModePolicy.WRITE, CliArgHelper.parse("--access-mode", "write").getAccessModePolicy());
+    }
+
+    @Test
+    public void parseParallelism() throws Exception {
+        assertEquals(1, CliArgHelper.parse().getParallelism());
+        assertEquals(8, CliArgHelper.parse("--parallelism", "8").getParallelism());
+        assertNull("Parallelism below one should fail", CliArgHelper.parse("--parallelism", "0"));
+        assertNull("Arrow streams can not be written in parallel",
+                CliArgHelper.parse("--format", "arrow", "--parallelism", "2"));
+        assertEquals(Format.ARROW, CliArgHelper.parse("--format", "arrow", "--parallelism", "1").getFormat());
+    }
+
+    @Test
+    public void parseTxBatching() throws Exception {
+        assertFalse(CliArgHelper.parse().isBatching());
+        CliArgs cliArgs = CliArgHelper.parse("--tx-batch-size", "500", "--tx-batch-time", "1000");
+        assertEquals(500, cliArgs.getTxBatchSize());
+        assertEquals(1000L, cliArgs.getTxBatchTime());
+        assertTrue(cliArgs.isBatching());
+        assertNull("Batching can not be combined with parallelism",
+                CliArgHelper.parse("--tx-batch-size", "500", "--parallelism", "2"));
+        assertNull("Retried batches would leave partial Arrow streams",
+                CliArgHelper.parse("--tx-batch-size", "500", "--format", "arrow"));
+        assertNull("Retried batches would leave partial Arrow streams",
+                CliArgHelper.parse("--tx-batch-time", "1000", "--format", "arrow"));
+    }
+
+    @Test
+    public void parseParamRows() throws Exception {
+        assertFalse(CliArgHelper.parse().getParamRows().isPresent());
+        CliArgs cliArgs = CliArgHelper.parse("--param-rows", "people.csv", "--param-rows-format", "jsonl",
+                "--param-batch-size", "50", "MERGE (:Person {id: row.id})");
+        assertEquals(Optional.of("people.csv"), cliArgs.getParamRows());
+        assertEquals(RowFormat.JSONL, cliArgs.getParamRowsFormat());
+        assertEquals(50, cliArgs.getParamBatchSize());
+        assertNull("Parameter rows need a statement", CliArgHelper.parse("--param-rows", "people.csv"));
+    }
+
+    @Test
+    public void rowFormatFollowsFileExtensionUnlessSpecified() throws Exception {
+        assertEquals(RowFormat.JSONL, RowFormat.AUTO.resolve("people.jsonl"));
+        assertEquals(RowFormat.CSV, RowFormat.AUTO.resolve("people.csv"));
+        assertEquals(RowFormat.CSV, RowFormat.CSV.resolve("people.json"));
     }
 
     @Test
@@ -14,6 +14,7 @@ import org.neo4j.shell.UserMessagesHandler;
 import org.neo4j.shell.exception.CommandException;
 import org.neo4j.shell.exception.ExitException;
 import org.neo4j.shell.exception.NoMoreInputException;
+import org.neo4j.shell.exception.PagerQuitException;
 import org.neo4j.shell.log.AnsiFormattedText;
 import org.neo4j.shell.log.Logger;
 import org.neo4j.shell.parser.ShellStatementParser;
@@ -28,6 +29,7 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.PrintStream;
+import java.io.PrintWriter;
 import java.nio.file.Files;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicReference;
@@ -35,10 +37,12 @@ import java.util.concurrent.atomic.AtomicReference;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.contains;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -89,6 +93,48 @@ public class InteractiveShellRunnerTest {
         verifyNoMoreInteractions(cmdExecuter);
     }
 
+    @Test
+    public void quittingThePagerResetsTheSession() throws Exception {
+        String input = "paged;\n" +
+                "good;\n";
+        doThrow(new PagerQuitException()).when(cmdExecuter).execute(contains("paged"));
+        InteractiveShellRunner runner = new InteractiveShellRunner(cmdExecuter, txHandler, logger, statementParser,
+                new ByteArrayInputStream(input.getBytes()), historyFile, userMessagesHandler, true);
+
+        runner.runUntilEnd();
+
+        verify(logger).setDataWriter(any(PrintWriter.class));
+        verify(cmdExecuter).execute("paged;");
+        verify(cmdExecuter).reset();
+        verify(cmdExecuter).execute("\ngood;");
+        verify(logger, never()).printError(any(Throwable.class));
+    }
+
+    @Test
+    public void quittingThePagerKeepsOpenTransactions() throws Exception {
+        doThrow(new PagerQuitException()).when(cmdExecuter).execute(contains("paged"));
+        when(txHandler.isTransactionOpen()).thenReturn(true);
+        InteractiveShellRunner runner = new InteractiveShellRunner(cmdExecuter, txHandler, logger, statementParser,
+                new ByteArrayInputStream("paged;\n".getBytes()), historyFile, userMessagesHandler, true);
+
+        runner.runUntilEnd();
+
+        verify(cmdExecuter, never()).reset();
+    }
+
+    @Test
+    public void quittingThePagerKeepsWritesOfAutoCommitStatements() throws Exception {
+        doThrow(new PagerQuitException()).when(cmdExecuter).execute(contains("paged"));
+        InteractiveShellRunner runner = new InteractiveShellRunner(cmdExecuter, txHandler, logger, statementParser,
+                new ByteArrayInputStream("MATCH (n) SET n.paged = 1 RETURN n;\n".getBytes()), historyFile,
+                userMessagesHandler, true);
+
+        runner.runUntilEnd();
+
+        verify(cmdExecuter, never()).reset();
+        verify(logger, never()).printError(any(Throwable.class));
+    }
+
     @Test
     public void runUntilEndShouldKeepGoingOnErrors() throws IOException, CommandException {
         String input = "good1;\n" +
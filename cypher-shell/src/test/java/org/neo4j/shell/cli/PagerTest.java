@@ -0,0 +1,67 @@
+package org.neo4j.shell.cli;
+
+import org.junit.Test;
+import org.neo4j.shell.exception.PagerQuitException;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.fail;
+
+public class PagerTest {
+    private final StringWriter screen = new StringWriter();
+    private final Deque<Integer> keys = new ArrayDeque<>();
+    private final Pager pager = new Pager(screen, () -> keys.isEmpty() ? -1 : keys.pop(), () -> 4);
+    private final PrintWriter output = new PrintWriter(pager);
+
+    @Test
+    public void printsAScreenWithoutAskingForMore() {
+        output.print("1\n2\n3\n");
+        output.flush();
+
+        assertThat(screen.toString(), is("1\n2\n3\n"));
+    }
+
+    @Test
+    public void waitsForTheUserBeforeTheNextScreen() {
+        keys.addAll(Arrays.asList((int) ' ', (int) '\n'));
+
+        output.print("1\n2\n3\n4\n5\n6\n7\n");
+        output.flush();
+
+        String text = screen.toString();
+        assertThat(text, containsString("7\n"));
+        assertThat(text.split("-- More --", -1).length, is(3));
+        assertThat(text.substring(text.lastIndexOf('\r') + 1), is("7\n"));
+    }
+
+    @Test
+    public void quittingStopsWriting() {
+        keys.add((int) 'q');
+
+        try {
+            output.print("1\n2\n3\n4\n5\n");
+            fail("Should have quit");
+        } catch (PagerQuitException e) {
+            assertThat(screen.toString(), not(containsString("4")));
+        }
+    }
+
+    @Test
+    public void startsEachResultOnANewScreen() {
+        output.print("1\n2\n3\n");
+        output.flush();
+        pager.start();
+        output.print("4\n5\n6\n");
+        output.flush();
+
+        assertThat(screen.toString(), not(containsString("-- More --")));
+    }
+}
@@ -0,0 +1,238 @@
+package org.neo4j.shell.cli;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.neo4j.driver.v1.exceptions.ClientException;
+import org.neo4j.shell.CypherShell;
+import org.neo4j.shell.exception.CommandException;
+import org.neo4j.shell.exception.ExitException;
+import org.neo4j.shell.log.AnsiLogger;
+import org.neo4j.shell.log.Logger;
+import org.neo4j.shell.parser.ShellStatementParser;
+import org.neo4j.shell.prettyprint.PrettyPrinter;
+import org.neo4j.shell.state.BoltStateHandler;
+
+import javax.annotation.Nonnull;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class ParallelShellRunnerTest {
+    private final Logger logger = mock(Logger.class);
+    private final List<String> printed = Collections.synchronizedList(new ArrayList<>());
+    private final List<String> executed = Collections.synchronizedList(new ArrayList<>());
+    private final ClientException badLineError = new ClientException("Found a bad line");
+    private FakeShell shell;
+
+    @Before
+    public void setup() {
+        doAnswer(invocation -> printed.add((String) invocation.getArguments()[0])).when(logger).printOut(anyString());
+        shell = new FakeShell();
+    }
+
+    @Test
+    public void outputIsPrintedInTheOrderOfTheStatements() throws Exception {
+        int code = run(FailBehavior.FAIL_FAST, 3, "slow1;\nfast2;\nfast3;\nslow4;\nfast5;\n");
+
+        assertEquals("Exit code incorrect", 0, code);
+        assertEquals(asList("slow1", "fast2", "fast3", "slow4", "fast5"), printed);
+    }
+
+    @Test
+    public void statementsAreExecutedConcurrently() throws Exception {
+        CountDownLatch allStarted = new CountDownLatch(4);
+        shell.onExecute = statement -> {
+            allStarted.countDown();
+            if (!allStarted.await(10, TimeUnit.SECONDS)) {
+                throw new CommandException("Statements were not executed concurrently");
+            }
+        };
+
+        int code = run(FailBehavior.FAIL_FAST, 4, "a;\nb;\nc;\nd;\n");
+
+        assertEquals("Exit code incorrect", 0, code);
+        assertEquals(asList("a", "b", "c", "d"), printed);
+    }
+
+    @Test
+    public void commandsAndSchemaChangesWaitForEarlierStatements() throws Exception {
+        int code = run(FailBehavior.FAIL_FAST, 4,
+                "slow1;\n:barrier\nfast2;\nslow3;\nCREATE INDEX ON :Person(name);\nfast4;\n");
+
+        assertEquals("Exit code incorrect", 0, code);
+        assertEquals(asList("slow1", ":barrier", "slow3", "CREATE INDEX ON :Person(name)"), withoutFast(executed));
+        assertTrue(executed.indexOf(":barrier") > executed.indexOf("slow1"));
+        assertTrue(executed.indexOf("fast2") > executed.indexOf(":barrier"));
+        assertTrue(executed.indexOf("CREATE INDEX ON :Person(name)") > executed.indexOf("slow3"));
+        assertTrue(executed.indexOf("fast4") > executed.indexOf("CREATE INDEX ON :Person(name)"));
+    }
+
+    @Test
+    public void statementsInAnExplicitTransactionAreExecutedByTheMainShell() throws Exception {
+        shell.transactionOpen = true;
+
+        int code = run(FailBehavior.FAIL_FAST, 4, "a;\nb;\n");
+
+        assertEquals("Exit code incorrect", 0, code);
+        assertEquals(asList("main a", "main b"), printed);
+    }
+
+    @Test
+    public void failFastStopsAtTheFirstError() throws Exception {
+        int code = run(FailBehavior.FAIL_FAST, 2, "good1;\nbad;\nslow2;\nbad;\n");
+
+        assertEquals("Exit code incorrect", 1, code);
+        assertEquals(asList("good1"), printed);
+        verify(logger).printError(badLineError);
+    }
+
+    @Test
+    public void failAtEndExecutesEverything() throws Exception {
+        int code = run(FailBehavior.FAIL_AT_END, 2, "good1;\nbad;\nslow2;\nbad;\nfast3;\n");
+
+        assertEquals("Exit code incorrect", 1, code);
+        assertEquals(asList("good1", "slow2", "fast3"), printed);
+        verify(logger, times(2)).printError(badLineError);
+    }
+
+    @Test
+    public void exitStopsImmediately() throws Exception {
+        int code = run(FailBehavior.FAIL_AT_END, 2, "good1;\n:exit\ngood2;\n");
+
+        assertEquals("Exit code incorrect", 3, code);
+        assertEquals(asList("good1"), printed);
+    }
+
+    @Test
+    public void sessionsOfForksAreClosedAtTheEnd() throws Exception {
+        run(FailBehavior.FAIL_FAST, 3, "a;\nb;\nc;\nd;\n");
+
+        assertTrue(shell.forks.size() > 0);
+        for (FakeShell fork : shell.forks) {
+            assertTrue(fork.disconnected);
+        }
+    }
+
+    @Test
+    public void resultDataOfForksIsWrittenUnchanged() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        Logger ansiLogger = new AnsiLogger(false, Format.PLAIN, new PrintStream(bytes), mock(PrintStream.class));
+        FakeShell dataShell = new FakeShell(ansiLogger, false);
+
+        int code = new ParallelShellRunner(FailBehavior.FAIL_FAST, dataShell, ansiLogger, new ShellStatementParser(),
+                new ByteArrayInputStream("RETURN \"@|red x|@\";\nslow RETURN 1;\nRETURN 2;\n".getBytes()), 2)
+                .runUntilEnd();
+        ansiLogger.getDataWriter().flush();
+
+        assertEquals("Exit code incorrect", 0, code);
+        assertEquals(String.format("RETURN \"@|red x|@\"%nslow RETURN 1%nRETURN 2%n"),
+                new String(bytes.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    private int run(@Nonnull FailBehavior failBehavior, int parallelism, @Nonnull String input) {
+        return new ParallelShellRunner(failBehavior, shell, logger, new ShellStatementParser(),
+                new ByteArrayInputStream(input.getBytes()), parallelism).runUntilEnd();
+    }
+
+    private static List<String> withoutFast(List<String> statements) {
+        List<String> result = new ArrayList<>(statements);
+        result.removeIf(statement -> statement.startsWith("fast"));
+        return result;
+    }
+
+    private interface Action {
+        void run(String statement) throws Exception;
+    }
+
+    /**
+     * Prints and records every statement it executes. Statements starting with slow take a while, and statements
+     * containing bad fail.
+     */
+    private class FakeShell extends CypherShell {
+        private final List<FakeShell> forks = Collections.synchronizedList(new ArrayList<>());
+        private final Logger output;
+        private final boolean isFork;
+        private Action onExecute = statement -> {};
+        private boolean transactionOpen = false;
+        private boolean disconnected = false;
+
+        FakeShell() {
+            this(logger, false);
+        }
+
+        FakeShell(Logger output, boolean isFork) {
+            super(output, mock(BoltStateHandler.class), mock(PrettyPrinter.class));
+            this.output = output;
+            this.isFork = isFork;
+        }
+
+        @Override
+        protected void addRuntimeHookToResetShell() {
+        }
+
+        @Override
+        public void execute(@Nonnull String text) throws ExitException, CommandException {
+            String statement = text.trim().replaceAll(";$", "");
+            if (statement.startsWith(":exit")) {
+                throw new ExitException(3);
+            }
+            if (statement.contains("bad")) {
+                throw badLineError;
+            }
+            try {
+                onExecute.run(statement);
+                if (statement.startsWith("slow")) {
+                    Thread.sleep(100);
+                }
+            } catch (CommandException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new CommandException(e.getMessage());
+            }
+            executed.add(statement);
+            if (statement.contains("RETURN")) {
+                // Written as a result would be
+                PrintWriter data = output.getDataWriter();
+                data.println(statement);
+                data.flush();
+            } else if (!statement.startsWith(":") && !statement.startsWith("CREATE")) {
+                output.printOut(isFork ? statement : "main " + statement);
+            }
+        }
+
+        @Override
+        public boolean isTransactionOpen() {
+            return transactionOpen;
+        }
+
+        @Nonnull
+        @Override
+        public CypherShell fork(@Nonnull Logger logger) throws CommandException {
+            FakeShell fork = new FakeShell(logger, true);
+            fork.onExecute = onExecute;
+            forks.add(fork);
+            return fork;
+        }
+
+        @Override
+        public void disconnectSession() {
+            disconnected = true;
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package org.neo4j.shell.cli;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.neo4j.driver.v1.exceptions.ClientException;
+import org.neo4j.shell.CypherShell;
+import org.neo4j.shell.exception.CommandException;
+import org.neo4j.shell.log.Logger;
+import org.neo4j.shell.parser.RowReader;
+import org.neo4j.shell.prettyprint.PrettyPrinter;
+import org.neo4j.shell.state.BoltStateHandler;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+public class ParamRowsRunnerTest {
+    private final Logger logger = mock(Logger.class);
+    private final List<String> reported = Collections.synchronizedList(new ArrayList<>());
+    private final List<String> executed = Collections.synchronizedList(new ArrayList<>());
+    private final List<List<Object>> batches = Collections.synchronizedList(new ArrayList<>());
+    private final ClientException badRowError = new ClientException("Found a bad row");
+    private final FakeShell shell = new FakeShell(logger);
+    private boolean closed = false;
+
+    @Before
+    public void setup() {
+        doAnswer(invocation -> reported.add((String) invocation.getArguments()[0])).when(logger).printError(anyString());
+        doAnswer(invocation -> reported.add(((Throwable) invocation.getArguments()[0]).getMessage()))
+                .when(logger).printError(any(Throwable.class));
+    }
+
+    @Test
+    public void rowsAreSentInBatchesWithUnwind() throws Exception {
+        int code = run(FailBehavior.FAIL_FAST, 2, 1, rows(1, 2, 3, 4, 5));
+
+        assertEquals("Exit code incorrect", 0, code);
+        assertEquals(Collections.nCopies(3, "UNWIND $rows AS row MERGE (p:Person {id: row.id})"), executed);
+        assertEquals(asList(asList(1L, 2L), asList(3L, 4L), asList(5L)), batches);
+        assertTrue(reported.get(0).startsWith("Processed 5 rows in 3 batches in 1000 ms (5 rows/s)"));
+        assertTrue("Row reader should be closed", closed);
+    }
+
+    @Test
+    public void batchesAreSentConcurrently() throws Exception {
+        int code = run(FailBehavior.FAIL_FAST, 1, 4, rows(1, 2, 3, 4, 5, 6, 7, 8));
+
+        assertEquals("Exit code incorrect", 0, code);
+        assertEquals(8, batches.size());
+        assertTrue(shell.forks.size() > 1);
+    }
+
+    @Test
+    public void failFastStopsAtTheFirstFailingBatch() throws Exception {
+        int code = run(FailBehavior.FAIL_FAST, 2, 1, rows(1, 2, 3, -1, 5, 6));
+
+        assertEquals("Exit code incorrect", 1, code);
+        assertEquals(asList(1L, 2L), batches.get(0));
+        // Batches in flight when the failure is noticed are still sent, but nothing after them is read
+        assertTrue(batches.size() <= 2);
+        assertEquals(asList("Rows 3-4 failed", "Found a bad row"), reported.subList(0, 2));
+    }
+
+    @Test
+    public void failAtEndSendsEveryBatch() throws Exception {
+        int code = run(FailBehavior.FAIL_AT_END, 2, 1, rows(1, 2, 3, -1, 5, 6));
+
+        assertEquals("Exit code incorrect", 1, code);
+        assertEquals(asList(asList(1L, 2L), asList(5L, 6L)), batches);
+        assertTrue(reported.get(2).startsWith("Processed 6 rows in 3 batches"));
+    }
+
+    private int run(@Nonnull FailBehavior failBehavior, int batchSize, int parallelism,
+                    @Nonnull List<Map<String, Object>> rows) {
+        Iterator<Long> clock = asList(0L, 1_000_000_000L).iterator();
+        return new ParamRowsRunner(failBehavior, shell, logger, "MERGE (p:Person {id: row.id});",
+                new ListRowReader(rows), batchSize, parallelism, clock::next).runUntilEnd();
+    }
+
+    private static List<Map<String, Object>> rows(long... ids) {
+        return IntStream.range(0, ids.length)
+                .mapToObj(i -> Collections.<String, Object>singletonMap("id", ids[i]))
+                .collect(Collectors.toList());
+    }
+
+    private class ListRowReader implements RowReader {
+        private final Iterator<Map<String, Object>> rows;
+
+        ListRowReader(List<Map<String, Object>> rows) {
+            this.rows = rows.iterator();
+        }
+
+        @Override
+        public Map<String, Object> readRow() {
+            return rows.hasNext() ? rows.next() : null;
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+
+    /**
+     * Records the batches of rows it is given, failing on rows with a negative id
+     */
+    private class FakeShell extends CypherShell {
+        private final List<FakeShell> forks = Collections.synchronizedList(new ArrayList<>());
+
+        FakeShell(Logger output) {
+            super(output, mock(BoltStateHandler.class), mock(PrettyPrinter.class));
+        }
+
+        @Override
+        protected void addRuntimeHookToResetShell() {
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void executeCypher(@Nonnull String cypher, @Nonnull Map<String, Object> params)
+                throws CommandException {
+            List<Map<String, Object>> rows = (List<Map<String, Object>>) params.get("rows");
+            List<Object> ids = rows.stream().map(row -> row.get("id")).collect(Collectors.toList());
+            if (ids.stream().anyMatch(id -> (Long) id < 0)) {
+                throw badRowError;
+            }
+            executed.add(cypher);
+            batches.add(ids);
+        }
+
+        @Nonnull
+        @Override
+        public CypherShell fork(@Nonnull Logger logger) throws CommandException {
+            FakeShell fork = new FakeShell(logger);
+            forks.add(fork);
+            return fork;
+        }
+
+        @Override
+        public void disconnectSession() {
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package org.neo4j.shell.commands;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.neo4j.shell.exception.CommandException;
+
+import static org.hamcrest.CoreMatchers.containsString;
+
+public class BarrierTest {
+
+    @Rule
+    public final ExpectedException thrown = ExpectedException.none();
+    private Command barrierCommand = new Barrier();
+
+    @Test
+    public void shouldNotAcceptArgs() throws CommandException {
+        thrown.expect(CommandException.class);
+        thrown.expectMessage(containsString("Incorrect number of arguments"));
+
+        barrierCommand.execute("bob");
+    }
+
+    @Test
+    public void doesNothingByItself() throws CommandException {
+        barrierCommand.execute("");
+    }
+}
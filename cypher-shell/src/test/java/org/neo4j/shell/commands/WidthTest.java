@@ -0,0 +1,69 @@
+package org.neo4j.shell.commands;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.neo4j.shell.ColumnWidthHolder;
+import org.neo4j.shell.exception.CommandException;
+import org.neo4j.shell.log.Logger;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class WidthTest {
+
+    @Rule
+    public final ExpectedException thrown = ExpectedException.none();
+
+    private final Logger logger = mock(Logger.class);
+    private final ColumnWidthHolder columnWidthHolder = mock(ColumnWidthHolder.class);
+    private Width cmd;
+
+    @Before
+    public void setup() {
+        this.cmd = new Width(logger, columnWidthHolder);
+    }
+
+    @Test
+    public void shouldPrintTheCurrentWidth() throws CommandException {
+        when(columnWidthHolder.getMaxColumnWidth()).thenReturn(80);
+
+        cmd.execute("");
+
+        verify(logger).printOut("Maximum column width: 80");
+    }
+
+    @Test
+    public void shouldSetTheWidth() throws CommandException {
+        cmd.execute("40");
+
+        verify(columnWidthHolder).setMaxColumnWidth(40);
+    }
+
+    @Test
+    public void shouldTurnTheCapOff() throws CommandException {
+        cmd.execute("off");
+
+        verify(columnWidthHolder).setMaxColumnWidth(0);
+        verify(logger).printOut("Maximum column width: off");
+    }
+
+    @Test
+    public void shouldNotAcceptNegativeWidths() throws CommandException {
+        thrown.expect(CommandException.class);
+        thrown.expectMessage(containsString("Expected a number of characters or off"));
+
+        cmd.execute("-1");
+    }
+
+    @Test
+    public void shouldNotAcceptMoreArgs() throws CommandException {
+        thrown.expect(CommandException.class);
+        thrown.expectMessage(containsString("Incorrect number of arguments"));
+
+        cmd.execute("40 50");
+    }
+}
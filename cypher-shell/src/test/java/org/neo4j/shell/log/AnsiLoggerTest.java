@@ -6,9 +6,12 @@ import org.neo4j.driver.v1.exceptions.ClientException;
 import org.neo4j.shell.cli.Format;
 import org.neo4j.shell.exception.CommandException;
 
+import java.io.ByteArrayOutputStream;
 import java.io.PrintStream;
+import java.io.PrintWriter;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 import static org.mockito.Matchers.contains;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
@@ -63,6 +66,49 @@ public class AnsiLoggerTest {
         verify(err).println(contains("at org.neo4j.shell.log.AnsiLoggerTest.printExceptionWithDebug"));
     }
 
+    @Test
+    public void dataIsWrittenWithoutRenderingMarkup() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        logger = new AnsiLogger(false, Format.VERBOSE, new PrintStream(bytes), err);
+
+        PrintWriter data = logger.getDataWriter();
+        data.println("@|RED not markup|@");
+        assertEquals("data is buffered until flushed", 0, bytes.size());
+        data.flush();
+
+        assertEquals("@|RED not markup|@" + System.lineSeparator(), bytes.toString());
+        assertSame(data, logger.getDataWriter());
+    }
+
+    @Test
+    public void dataCanBeWrittenElsewhere() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        logger = new AnsiLogger(false, Format.VERBOSE, out, err, bytes);
+
+        logger.getDataWriter().println("row");
+        logger.getDataWriter().flush();
+        logger.printOut("message");
+
+        assertEquals("row" + System.lineSeparator(), bytes.toString());
+        verify(out).println("message");
+    }
+
+    @Test
+    public void dataIsFlushedPerLineOnTerminals() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        PrintWriter data = AnsiLogger.dataWriter(new PrintStream(bytes), true);
+
+        data.println("row");
+        assertEquals("row" + System.lineSeparator(), bytes.toString());
+
+        // Formatters end their rows with plain writes
+        data.write("| 1 |");
+        assertEquals("row" + System.lineSeparator(), bytes.toString());
+        data.write(System.lineSeparator());
+        assertEquals("row" + System.lineSeparator() + "| 1 |" + System.lineSeparator(), bytes.toString());
+    }
+
     @Test
     public void printOut() throws Exception {
         logger.printOut("sob");
@@ -0,0 +1,99 @@
+package org.neo4j.shell.log;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class AsyncOutputStreamTest {
+
+    @Test
+    public void writesEverythingInOrderOnFlush() throws IOException {
+        ByteArrayOutputStream target = new ByteArrayOutputStream();
+        AsyncOutputStream out = new AsyncOutputStream(target, 2, 4);
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            String text = "line " + i + "\n";
+            out.write(text.getBytes(StandardCharsets.UTF_8));
+            expected.append(text);
+        }
+        out.write('!');
+        expected.append('!');
+
+        out.flush();
+
+        assertEquals(expected.toString(), new String(target.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void writingBlocksWhenEveryBufferIsQueued() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        ByteArrayOutputStream written = new ByteArrayOutputStream();
+        OutputStream slowTarget = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    throw new IOException(e);
+                }
+                written.write(b);
+            }
+        };
+        AsyncOutputStream out = new AsyncOutputStream(slowTarget, 2, 1);
+        CountDownLatch done = new CountDownLatch(1);
+        Thread producer = new Thread(() -> {
+            try {
+                out.write(new byte[]{1, 2, 3, 4});
+                done.countDown();
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        producer.start();
+
+        assertFalse(done.await(200, TimeUnit.MILLISECONDS));
+        release.countDown();
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        out.flush();
+        assertEquals(4, written.size());
+    }
+
+    @Test
+    public void failuresAreThrownByTheNextFlush() throws IOException {
+        AsyncOutputStream out = new AsyncOutputStream(new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+        }, 2, 4);
+        out.write(1);
+
+        try {
+            out.flush();
+            fail("Expected the write failure to be thrown");
+        } catch (IOException e) {
+            assertEquals("Broken pipe", e.getMessage());
+        }
+    }
+
+    @Test
+    public void closeFlushes() throws IOException {
+        ByteArrayOutputStream target = new ByteArrayOutputStream();
+        AsyncOutputStream out = new AsyncOutputStream(target, 2, 4);
+        out.write(new byte[]{1, 2});
+
+        out.close();
+
+        assertEquals(2, target.size());
+    }
+}
@@ -0,0 +1,76 @@
+package org.neo4j.shell.log;
+
+import org.junit.Test;
+import org.mockito.InOrder;
+import org.neo4j.shell.cli.Format;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class BufferedLoggerTest {
+    private final Logger target = mock(Logger.class);
+
+    @Test
+    public void nothingIsPrintedUntilReplayed() {
+        when(target.getFormat()).thenReturn(Format.PLAIN);
+        BufferedLogger logger = new BufferedLogger(target);
+        Exception error = new Exception("oops");
+
+        logger.printOut("first");
+        logger.printError(error);
+        logger.printError("second");
+
+        verify(target, never()).printOut(anyString());
+        verify(target, never()).printError(anyString());
+        verify(target, never()).printError(error);
+
+        BufferedLogger.replay(logger.drain(), target);
+
+        InOrder inOrder = inOrder(target);
+        inOrder.verify(target).printOut("first");
+        inOrder.verify(target).printError(error);
+        inOrder.verify(target).printError("second");
+        assertEquals(Format.PLAIN, logger.getFormat());
+    }
+
+    @Test
+    public void dataIsReplayedToTheDataWriterInOrder() {
+        StringWriter data = new StringWriter();
+        when(target.getDataWriter()).thenReturn(new PrintWriter(data));
+        BufferedLogger logger = new BufferedLogger(target);
+
+        logger.getDataWriter().print("@|red x|@\n");
+        logger.printOut("message");
+        logger.getDataWriter().print("y\n");
+
+        List<Consumer<Logger>> output = logger.drain();
+        assertEquals("", data.toString());
+        InOrder inOrder = inOrder(target);
+        output.get(0).accept(target);
+        assertEquals("@|red x|@\n", data.toString());
+        BufferedLogger.replay(output.subList(1, output.size()), target);
+        inOrder.verify(target).printOut("message");
+        assertEquals("@|red x|@\ny\n", data.toString());
+    }
+
+    @Test
+    public void drainEmptiesTheBuffer() {
+        BufferedLogger logger = new BufferedLogger(target);
+
+        logger.printOut("first");
+        logger.drain();
+
+        assertTrue(logger.drain().isEmpty());
+    }
+}
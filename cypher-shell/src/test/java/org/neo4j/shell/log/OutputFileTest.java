@@ -0,0 +1,70 @@
+package org.neo4j.shell.log;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.Assert.assertEquals;
+
+public class OutputFileTest {
+    @Rule
+    public TemporaryFolder temp = new TemporaryFolder();
+
+    @Test
+    public void writesPlainFiles() throws IOException {
+        Path file = temp.getRoot().toPath().resolve("out.csv");
+        Files.write(file, "previous contents which are longer".getBytes(StandardCharsets.UTF_8));
+
+        try (OutputStream out = OutputFile.open(file)) {
+            out.write("a,b\n".getBytes(StandardCharsets.UTF_8));
+            out.write('1');
+        }
+
+        assertEquals("a,b\n1", new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void writesMoreThanTheBuffer() throws IOException {
+        Path file = temp.getRoot().toPath().resolve("out.bin");
+        byte[] data = new byte[OutputFile.BUFFER_SIZE * 2 + 3];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) i;
+        }
+
+        try (OutputStream out = OutputFile.open(file)) {
+            out.write(data, 0, 5);
+            out.write(data, 5, data.length - 5);
+        }
+
+        assertEquals(data.length, Files.size(file));
+        assertEquals(data[data.length - 1], Files.readAllBytes(file)[data.length - 1]);
+    }
+
+    @Test
+    public void compressesGzipFiles() throws IOException {
+        Path file = temp.getRoot().toPath().resolve("out.json.gz");
+
+        try (OutputStream out = OutputFile.open(file)) {
+            out.write("{\"a\":1}\n".getBytes(StandardCharsets.UTF_8));
+        }
+
+        ByteArrayOutputStream text = new ByteArrayOutputStream();
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(file))) {
+            byte[] buffer = new byte[256];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                text.write(buffer, 0, read);
+            }
+        }
+        assertEquals("{\"a\":1}\n", new String(text.toByteArray(), StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,78 @@
+package org.neo4j.shell.parser;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.neo4j.shell.exception.CommandException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class CsvRowReaderTest {
+    @Rule
+    public final ExpectedException thrown = ExpectedException.none();
+
+    @Test
+    public void readsRowsNamedByTheHeader() throws Exception {
+        RowReader reader = reader("id,name\n1,Bob\n2,Alice\n");
+
+        assertEquals(row("1", "Bob"), reader.readRow());
+        assertEquals(row("2", "Alice"), reader.readRow());
+        assertNull(reader.readRow());
+    }
+
+    @Test
+    public void emptyFieldsAreNullUnlessQuoted() throws Exception {
+        RowReader reader = reader("id,name\n,\"\"\n");
+
+        assertEquals(row(null, ""), reader.readRow());
+    }
+
+    @Test
+    public void quotedFieldsCanContainDelimitersQuotesAndLineBreaks() throws Exception {
+        RowReader reader = reader("id,name\n\"1,5\",\"Bob \"\"the\"\"\nBuilder\"\n");
+
+        assertEquals(row("1,5", "Bob \"the\"\nBuilder"), reader.readRow());
+        assertNull(reader.readRow());
+    }
+
+    @Test
+    public void supportsOtherDelimiters() throws Exception {
+        RowReader reader = new CsvRowReader(new BufferedReader(new StringReader("id\tname\n1\tBob\n")), '\t');
+
+        assertEquals(row("1", "Bob"), reader.readRow());
+    }
+
+    @Test
+    public void emptyInputHasNoRows() throws Exception {
+        assertNull(reader("").readRow());
+        assertNull(reader("id,name\n").readRow());
+    }
+
+    @Test
+    public void failsOnWrongNumberOfFields() throws Exception {
+        thrown.expect(CommandException.class);
+        thrown.expectMessage("Expected 2 fields but found 3 on line 3");
+
+        RowReader reader = reader("id,name\n1,Bob\n2,Alice,extra\n");
+        reader.readRow();
+        reader.readRow();
+    }
+
+    private static RowReader reader(String csv) throws IOException {
+        return new CsvRowReader(new BufferedReader(new StringReader(csv)), ',');
+    }
+
+    private static Map<String, Object> row(String id, String name) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("id", id);
+        row.put("name", name);
+        return row;
+    }
+}
@@ -0,0 +1,49 @@
+package org.neo4j.shell.parser;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.neo4j.shell.exception.CommandException;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class JsonLinesRowReaderTest {
+    @Rule
+    public final ExpectedException thrown = ExpectedException.none();
+
+    @Test
+    public void readsOneObjectPerLine() throws Exception {
+        RowReader reader = reader("{\"id\": 1}\n\n{\"id\": 2}\n");
+
+        assertEquals(Collections.singletonMap("id", 1L), reader.readRow());
+        assertEquals(Collections.singletonMap("id", 2L), reader.readRow());
+        assertNull(reader.readRow());
+    }
+
+    @Test
+    public void failsOnValuesWhichAreNotObjects() throws Exception {
+        thrown.expect(CommandException.class);
+        thrown.expectMessage("Expected a JSON object on line 2");
+
+        RowReader reader = reader("{\"id\": 1}\n[1, 2]\n");
+        reader.readRow();
+        reader.readRow();
+    }
+
+    @Test
+    public void failsOnInvalidJson() throws Exception {
+        thrown.expect(CommandException.class);
+        thrown.expectMessage("Invalid JSON on line 1");
+
+        reader("{\"id\": }\n").readRow();
+    }
+
+    private static RowReader reader(String jsonLines) {
+        return new JsonLinesRowReader(new BufferedReader(new StringReader(jsonLines)));
+    }
+}
@@ -0,0 +1,126 @@
+package org.neo4j.shell.parser;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.neo4j.shell.exception.CommandException;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class LiteralParserTest {
+    @Rule
+    public final ExpectedException thrown = ExpectedException.none();
+
+    @Test
+    public void parsesScalars() throws CommandException {
+        assertEquals(42L, LiteralParser.parseJson("42"));
+        assertEquals(-7L, LiteralParser.parseJson(" -7 "));
+        assertEquals(1.5, LiteralParser.parseJson("1.5"));
+        assertEquals(-2.5e3, LiteralParser.parseJson("-2.5e3"));
+        assertEquals(1e-3, LiteralParser.parseJson("1E-3"));
+        assertEquals(true, LiteralParser.parseJson("true"));
+        assertEquals(false, LiteralParser.parseJson("false"));
+        assertNull(LiteralParser.parseJson("null"));
+    }
+
+    @Test
+    public void parsesStrings() throws CommandException {
+        assertEquals("hello", LiteralParser.parseJson("\"hello\""));
+        assertEquals("a \"quoted\"\n\tline\\", LiteralParser.parseJson("\"a \\\"quoted\\\"\\n\\tline\\\\\""));
+        assertEquals("\u00e9", LiteralParser.parseJson("\"\\u00e9\""));
+    }
+
+    @Test
+    public void parsesListsAndMaps() throws CommandException {
+        assertEquals(Collections.emptyList(), LiteralParser.parseJson("[]"));
+        assertEquals(Collections.emptyMap(), LiteralParser.parseJson("{ }"));
+        assertEquals(asList(1L, "two", asList(3.0)), LiteralParser.parseJson("[1, \"two\", [3.0]]"));
+
+        Map<String, Object> expected = new HashMap<>();
+        expected.put("name", "Bob");
+        expected.put("tags", asList("a", "b"));
+        expected.put("address", Collections.singletonMap("city", null));
+        assertEquals(expected,
+                LiteralParser.parseJson("{\"name\": \"Bob\", \"tags\": [\"a\", \"b\"], \"address\": {\"city\": null}}"));
+    }
+
+    @Test
+    public void failsOnTrailingText() throws CommandException {
+        thrown.expect(CommandException.class);
+        thrown.expectMessage("Unexpected text after value at position 3");
+
+        LiteralParser.parseJson("12 34");
+    }
+
+    @Test
+    public void failsOnUnterminatedString() throws CommandException {
+        thrown.expect(CommandException.class);
+        thrown.expectMessage("Unterminated string");
+
+        LiteralParser.parseJson("{\"name\": \"Bob}");
+    }
+
+    @Test
+    public void failsOnUnknownWords() throws CommandException {
+        thrown.expect(CommandException.class);
+        thrown.expectMessage("Expected a value at position 1");
+
+        LiteralParser.parseJson("[nope]");
+    }
+
+    @Test
+    public void parsesCypherLiterals() throws CommandException {
+        Map<String, Object> params = new HashMap<>();
+        params.put("name", "Bob");
+        params.put("odd name", 1L);
+
+        assertEquals(true, LiteralParser.parseCypher("TRUE", params));
+        assertNull(LiteralParser.parseCypher("Null", params));
+        assertEquals(0.5, LiteralParser.parseCypher(".5", params));
+        assertEquals("it's \"quoted\"", LiteralParser.parseCypher("'it\\'s \"quoted\"'", params));
+        assertEquals(asList("Bob", 1L), LiteralParser.parseCypher("[$name, $`odd name`]", params));
+
+        Map<String, Object> expected = new HashMap<>();
+        expected.put("name", "Bob");
+        expected.put("back`tick", asList(1L, 2L));
+        assertEquals(expected, LiteralParser.parseCypher("{name: $name, `back``tick`: [1, 2]}", params));
+    }
+
+    @Test
+    public void failsOnCypherExpressions() throws CommandException {
+        thrown.expect(CommandException.class);
+        thrown.expectMessage("Unexpected text after value at position 2");
+
+        LiteralParser.parseCypher("1 + 2", Collections.emptyMap());
+    }
+
+    @Test
+    public void failsOnMissingCypherParameters() throws CommandException {
+        thrown.expect(CommandException.class);
+        thrown.expectMessage("Parameter 'missing' is not set");
+
+        LiteralParser.parseCypher("[$missing]", Collections.emptyMap());
+    }
+
+    @Test
+    public void failsOnNumbersWithLeadingZeros() throws CommandException {
+        thrown.expect(CommandException.class);
+        thrown.expectMessage("Numbers with leading zeros are not supported");
+
+        LiteralParser.parseCypher("017", Collections.emptyMap());
+    }
+
+    @Test
+    public void failsOnCypherSyntaxInJson() throws CommandException {
+        thrown.expect(CommandException.class);
+        thrown.expectMessage("Expected a quoted key at position 1");
+
+        LiteralParser.parseJson("{name: 1}");
+    }
+}
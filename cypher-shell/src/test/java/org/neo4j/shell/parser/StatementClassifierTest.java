@@ -0,0 +1,110 @@
+package org.neo4j.shell.parser;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class StatementClassifierTest {
+
+    @Test
+    public void readingStatementsAreReadOnly() {
+        assertTrue(StatementClassifier.isReadOnly("RETURN 1"));
+        assertTrue(StatementClassifier.isReadOnly("MATCH (n:Person)-[:KNOWS]->(m) WHERE n.age > 3 RETURN n, m"));
+        assertTrue(StatementClassifier.isReadOnly("UNWIND range(1, 10) AS x WITH x ORDER BY x RETURN collect(x)"));
+        assertTrue(StatementClassifier.isReadOnly("EXPLAIN MATCH (n) RETURN count(n)"));
+        assertTrue(StatementClassifier.isReadOnly(""));
+    }
+
+    @Test
+    public void updatingStatementsAreNotReadOnly() {
+        assertFalse(StatementClassifier.isReadOnly("CREATE (n)"));
+        assertFalse(StatementClassifier.isReadOnly("match (n) set n.x = 1"));
+        assertFalse(StatementClassifier.isReadOnly("MATCH (n) DETACH DELETE n"));
+        assertFalse(StatementClassifier.isReadOnly("MERGE (n:Person {name: 'Bob'})"));
+        assertFalse(StatementClassifier.isReadOnly("MATCH (n) REMOVE n:Person"));
+        assertFalse(StatementClassifier.isReadOnly("DROP INDEX ON :Person(name)"));
+        assertFalse(StatementClassifier.isReadOnly("MATCH p=(n)-->() FOREACH (x IN nodes(p) | SET x.seen = true)"));
+        assertFalse(StatementClassifier.isReadOnly("USING PERIODIC COMMIT LOAD CSV FROM 'file:///x.csv' AS l " +
+                "CREATE (:Line)"));
+    }
+
+    @Test
+    public void procedureCallsAreNotReadOnly() {
+        assertFalse(StatementClassifier.isReadOnly("CALL db.labels()"));
+        assertFalse(StatementClassifier.isReadOnly("MATCH (n) CALL apoc.do.something(n) YIELD x RETURN x"));
+    }
+
+    @Test
+    public void keywordsInStringsAndCommentsAreIgnored() {
+        assertTrue(StatementClassifier.isReadOnly("MATCH (n) WHERE n.name = 'CREATE' RETURN n"));
+        assertTrue(StatementClassifier.isReadOnly("MATCH (n) WHERE n.name = \"it's a SET\" RETURN n"));
+        assertTrue(StatementClassifier.isReadOnly("MATCH (n) WHERE n.name = 'escaped \\' DELETE' RETURN n"));
+        assertTrue(StatementClassifier.isReadOnly("// CREATE (n)\nRETURN 1"));
+        assertTrue(StatementClassifier.isReadOnly("MATCH (n) /* DETACH DELETE n */ RETURN n"));
+        assertTrue(StatementClassifier.isReadOnly("MATCH (`create`) RETURN `create`"));
+    }
+
+    @Test
+    public void keywordsAsNamesAreIgnored() {
+        assertTrue(StatementClassifier.isReadOnly("MATCH (n:Create)-[:SET]->(m:Merge) RETURN n.delete, m"));
+        assertTrue(StatementClassifier.isReadOnly("RETURN {set: 1, remove : 2}"));
+        assertTrue(StatementClassifier.isReadOnly("MATCH (n) WHERE n.x = $create RETURN n"));
+    }
+
+    @Test
+    public void unterminatedStringsAndCommentsDoNotFail() {
+        assertTrue(StatementClassifier.isReadOnly("RETURN 'CREATE"));
+        assertTrue(StatementClassifier.isReadOnly("RETURN 1 /* CREATE"));
+        assertFalse(StatementClassifier.isReadOnly("CREATE (n) RETURN 'oops"));
+    }
+
+    @Test
+    public void schemaChanges() {
+        assertTrue(StatementClassifier.isSchemaChange("CREATE INDEX ON :Person(name)"));
+        assertTrue(StatementClassifier.isSchemaChange("  drop constraint ON (p:Person) ASSERT p.id IS UNIQUE"));
+        assertTrue(StatementClassifier.isSchemaChange("// comment\nCREATE CONSTRAINT ON (p:Person) ASSERT p.id IS UNIQUE"));
+        assertFalse(StatementClassifier.isSchemaChange("CREATE (:Index)"));
+        assertFalse(StatementClassifier.isSchemaChange("MATCH (n) RETURN 'CREATE INDEX'"));
+    }
+
+    @Test
+    public void periodicCommits() {
+        assertTrue(StatementClassifier.isPeriodicCommit("USING PERIODIC COMMIT LOAD CSV FROM 'file:///a.csv' AS l " +
+                "CREATE (:Line)"));
+        assertTrue(StatementClassifier.isPeriodicCommit("/* import */ using periodic commit 500\n" +
+                "LOAD CSV FROM 'x' AS l CREATE (:Line)"));
+        assertTrue(StatementClassifier.isPeriodicCommit("PROFILE USING PERIODIC COMMIT " +
+                "LOAD CSV FROM 'x' AS l RETURN l"));
+        assertFalse(StatementClassifier.isPeriodicCommit("LOAD CSV FROM 'x' AS l CREATE (:Line)"));
+        assertFalse(StatementClassifier.isPeriodicCommit("RETURN 'USING PERIODIC COMMIT'"));
+    }
+
+    @Test
+    public void findsReferencedParameters() {
+        assertEquals(Optional.of(names()), StatementClassifier.referencedParameters("RETURN 1"));
+        assertEquals(Optional.of(names("a", "b", "c d", "e`f", "0")),
+                StatementClassifier.referencedParameters("MATCH (n {x: $a}) WHERE n.y = { b } " +
+                        "RETURN $`c d`, $`e``f`, {0}"));
+        assertEquals(Optional.of(names("a")),
+                StatementClassifier.referencedParameters("RETURN '$quoted', {map: $a} // $comment"));
+        assertEquals(Optional.of(names("x")), StatementClassifier.referencedParameters("CALL db.index(\n$x)"));
+    }
+
+    @Test
+    public void procedureCallsWithoutArgumentsMayUseAnyParameter() {
+        assertEquals(Optional.empty(), StatementClassifier.referencedParameters("CALL db.labels"));
+        assertEquals(Optional.empty(), StatementClassifier.referencedParameters("call `my`.proc YIELD x RETURN $x"));
+        assertEquals(Optional.of(names()), StatementClassifier.referencedParameters("MATCH (n:CALL) RETURN n.call"));
+    }
+
+    private static Set<String> names(String... names) {
+        return new HashSet<>(Arrays.asList(names));
+    }
+}
@@ -0,0 +1,217 @@
+package org.neo4j.shell.prettyprint;
+
+import org.junit.Test;
+import org.neo4j.driver.internal.InternalRecord;
+import org.neo4j.driver.v1.Record;
+import org.neo4j.driver.v1.Value;
+import org.neo4j.driver.v1.Values;
+import org.neo4j.driver.v1.summary.ResultSummary;
+import org.neo4j.shell.state.ListBoltResult;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+public class ArrowOutputFormatterTest {
+    private static final List<String> KEYS = asList("id", "name", "score", "ok");
+
+    @Test
+    public void writesSchemaBatchesAndEndOfStream() {
+        List<Record> records = asList(
+                record(1L, "Bob", 1.5, true),
+                record(2L, null, 2L, false),
+                record(3L, asList(1L, 2L), null, null));
+
+        List<Message> messages = write(2, records);
+
+        assertEquals(4, messages.size());
+        Message schema = messages.get(0);
+        assertEquals(1, schema.headerType());
+        assertEquals(0, schema.body.length);
+        int fields = schema.ref(schema.field(schema.header(), 1));
+        assertEquals(KEYS.size(), schema.buffer.getInt(fields));
+        List<Integer> typeIds = new ArrayList<>();
+        for (int i = 0; i < KEYS.size(); i++) {
+            int field = schema.ref(fields + 4 + 4 * i);
+            assertEquals(KEYS.get(i), schema.string(schema.field(field, 0)));
+            typeIds.add((int) schema.buffer.get(schema.field(field, 2)));
+            assertEquals("children are required", 0, schema.buffer.getInt(schema.ref(schema.field(field, 5))));
+        }
+        assertEquals(asList(2, 5, 3, 6), typeIds);
+        int intType = schema.ref(schema.field(schema.ref(fields + 4), 3));
+        assertEquals(64, schema.buffer.getInt(schema.field(intType, 0)));
+
+        Message first = messages.get(1);
+        assertEquals(3, first.headerType());
+        assertEquals(2, first.buffer.getLong(first.field(first.header(), 0)));
+        assertEquals(asList(1L, 2L), first.longs(1, 2));
+        assertEquals(asList("Bob", ""), first.strings(3, 4, 2));
+        assertEquals(1, first.nullCount(1));
+        assertEquals(asList(1.5, 2.0), first.doubles(6, 2));
+
+        Message second = messages.get(2);
+        assertEquals(1, second.buffer.getLong(second.field(second.header(), 0)));
+        assertEquals(Collections.singletonList(3L), second.longs(1, 1));
+        assertEquals(Collections.singletonList("[1,2]"), second.strings(3, 4, 1));
+        assertEquals(1, second.nullCount(2));
+
+        assertNull(messages.get(3));
+    }
+
+    @Test
+    public void writesOnlyTheSchemaForEmptyResults() {
+        List<Message> messages = write(2, Collections.emptyList());
+
+        assertEquals(2, messages.size());
+        assertEquals(1, messages.get(0).headerType());
+        assertNull(messages.get(1));
+    }
+
+    private List<Message> write(int batchSize, List<Record> records) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        StringWriter text = new StringWriter();
+        ArrowOutputFormatter formatter = new ArrowOutputFormatter(new PrintStream(bytes), batchSize);
+        int rows = formatter.formatAndCount(new ListBoltResult(KEYS, records, mock(ResultSummary.class)),
+                new PrintWriter(text));
+        assertEquals(records.size(), rows);
+        assertEquals("Nothing should be written as text", "", text.toString());
+
+        ByteBuffer stream = ByteBuffer.wrap(bytes.toByteArray()).order(ByteOrder.LITTLE_ENDIAN);
+        List<Message> messages = new ArrayList<>();
+        while (stream.hasRemaining()) {
+            assertEquals(0xFFFFFFFF, stream.getInt());
+            int length = stream.getInt();
+            if (length == 0) {
+                messages.add(null);
+                continue;
+            }
+            assertEquals("metadata is padded so the body is aligned", 0, length % 8);
+            byte[] metadata = new byte[length];
+            stream.get(metadata);
+            Message message = new Message(ByteBuffer.wrap(metadata).order(ByteOrder.LITTLE_ENDIAN));
+            byte[] body = new byte[(int) message.buffer.getLong(message.field(message.root(), 3))];
+            stream.get(body);
+            message.body = body;
+            messages.add(message);
+        }
+        return messages;
+    }
+
+    private static Record record(Object... data) {
+        Value[] values = new Value[data.length];
+        for (int i = 0; i < data.length; i++) {
+            values[i] = Values.value(data[i]);
+        }
+        return new InternalRecord(KEYS, values);
+    }
+
+    /**
+     * Reads the FlatBuffers encoded metadata of a message
+     */
+    private static class Message {
+        final ByteBuffer buffer;
+        byte[] body;
+
+        Message(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        int root() {
+            return ref(0);
+        }
+
+        int headerType() {
+            return buffer.get(field(root(), 1));
+        }
+
+        int header() {
+            return ref(field(root(), 2));
+        }
+
+        int ref(int position) {
+            return position + buffer.getInt(position);
+        }
+
+        /**
+         * @return the position of the field in the given slot of the table
+         */
+        int field(int table, int slot) {
+            int vtable = table - buffer.getInt(table);
+            assertEquals("vtables are aligned", 0, vtable % 2);
+            int entry = 4 + 2 * slot;
+            assertTrue("slot " + slot + " is missing", entry < buffer.getShort(vtable));
+            int offset = buffer.getShort(vtable + entry);
+            assertTrue("slot " + slot + " is missing", offset > 0);
+            return table + offset;
+        }
+
+        String string(int position) {
+            int start = ref(position);
+            byte[] text = new byte[buffer.getInt(start)];
+            ((ByteBuffer) buffer.duplicate().position(start + 4)).get(text);
+            return new String(text, StandardCharsets.UTF_8);
+        }
+
+        /**
+         * @return the body of the buffer with the given index in the record batch
+         */
+        ByteBuffer bodyBuffer(int index) {
+            int buffers = ref(field(header(), 2));
+            assertEquals("structs are aligned", 0, (buffers + 4) % 8);
+            long offset = buffer.getLong(buffers + 4 + 16 * index);
+            long length = buffer.getLong(buffers + 4 + 16 * index + 8);
+            assertEquals("buffers are aligned", 0, offset % 8);
+            return ByteBuffer.wrap(body, (int) offset, (int) length).slice().order(ByteOrder.LITTLE_ENDIAN);
+        }
+
+        long nullCount(int column) {
+            int nodes = ref(field(header(), 1));
+            assertEquals("structs are aligned", 0, (nodes + 4) % 8);
+            return buffer.getLong(nodes + 4 + 16 * column + 8);
+        }
+
+        List<Long> longs(int index, int count) {
+            List<Long> values = new ArrayList<>();
+            ByteBuffer data = bodyBuffer(index);
+            for (int i = 0; i < count; i++) {
+                values.add(data.getLong(8 * i));
+            }
+            return values;
+        }
+
+        List<Double> doubles(int index, int count) {
+            List<Double> values = new ArrayList<>();
+            ByteBuffer data = bodyBuffer(index);
+            for (int i = 0; i < count; i++) {
+                values.add(data.getDouble(8 * i));
+            }
+            return values;
+        }
+
+        List<String> strings(int offsetsIndex, int dataIndex, int count) {
+            List<String> values = new ArrayList<>();
+            ByteBuffer offsets = bodyBuffer(offsetsIndex);
+            ByteBuffer data = bodyBuffer(dataIndex);
+            for (int i = 0; i < count; i++) {
+                int start = offsets.getInt(4 * i);
+                byte[] text = new byte[offsets.getInt(4 * i + 4) - start];
+                ((ByteBuffer) data.duplicate().position(start)).get(text);
+                values.add(new String(text, StandardCharsets.UTF_8));
+            }
+            return values;
+        }
+    }
+}
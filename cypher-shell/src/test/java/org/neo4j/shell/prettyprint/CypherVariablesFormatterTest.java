@@ -2,35 +2,57 @@ package org.neo4j.shell.prettyprint;
 
 import org.junit.Test;
 
+import java.util.regex.Pattern;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
 
 public class CypherVariablesFormatterTest {
 
-    private final CypherVariablesFormatter formatter = new CypherVariablesFormatter();
-
     @Test
     public void escapeNonAlphanumericStrings() throws Exception {
-        assertThat(formatter.escape("abc12_A"), is("abc12_A"));
-        assertThat(formatter.escape("Åbc12_A"), is("Åbc12_A"));
-        assertThat(formatter.escape("\0"), is("`\0`"));
-        assertThat(formatter.escape("\n"), is("`\n`"));
-        assertThat(formatter.escape("comma, separated"), is("`comma, separated`"));
-        assertThat(formatter.escape("escaped content `back ticks #"), is("`escaped content ``back ticks #`"));
-        assertThat(formatter.escape("escaped content two `back `ticks"),
+        assertThat(CypherVariablesFormatter.escape("abc12_A"), is("abc12_A"));
+        assertThat(CypherVariablesFormatter.escape("Åbc12_A"), is("Åbc12_A"));
+        assertThat(CypherVariablesFormatter.escape("\0"), is("`\0`"));
+        assertThat(CypherVariablesFormatter.escape("\n"), is("`\n`"));
+        assertThat(CypherVariablesFormatter.escape("comma, separated"), is("`comma, separated`"));
+        assertThat(CypherVariablesFormatter.escape("escaped content `back ticks #"),
+                is("`escaped content ``back ticks #`"));
+        assertThat(CypherVariablesFormatter.escape("escaped content two `back `ticks"),
                 is("`escaped content two ``back ``ticks`"));
     }
 
     @Test
     public void reEscapeNonAlphanumericStrings() throws Exception {
-        assertThat(formatter.unescapedCypherVariable("abc12_A"), is("abc12_A"));
-        assertThat(formatter.unescapedCypherVariable("Åbc12_A"), is("Åbc12_A"));
-        assertThat(formatter.unescapedCypherVariable("`\0`"), is("\0"));
-        assertThat(formatter.unescapedCypherVariable("`\n`"), is("\n"));
-        assertThat(formatter.unescapedCypherVariable("`comma, separated`"), is("comma, separated"));
-        assertThat(formatter.unescapedCypherVariable("`escaped content ``back ticks #`"),
+        assertThat(CypherVariablesFormatter.unescapedCypherVariable("abc12_A"), is("abc12_A"));
+        assertThat(CypherVariablesFormatter.unescapedCypherVariable("Åbc12_A"), is("Åbc12_A"));
+        assertThat(CypherVariablesFormatter.unescapedCypherVariable("`\0`"), is("\0"));
+        assertThat(CypherVariablesFormatter.unescapedCypherVariable("`\n`"), is("\n"));
+        assertThat(CypherVariablesFormatter.unescapedCypherVariable("`comma, separated`"), is("comma, separated"));
+        assertThat(CypherVariablesFormatter.unescapedCypherVariable("`escaped content ``back ticks #`"),
                 is("escaped content `back ticks #"));
-        assertThat(formatter.unescapedCypherVariable("`escaped content two ``back ``ticks`"),
+        assertThat(CypherVariablesFormatter.unescapedCypherVariable("`escaped content two ``back ``ticks`"),
                 is("escaped content two `back `ticks"));
     }
+
+    @Test
+    public void recognisesTheSameVariablesAsTheGrammar() throws Exception {
+        Pattern alphaNumeric = Pattern.compile("^[\\p{L}_][\\p{L}0-9_]*");
+        for (String variable : asList("", "a", "_", "1a", "a1", "a-b", "\u00c5\u00e4", "a\u0663", "\ud801\udc00x",
+                "x\ud801", "a b", "\u2160")) {
+            assertThat(variable, CypherVariablesFormatter.isAlphaNumeric(variable),
+                    is(alphaNumeric.matcher(variable).matches()));
+        }
+    }
+
+    @Test
+    public void escapesRepeatedVariablesFromTheCache() throws Exception {
+        assertThat(CypherVariablesFormatter.escape("cached key"), is("`cached key`"));
+        assertThat(CypherVariablesFormatter.escape("cached key"), is("`cached key`"));
+
+        assertThat(CypherVariablesFormatter.cacheStatistics(),
+                containsString("Escaped variables: "));
+    }
 }
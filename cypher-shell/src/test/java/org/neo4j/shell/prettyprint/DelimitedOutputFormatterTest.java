@@ -0,0 +1,96 @@
+package org.neo4j.shell.prettyprint;
+
+import org.junit.Test;
+import org.neo4j.driver.internal.InternalNode;
+import org.neo4j.driver.internal.InternalRecord;
+import org.neo4j.driver.v1.Record;
+import org.neo4j.driver.v1.Value;
+import org.neo4j.driver.v1.Values;
+import org.neo4j.driver.v1.summary.ResultSummary;
+import org.neo4j.shell.cli.Format;
+import org.neo4j.shell.state.ListBoltResult;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.Collections;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonMap;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+
+public class DelimitedOutputFormatterTest {
+
+    @Test
+    public void printsHeaderAndRows() {
+        List<String> keys = asList("name", "age", "score");
+
+        String text = format(new PrettyPrinter(Format.CSV), keys, asList(
+                record(keys, "Bob", 42L, 1.5),
+                record(keys, "Alice", null, true)));
+
+        assertEquals(rows("name,age,score", "Bob,42,1.5", "Alice,,true"), text);
+    }
+
+    @Test
+    public void printsOnlyTheHeaderForEmptyResults() {
+        assertEquals(rows("a,b"),
+                format(new PrettyPrinter(Format.CSV), asList("a", "b"), Collections.emptyList()));
+    }
+
+    @Test
+    public void quotesFieldsWithDelimitersQuotesAndLineBreaks() {
+        List<String> keys = asList("a,b", "text");
+
+        String text = format(new PrettyPrinter(Format.CSV), keys,
+                Collections.singletonList(record(keys, "say \"hi\"", "two\nlines")));
+
+        assertEquals(rows("\"a,b\",text", "\"say \"\"hi\"\"\",\"two\nlines\""), text);
+    }
+
+    @Test
+    public void printsCompositeValuesAsJson() {
+        List<String> keys = asList("list", "node");
+        InternalNode node = new InternalNode(1, asList("Person"), singletonMap("name", Values.value("Mark")));
+
+        String text = format(new PrettyPrinter(Format.TSV), keys,
+                Collections.singletonList(record(keys, asList(1L, "a,b"), node)));
+
+        assertEquals(rows("list\tnode",
+                "\"[1,\"\"a,b\"\"]\"\t\"{\"\"id\"\":1,\"\"labels\"\":[\"\"Person\"\"],\"\"properties\"\":{\"\"name\"\":\"\"Mark\"\"}}\""),
+                text);
+    }
+
+    @Test
+    public void usesTheConfiguredDelimiter() {
+        List<String> keys = asList("a", "b");
+
+        String text = format(new PrettyPrinter(new PrettyConfig(Format.CSV, ';', System.out)), keys,
+                Collections.singletonList(record(keys, "x;y", "z,w")));
+
+        assertEquals(rows("a;b", "\"x;y\";z,w"), text);
+    }
+
+    private String format(PrettyPrinter printer, List<String> keys, List<Record> records) {
+        StringWriter text = new StringWriter();
+        printer.format(new ListBoltResult(keys, records, mock(ResultSummary.class)), new PrintWriter(text));
+        return text.toString();
+    }
+
+    private static String rows(String... rows) {
+        StringBuilder text = new StringBuilder();
+        for (String row : rows) {
+            text.append(row).append(System.lineSeparator());
+        }
+        return text.toString();
+    }
+
+    private Record record(List<String> keys, Object... data) {
+        Value[] values = new Value[data.length];
+        for (int i = 0; i < data.length; i++) {
+            values[i] = Values.value(data[i]);
+        }
+        return new InternalRecord(keys, values);
+    }
+}
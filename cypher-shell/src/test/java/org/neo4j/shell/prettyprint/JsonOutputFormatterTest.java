@@ -0,0 +1,91 @@
+package org.neo4j.shell.prettyprint;
+
+import org.junit.Test;
+import org.neo4j.driver.internal.InternalNode;
+import org.neo4j.driver.internal.InternalPath;
+import org.neo4j.driver.internal.InternalRecord;
+import org.neo4j.driver.internal.InternalRelationship;
+import org.neo4j.driver.v1.Record;
+import org.neo4j.driver.v1.Value;
+import org.neo4j.driver.v1.Values;
+import org.neo4j.driver.v1.summary.ResultSummary;
+import org.neo4j.shell.cli.Format;
+import org.neo4j.shell.state.ListBoltResult;
+
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonMap;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+
+public class JsonOutputFormatterTest {
+
+    private final PrettyPrinter jsonPrinter = new PrettyPrinter(Format.JSON);
+
+    @Test
+    public void printsOneObjectPerRecord() {
+        List<String> keys = asList("name", "age");
+        List<Record> records = asList(
+                record(keys, "Bob", 42L),
+                record(keys, "Alice", null));
+
+        assertEquals(asList("{\"name\":\"Bob\",\"age\":42}", "{\"name\":\"Alice\",\"age\":null}"),
+                format(keys, records));
+    }
+
+    @Test
+    public void printsNothingForEmptyResults() {
+        assertEquals(Collections.emptyList(), format(asList("a"), Collections.emptyList()));
+    }
+
+    @Test
+    public void printsNestedValues() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("list", asList(1L, 2.5, true));
+        map.put("quote\"d", "line\nbreak\u0001");
+        List<String> keys = asList("map", "nan");
+
+        assertEquals(
+                Collections.singletonList("{\"map\":{\"list\":[1,2.5,true],\"quote\\\"d\":\"line\\nbreak\\u0001\"}," +
+                        "\"nan\":\"NaN\"}"),
+                format(keys, Collections.singletonList(record(keys, map, Double.NaN))));
+    }
+
+    @Test
+    public void printsGraphEntities() {
+        InternalNode node = new InternalNode(12, asList("Person"), singletonMap("name", Values.value("Mark")));
+        InternalRelationship relationship =
+                new InternalRelationship(24, 12, 12, "TEST", singletonMap("since", Values.value(2016)));
+        List<String> keys = asList("n", "r", "p");
+
+        List<String> lines = format(keys,
+                Collections.singletonList(record(keys, node, relationship, new InternalPath(node, relationship, node))));
+
+        String nodeJson = "{\"id\":12,\"labels\":[\"Person\"],\"properties\":{\"name\":\"Mark\"}}";
+        String relationshipJson = "{\"id\":24,\"type\":\"TEST\",\"start\":12,\"end\":12,\"properties\":{\"since\":2016}}";
+        assertEquals(Collections.singletonList("{\"n\":" + nodeJson + ",\"r\":" + relationshipJson + ",\"p\":" +
+                        "{\"nodes\":[" + nodeJson + "," + nodeJson + "],\"relationships\":[" + relationshipJson + "]}}"),
+                lines);
+    }
+
+    private List<String> format(List<String> keys, List<Record> records) {
+        List<String> lines = new ArrayList<>();
+        jsonPrinter.format(new ListBoltResult(keys, records, mock(ResultSummary.class)),
+                new PrintWriter(new LineWriter(lines::add)));
+        return lines;
+    }
+
+    private Record record(List<String> keys, Object... data) {
+        Value[] values = new Value[data.length];
+        for (int i = 0; i < data.length; i++) {
+            values[i] = Values.value(data[i]);
+        }
+        return new InternalRecord(keys, values);
+    }
+}
@@ -0,0 +1,44 @@
+package org.neo4j.shell.prettyprint;
+
+import org.junit.Test;
+
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+
+public class LineWriterTest {
+    private final List<String> lines = new ArrayList<>();
+    private final LineWriter writer = new LineWriter(lines::add);
+
+    @Test
+    public void printsCompleteLines() {
+        PrintWriter output = new PrintWriter(writer);
+        output.print("a, ");
+        output.print("b\nc");
+        output.print("\r\n\n");
+
+        assertEquals(asList("a, b", "c", ""), lines);
+    }
+
+    @Test
+    public void flushKeepsUnfinishedLines() {
+        PrintWriter output = new PrintWriter(writer);
+        output.print("partial");
+        output.flush();
+
+        assertEquals(Collections.emptyList(), lines);
+    }
+
+    @Test
+    public void closePrintsWhatIsLeft() {
+        PrintWriter output = new PrintWriter(writer);
+        output.print("partial");
+        output.close();
+
+        assertEquals(Collections.singletonList("partial"), lines);
+    }
+}
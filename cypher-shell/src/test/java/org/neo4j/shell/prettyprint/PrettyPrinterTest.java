@@ -2,25 +2,33 @@ package org.neo4j.shell.prettyprint;
 
 import org.junit.Test;
 import org.mockito.Matchers;
+import org.neo4j.driver.internal.InternalRecord;
 import org.neo4j.driver.internal.types.InternalTypeSystem;
 import org.neo4j.driver.v1.Record;
+import org.neo4j.driver.v1.StatementResult;
 import org.neo4j.driver.v1.Value;
 import org.neo4j.driver.v1.Values;
 import org.neo4j.driver.v1.summary.*;
+import org.neo4j.driver.v1.types.Entity;
 import org.neo4j.driver.v1.types.Node;
 import org.neo4j.driver.v1.types.Path;
 import org.neo4j.driver.v1.types.Relationship;
 import org.neo4j.shell.cli.Format;
 import org.neo4j.shell.state.BoltResult;
+import org.neo4j.shell.state.LimitedBoltResult;
+import org.neo4j.shell.state.ListBoltResult;
+import org.neo4j.shell.state.StatementBoltResult;
 
+import java.io.PrintWriter;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.stream.Stream;
 
 import static java.util.Arrays.asList;
-import static java.util.Collections.unmodifiableMap;
 import static org.hamcrest.CoreMatchers.any;
 import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.CoreMatchers.is;
@@ -40,16 +48,14 @@ public class PrettyPrinterTest {
         // given
         ResultSummary resultSummary = mock(ResultSummary.class);
         SummaryCounters summaryCounters = mock(SummaryCounters.class);
-        BoltResult result = mock(BoltResult.class);
 
-        when(result.getRecords()).thenReturn(Collections.emptyList());
-        when(result.getSummary()).thenReturn(resultSummary);
+        BoltResult result = new ListBoltResult(Collections.emptyList(), resultSummary);
         when(resultSummary.counters()).thenReturn(summaryCounters);
         when(summaryCounters.labelsAdded()).thenReturn(1);
         when(summaryCounters.nodesCreated()).thenReturn(10);
 
         // when
-        String actual = verbosePrinter.format(result);
+        String actual = formatResult(verbosePrinter, result);
 
         // then
         assertThat(actual, containsString("Added 10 nodes, Added 1 labels"));
@@ -73,12 +79,10 @@ public class PrettyPrinterTest {
         Map<String, Value> argumentMap = Values.parameters("Version", "3.1", "Planner", "COST", "Runtime", "INTERPRETED").asMap(v -> v);
         when(plan.arguments()).thenReturn(argumentMap);
 
-        BoltResult result = mock(BoltResult.class);
-        when(result.getRecords()).thenReturn(Collections.emptyList());
-        when(result.getSummary()).thenReturn(resultSummary);
+        BoltResult result = new ListBoltResult(Collections.emptyList(), resultSummary);
 
         // when
-        String actual = plainPrinter.format(result);
+        String actual = formatResult(plainPrinter, result);
 
         // then
         String expected =
@@ -110,12 +114,10 @@ public class PrettyPrinterTest {
         Map<String, Value> argumentMap = Values.parameters("Version", "3.1", "Planner", "COST", "Runtime", "INTERPRETED").asMap(v -> v);
         when(plan.arguments()).thenReturn(argumentMap);
 
-        BoltResult result = mock(BoltResult.class);
-        when(result.getRecords()).thenReturn(Collections.emptyList());
-        when(result.getSummary()).thenReturn(resultSummary);
+        BoltResult result = new ListBoltResult(Collections.emptyList(), resultSummary);
 
         // when
-        String actual = plainPrinter.format(result);
+        String actual = formatResult(plainPrinter, result);
 
         // then
         String expected =
@@ -128,10 +130,39 @@ public class PrettyPrinterTest {
         Stream.of(expected.split("\n")).forEach(e -> assertThat(actual, containsString(e)));
     }
 
+    @Test
+    public void printRecordsAsTheyAreConsumed() throws Exception {
+        // given
+        List<String> events = new ArrayList<>();
+        StatementResult statementResult = mock(StatementResult.class);
+        Record record = mock(Record.class);
+        Value value = mock(Value.class);
+
+        when(value.type()).thenReturn(InternalTypeSystem.TYPE_SYSTEM.INTEGER());
+        when(value.toString()).thenReturn("1");
+        when(record.values()).thenReturn(asList(value));
+        when(statementResult.keys()).thenReturn(asList("n"));
+        when(statementResult.hasNext()).thenReturn(true, true, true, false);
+        when(statementResult.next()).thenAnswer(invocation -> {
+            events.add("fetch");
+            return record;
+        });
+        when(statementResult.summary()).thenAnswer(invocation -> {
+            events.add("summary");
+            return mock(ResultSummary.class);
+        });
+
+        // when
+        plainPrinter.format(new StatementBoltResult(statementResult),
+                new PrintWriter(new LineWriter(line -> events.add("print " + line))));
+
+        // then
+        assertThat(events, is(asList("print n", "fetch", "print 1", "fetch", "print 1", "summary")));
+    }
+
     @Test
     public void prettyPrintList() throws Exception {
         // given
-        BoltResult result = mock(BoltResult.class);
 
         Record record1 = mock(Record.class);
         Record record2 = mock(Record.class);
@@ -142,27 +173,25 @@ public class PrettyPrinterTest {
         when(value1.type()).thenReturn(InternalTypeSystem.TYPE_SYSTEM.LIST());
         when(value2.type()).thenReturn(InternalTypeSystem.TYPE_SYSTEM.LIST());
 
-        when(value1.asList(Matchers.anyObject())).thenReturn(asList("val1_1", "val1_2"));
-        when(value2.asList(Matchers.anyObject())).thenReturn(asList("val2_1"));
+        when(value1.values()).thenReturn(asList(Values.value("val1_1"), Values.value("val1_2")));
+        when(value2.values()).thenReturn(asList(Values.value("val2_1")));
 
         when(record1.keys()).thenReturn(asList("col1", "col2"));
         when(record1.values()).thenReturn(asList(value1, value2));
         when(record2.values()).thenReturn(asList(value2));
 
-        when(result.getRecords()).thenReturn(asList(record1, record2));
-        when(result.getSummary()).thenReturn(mock(ResultSummary.class));
+        BoltResult result = new ListBoltResult(asList(record1, record2), mock(ResultSummary.class));
 
         // when
-        String actual = plainPrinter.format(result);
+        String actual = formatResult(plainPrinter, result);
 
         // then
-        assertThat(actual, is("col1, col2\n[val1_1, val1_2], [val2_1]\n[val2_1]"));
+        assertThat(actual, is("col1, col2\n[\"val1_1\", \"val1_2\"], [\"val2_1\"]\n[\"val2_1\"]"));
     }
 
     @Test
     public void prettyPrintNode() throws Exception {
         // given
-        BoltResult result = mock(BoltResult.class);
 
         Record record = mock(Record.class);
         Value value = mock(Value.class);
@@ -176,26 +205,24 @@ public class PrettyPrinterTest {
 
         when(value.asNode()).thenReturn(node);
         when(node.labels()).thenReturn(asList("label1", "label2"));
-        when(node.asMap(anyObject())).thenReturn(unmodifiableMap(propertiesAsMap));
+        mockProperties(node, propertiesAsMap);
 
         when(record.keys()).thenReturn(asList("col1", "col2"));
         when(record.values()).thenReturn(asList(value));
 
-        when(result.getRecords()).thenReturn(asList(record));
-        when(result.getSummary()).thenReturn(mock(ResultSummary.class));
+        BoltResult result = new ListBoltResult(asList(record), mock(ResultSummary.class));
 
         // when
-        String actual = plainPrinter.format(result);
+        String actual = formatResult(plainPrinter, result);
 
         // then
         assertThat(actual, is("col1, col2\n" +
-                "(:label1:label2 {prop2: prop2_value, prop1: prop1_value})"));
+                "(:label1:label2 {prop2: \"prop2_value\", prop1: \"prop1_value\"})"));
     }
 
     @Test
     public void prettyPrintRelationships() throws Exception {
         // given
-        BoltResult result = mock(BoltResult.class);
 
         Record record = mock(Record.class);
         Value value = mock(Value.class);
@@ -209,24 +236,22 @@ public class PrettyPrinterTest {
 
         when(value.asRelationship()).thenReturn(relationship);
         when(relationship.type()).thenReturn("RELATIONSHIP_TYPE");
-        when(relationship.asMap(anyObject())).thenReturn(unmodifiableMap(propertiesAsMap));
+        mockProperties(relationship, propertiesAsMap);
 
         when(record.keys()).thenReturn(asList("rel"));
         when(record.values()).thenReturn(asList(value));
 
-        when(result.getRecords()).thenReturn(asList(record));
-        when(result.getSummary()).thenReturn(mock(ResultSummary.class));
+        BoltResult result = new ListBoltResult(asList(record), mock(ResultSummary.class));
 
         // when
-        String actual = plainPrinter.format(result);
+        String actual = formatResult(plainPrinter, result);
 
         // then
-        assertThat(actual, is("rel\n[:RELATIONSHIP_TYPE {prop2: prop2_value, prop1: prop1_value}]"));
+        assertThat(actual, is("rel\n[:RELATIONSHIP_TYPE {prop2: \"prop2_value\", prop1: \"prop1_value\"}]"));
     }
 
     @Test
     public void printRelationshipsAndNodesWithEscapingForSpecialCharacters() throws Exception {
-        BoltResult result = mock(BoltResult.class);
 
         Record record = mock(Record.class);
         Value relVal = mock(Value.class);
@@ -234,13 +259,13 @@ public class PrettyPrinterTest {
 
         Relationship relationship = mock(Relationship.class);
         HashMap<String, Object> relProp = new HashMap<>();
-        relProp.put("prop1", "\"prop1, value\"");
+        relProp.put("prop1", "prop1, value");
         relProp.put("prop2", "prop2_value");
 
         Node node = mock(Node.class);
         HashMap<String, Object> nodeProp = new HashMap<>();
-        nodeProp.put("prop1", "\"prop1:value\"");
-        nodeProp.put("1prop2", "\"\"");
+        nodeProp.put("prop1", "prop1:value");
+        nodeProp.put("1prop2", "");
         nodeProp.put("ä", "not-escaped");
 
 
@@ -249,32 +274,30 @@ public class PrettyPrinterTest {
 
         when(relVal.asRelationship()).thenReturn(relationship);
         when(relationship.type()).thenReturn("RELATIONSHIP,TYPE");
-        when(relationship.asMap(anyObject())).thenReturn(unmodifiableMap(relProp));
+        mockProperties(relationship, relProp);
 
 
         when(nodeVal.asNode()).thenReturn(node);
         when(node.labels()).thenReturn(asList("label `1", "label2"));
-        when(node.asMap(anyObject())).thenReturn(unmodifiableMap(nodeProp));
+        mockProperties(node, nodeProp);
 
 
         when(record.keys()).thenReturn(asList("rel", "node"));
         when(record.values()).thenReturn(asList(relVal, nodeVal));
 
-        when(result.getRecords()).thenReturn(asList(record));
-        when(result.getSummary()).thenReturn(mock(ResultSummary.class));
+        BoltResult result = new ListBoltResult(asList(record), mock(ResultSummary.class));
 
         // when
-        String actual = plainPrinter.format(result);
+        String actual = formatResult(plainPrinter, result);
 
         // then
-        assertThat(actual, is("rel, node\n[:`RELATIONSHIP,TYPE` {prop2: prop2_value, prop1: \"prop1, value\"}], " +
-                "(:`label ``1`:label2 {prop1: \"prop1:value\", `1prop2`: \"\", ä: not-escaped})"));
+        assertThat(actual, is("rel, node\n[:`RELATIONSHIP,TYPE` {prop2: \"prop2_value\", prop1: \"prop1, value\"}], " +
+                "(:`label ``1`:label2 {prop1: \"prop1:value\", `1prop2`: \"\", ä: \"not-escaped\"})"));
     }
 
     @Test
     public void prettyPrintPaths() throws Exception {
         // given
-        BoltResult result = mock(BoltResult.class);
 
         Record record = mock(Record.class);
         Value value = mock(Value.class);
@@ -286,6 +309,8 @@ public class PrettyPrinterTest {
         when(start.id()).thenReturn(1l);
 
         Node middle = mock(Node.class);
+
+        when(middle.keys()).thenReturn(Collections.emptyList());
         when(middle.labels()).thenReturn(asList("middle"));
         when(middle.id()).thenReturn(2l);
 
@@ -299,6 +324,8 @@ public class PrettyPrinterTest {
         when(path.start()).thenReturn(start);
 
         Relationship relationship = mock(Relationship.class);
+
+        when(relationship.keys()).thenReturn(Collections.emptyList());
         when(relationship.type()).thenReturn("RELATIONSHIP_TYPE");
         when(relationship.startNodeId()).thenReturn(1l).thenReturn(3l);
 
@@ -316,37 +343,39 @@ public class PrettyPrinterTest {
         when(value.type()).thenReturn(InternalTypeSystem.TYPE_SYSTEM.PATH());
         when(value.asPath()).thenReturn(path);
         when(path.iterator()).thenReturn(asList(segment1, segment2).iterator());
-        when(start.asMap(anyObject())).thenReturn(unmodifiableMap(startProperties));
-        when(end.asMap(anyObject())).thenReturn(unmodifiableMap(endProperties));
+        mockProperties(start, startProperties);
+        mockProperties(end, endProperties);
 
         when(record.keys()).thenReturn(asList("path"));
         when(record.values()).thenReturn(asList(value));
 
-        when(result.getRecords()).thenReturn(asList(record));
-        when(result.getSummary()).thenReturn(mock(ResultSummary.class));
+        BoltResult result = new ListBoltResult(asList(record), mock(ResultSummary.class));
 
         // when
-        String actual = plainPrinter.format(result);
+        String actual = formatResult(plainPrinter, result);
 
         // then
         assertThat(actual, is("path\n" +
-                "(:start {prop1: prop1_value})-[:RELATIONSHIP_TYPE]->" +
-                "(:middle)<-[:RELATIONSHIP_TYPE]-(:end {prop2: prop2_value})"));
+                "(:start {prop1: \"prop1_value\"})-[:RELATIONSHIP_TYPE]->" +
+                "(:middle)<-[:RELATIONSHIP_TYPE]-(:end {prop2: \"prop2_value\"})"));
     }
 
     @Test
     public void prettyPrintSingleNodePath() throws Exception {
         // given
-        BoltResult result = mock(BoltResult.class);
 
         Record record = mock(Record.class);
         Value value = mock(Value.class);
 
         Node start = mock(Node.class);
+
+        when(start.keys()).thenReturn(Collections.emptyList());
         when(start.labels()).thenReturn(asList("start"));
         when(start.id()).thenReturn(1l);
 
         Node end = mock(Node.class);
+
+        when(end.keys()).thenReturn(Collections.emptyList());
         when(end.labels()).thenReturn(asList("end"));
         when(end.id()).thenReturn(2l);
 
@@ -354,6 +383,8 @@ public class PrettyPrinterTest {
         when(path.start()).thenReturn(start);
 
         Relationship relationship = mock(Relationship.class);
+
+        when(relationship.keys()).thenReturn(Collections.emptyList());
         when(relationship.type()).thenReturn("RELATIONSHIP_TYPE");
         when(relationship.startNodeId()).thenReturn(1l);
 
@@ -370,11 +401,10 @@ public class PrettyPrinterTest {
         when(record.keys()).thenReturn(asList("path"));
         when(record.values()).thenReturn(asList(value));
 
-        when(result.getRecords()).thenReturn(asList(record));
-        when(result.getSummary()).thenReturn(mock(ResultSummary.class));
+        BoltResult result = new ListBoltResult(asList(record), mock(ResultSummary.class));
 
         // when
-        String actual = plainPrinter.format(result);
+        String actual = formatResult(plainPrinter, result);
 
         // then
         assertThat(actual, is("path\n(:start)-[:RELATIONSHIP_TYPE]->(:end)"));
@@ -383,24 +413,31 @@ public class PrettyPrinterTest {
     @Test
     public void prettyPrintThreeSegmentPath() throws Exception {
         // given
-        BoltResult result = mock(BoltResult.class);
 
         Record record = mock(Record.class);
         Value value = mock(Value.class);
 
         Node start = mock(Node.class);
+
+        when(start.keys()).thenReturn(Collections.emptyList());
         when(start.labels()).thenReturn(asList("start"));
         when(start.id()).thenReturn(1l);
 
         Node second = mock(Node.class);
+
+        when(second.keys()).thenReturn(Collections.emptyList());
         when(second.labels()).thenReturn(asList("second"));
         when(second.id()).thenReturn(2l);
 
         Node third = mock(Node.class);
+
+        when(third.keys()).thenReturn(Collections.emptyList());
         when(third.labels()).thenReturn(asList("third"));
         when(third.id()).thenReturn(3l);
 
         Node end = mock(Node.class);
+
+        when(end.keys()).thenReturn(Collections.emptyList());
         when(end.labels()).thenReturn(asList("end"));
         when(end.id()).thenReturn(4l);
 
@@ -408,6 +445,8 @@ public class PrettyPrinterTest {
         when(path.start()).thenReturn(start);
 
         Relationship relationship = mock(Relationship.class);
+
+        when(relationship.keys()).thenReturn(Collections.emptyList());
         when(relationship.type()).thenReturn("RELATIONSHIP_TYPE");
         when(relationship.startNodeId()).thenReturn(1l).thenReturn(3l).thenReturn(3l);
 
@@ -434,15 +473,59 @@ public class PrettyPrinterTest {
         when(record.keys()).thenReturn(asList("path"));
         when(record.values()).thenReturn(asList(value));
 
-        when(result.getRecords()).thenReturn(asList(record));
-        when(result.getSummary()).thenReturn(mock(ResultSummary.class));
+        BoltResult result = new ListBoltResult(asList(record), mock(ResultSummary.class));
 
         // when
-        String actual = plainPrinter.format(result);
+        String actual = formatResult(plainPrinter, result);
 
         // then
         assertThat(actual, is("path\n" +
                 "(:start)-[:RELATIONSHIP_TYPE]->" +
                 "(:second)<-[:RELATIONSHIP_TYPE]-(:third)-[:RELATIONSHIP_TYPE]->(:end)"));
     }
+
+    @Test
+    public void formatsRowsInParallelInTheirOriginalOrder() throws Exception {
+        // given
+        List<String> keys = asList("i", "text");
+        List<Record> records = new ArrayList<>();
+        for (int i = 0; i < 2 * ParallelRows.CHUNK_SIZE + 7; i++) {
+            records.add(new InternalRecord(keys, new Value[]{Values.value(i), Values.value("row " + i)}));
+        }
+        PrettyPrinter parallelPrinter = new PrettyPrinter(new PrettyConfig(Format.PLAIN, ',', System.out, 0, 0, true));
+
+        // when
+        String actual = formatResult(parallelPrinter, new ListBoltResult(keys, records, mock(ResultSummary.class)));
+
+        // then
+        assertThat(actual, is(formatResult(plainPrinter, new ListBoltResult(keys, records, mock(ResultSummary.class)))));
+    }
+
+    @Test
+    public void doesNotWriteTheTruncationNoteIntoTheData() throws Exception {
+        // given
+        List<String> keys = asList("i");
+        List<Record> records = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            records.add(new InternalRecord(keys, new Value[]{Values.value(i)}));
+        }
+        BoltResult result = new LimitedBoltResult(new ListBoltResult(keys, records, mock(ResultSummary.class)), 2, null);
+
+        // when
+        String actual = formatResult(plainPrinter, result);
+
+        // then
+        assertThat(actual, is("i\n0\n1"));
+    }
+
+    private String formatResult(PrettyPrinter printer, BoltResult result) {
+        List<String> lines = new ArrayList<>();
+        printer.format(result, new PrintWriter(new LineWriter(lines::add)));
+        return String.join("\n", lines);
+    }
+
+    private static void mockProperties(Entity entity, Map<String, Object> properties) {
+        when(entity.keys()).thenReturn(properties.keySet());
+        properties.forEach((key, value) -> when(entity.get(key)).thenReturn(Values.value(value)));
+    }
 }
@@ -18,12 +18,14 @@ import org.neo4j.driver.v1.summary.ProfiledPlan;
 import org.neo4j.driver.v1.summary.ResultSummary;
 import org.neo4j.driver.v1.summary.StatementType;
 import org.neo4j.driver.v1.summary.SummaryCounters;
+import org.neo4j.driver.v1.types.Entity;
 import org.neo4j.driver.v1.types.Node;
 import org.neo4j.driver.v1.types.Path;
 import org.neo4j.driver.v1.types.Relationship;
 import org.neo4j.driver.v1.util.Function;
 import org.neo4j.shell.cli.Format;
 import org.neo4j.shell.state.BoltResult;
+import org.neo4j.shell.state.ListBoltResult;
 
 import java.io.PrintWriter;
 import java.io.StringWriter;
@@ -32,7 +34,6 @@ import java.util.stream.Stream;
 
 import static java.util.Arrays.asList;
 import static java.util.Collections.singletonMap;
-import static java.util.Collections.unmodifiableMap;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.StringContains.containsString;
@@ -64,12 +65,10 @@ public class TableOutputFormatTest {
         Map<String, Value> argumentMap = Values.parameters("Version", "3.1", "Planner", "COST", "Runtime", "INTERPRETED").asMap(v -> v);
         when(plan.arguments()).thenReturn(argumentMap);
 
-        BoltResult result = mock(BoltResult.class);
-        when(result.getRecords()).thenReturn(Collections.emptyList());
-        when(result.getSummary()).thenReturn(resultSummary);
+        BoltResult result = new ListBoltResult(Collections.emptyList(), resultSummary);
 
         // when
-        String actual = verbosePrinter.format(result);
+        String actual = formatResult(verbosePrinter, result);
 
         // then
         argumentMap.forEach((k,v) -> {
@@ -81,7 +80,6 @@ public class TableOutputFormatTest {
     @Test
     public void prettyPrintNode() throws Exception {
         // given
-        BoltResult result = mock(BoltResult.class);
 
         Record record = mock(Record.class);
         Value value = mock(Value.class);
@@ -95,7 +93,7 @@ public class TableOutputFormatTest {
 
         when(value.asNode()).thenReturn(node);
         when(node.labels()).thenReturn(asList("label1", "label2"));
-        when(node.asMap(anyObject())).thenReturn(unmodifiableMap(propertiesAsMap));
+        mockProperties(node, propertiesAsMap);
 
         Map<String,Value> recordMap = new LinkedHashMap<>();
         recordMap.put("col1",value);
@@ -107,20 +105,18 @@ public class TableOutputFormatTest {
 
         when(record.values()).thenReturn(asList(value));
 
-        when(result.getRecords()).thenReturn(asList(record));
-        when(result.getSummary()).thenReturn(mock(ResultSummary.class));
+        BoltResult result = new ListBoltResult(asList(record), mock(ResultSummary.class));
 
         // when
-        String actual = verbosePrinter.format(result);
+        String actual = formatResult(verbosePrinter, result);
 
         // then
-        assertThat(actual, containsString("| (:label1:label2 {prop2: prop2_value, prop1: prop1_value}) |"));
+        assertThat(actual, containsString("| (:label1:label2 {prop2: \"prop2_value\", prop1: \"prop1_value\"}) |"));
     }
 
     @Test
     public void prettyPrintRelationships() throws Exception {
         // given
-        BoltResult result = mock(BoltResult.class);
 
         Record record = mock(Record.class);
         Value value = mock(Value.class);
@@ -134,25 +130,23 @@ public class TableOutputFormatTest {
 
         when(value.asRelationship()).thenReturn(relationship);
         when(relationship.type()).thenReturn("RELATIONSHIP_TYPE");
-        when(relationship.asMap(anyObject())).thenReturn(unmodifiableMap(propertiesAsMap));
+        mockProperties(relationship, propertiesAsMap);
 
         when(record.keys()).thenReturn(asList("rel"));
         when(record.get(eq("rel"))).thenReturn(value);
         when(record.values()).thenReturn(asList(value));
         when(record.asMap(anyObject())).thenReturn(Collections.singletonMap("rel",value));
-        when(result.getRecords()).thenReturn(asList(record));
-        when(result.getSummary()).thenReturn(mock(ResultSummary.class));
+        BoltResult result = new ListBoltResult(asList(record), mock(ResultSummary.class));
 
         // when
-        String actual = verbosePrinter.format(result);
+        String actual = formatResult(verbosePrinter, result);
 
         // then
-        assertThat(actual, containsString("| [:RELATIONSHIP_TYPE {prop2: prop2_value, prop1: prop1_value}] |"));
+        assertThat(actual, containsString("| [:RELATIONSHIP_TYPE {prop2: \"prop2_value\", prop1: \"prop1_value\"}] |"));
     }
 
     @Test
     public void printRelationshipsAndNodesWithEscapingForSpecialCharacters() throws Exception {
-        BoltResult result = mock(BoltResult.class);
 
         Record record = mock(Record.class);
         Value relVal = mock(Value.class);
@@ -160,13 +154,13 @@ public class TableOutputFormatTest {
 
         Relationship relationship = mock(Relationship.class);
         HashMap<String, Object> relProp = new HashMap<>();
-        relProp.put("prop1", "\"prop1, value\"");
+        relProp.put("prop1", "prop1, value");
         relProp.put("prop2", "prop2_value");
 
         Node node = mock(Node.class);
         HashMap<String, Object> nodeProp = new HashMap<>();
-        nodeProp.put("prop1", "\"prop1:value\"");
-        nodeProp.put("1prop2", "\"\"");
+        nodeProp.put("prop1", "prop1:value");
+        nodeProp.put("1prop2", "");
         nodeProp.put("ä", "not-escaped");
 
 
@@ -175,12 +169,12 @@ public class TableOutputFormatTest {
 
         when(relVal.asRelationship()).thenReturn(relationship);
         when(relationship.type()).thenReturn("RELATIONSHIP,TYPE");
-        when(relationship.asMap(anyObject())).thenReturn(unmodifiableMap(relProp));
+        mockProperties(relationship, relProp);
 
 
         when(nodeVal.asNode()).thenReturn(node);
         when(node.labels()).thenReturn(asList("label `1", "label2"));
-        when(node.asMap(anyObject())).thenReturn(unmodifiableMap(nodeProp));
+        mockProperties(node, nodeProp);
 
 
         Map<String,Value> recordMap = new LinkedHashMap<>();
@@ -194,15 +188,14 @@ public class TableOutputFormatTest {
 
         when(record.values()).thenReturn(asList(relVal, nodeVal));
 
-        when(result.getRecords()).thenReturn(asList(record));
-        when(result.getSummary()).thenReturn(mock(ResultSummary.class));
+        BoltResult result = new ListBoltResult(asList(record), mock(ResultSummary.class));
 
         // when
-        String actual = verbosePrinter.format(result);
+        String actual = formatResult(verbosePrinter, result);
 
         // then
-        assertThat(actual, containsString("| [:`RELATIONSHIP,TYPE` {prop2: prop2_value, prop1: \"prop1, value\"}] |"));
-        assertThat(actual, containsString("| (:`label ``1`:label2 {prop1: \"prop1:value\", `1prop2`: \"\", ä: not-escaped})"));
+        assertThat(actual, containsString("| [:`RELATIONSHIP,TYPE` {prop2: \"prop2_value\", prop1: \"prop1, value\"}] |"));
+        assertThat(actual, containsString("| (:`label ``1`:label2 {prop1: \"prop1:value\", `1prop2`: \"\", ä: \"not-escaped\"})"));
     }
 
     @Test
@@ -229,6 +222,157 @@ public class TableOutputFormatTest {
         assertThat( table, containsString( "| \"b\" | 43 |" ) );
     }
 
+    @Test
+    public void formatsEachCellOnce() throws Exception
+    {
+        // GIVEN
+        StatementResult result = mockResult( asList( "c1", "c2" ), "a", 42, "bcd", 43 );
+        List<Value> formatted = new ArrayList<>();
+        TableOutputFormatter formatter = new TableOutputFormatter()
+        {
+            @Override
+            public StringBuilder formatValue( StringBuilder sb, Value value )
+            {
+                formatted.add( value );
+                return super.formatValue( sb, value );
+            }
+        };
+        StringWriter table = new StringWriter();
+        // WHEN
+        formatter.formatAndCount( new ListBoltResult( result.list(), result.summary() ), new PrintWriter( table ) );
+        // THEN
+        assertThat( formatted.size(), is( 4 ) );
+        assertThat( table.toString(), is( String.join( OutputFormatter.NEWLINE,
+                "+------------+",
+                "| c1    | c2 |",
+                "+------------+",
+                "| \"a\"   | 42 |",
+                "| \"bcd\" | 43 |",
+                "+------------+",
+                "", "" ) ) );
+    }
+
+    @Test
+    public void sizesColumnsBySampledRows() throws Exception
+    {
+        // GIVEN
+        StatementResult result = mockResult( asList( "c1", "c2" ), "a", 42, "bcdef", 4344 );
+        StringWriter table = new StringWriter();
+        // WHEN
+        int rows = new TableOutputFormatter( 1 ).formatAndCount(
+                new ListBoltResult( result.list(), result.summary() ), new PrintWriter( table ) );
+        // THEN
+        assertThat( rows, is( 2 ) );
+        assertThat( table.toString(), is( String.join( OutputFormatter.NEWLINE,
+                "+----------+",
+                "| c1  | c2 |",
+                "+----------+",
+                "| \"a\" | 42 |",
+                "| \"b\u2026 | 4\u2026 |",
+                "+----------+",
+                "", "" ) ) );
+    }
+
+    @Test
+    public void capsColumnsWithoutFormattingWholeValues() throws Exception
+    {
+        // GIVEN
+        char[] huge = new char[1_000_000];
+        Arrays.fill( huge, 'x' );
+        StatementResult result = mockResult( asList( "a long name", "c2" ), new String( huge ),
+                asList( "say \"hi\"", 2, 3 ), "b", 4 );
+        StringBuilder longest = new StringBuilder();
+        TableOutputFormatter formatter = new TableOutputFormatter( 0, 6 )
+        {
+            @Override
+            public StringBuilder formatValue( StringBuilder sb, Value value )
+            {
+                super.formatValue( sb, value );
+                if ( sb.length() > longest.length() )
+                {
+                    longest.replace( 0, longest.length(), sb.toString() );
+                }
+                return sb;
+            }
+        };
+        StringWriter table = new StringWriter();
+        // WHEN
+        formatter.formatAndCount( new ListBoltResult( result.list(), result.summary() ), new PrintWriter( table ) );
+        // THEN
+        // One character past the cap tells that a value was cut, and an escaped quote may take one more
+        assertThat( longest.length(), is( 8 ) );
+        assertThat( table.toString(), is( String.join( OutputFormatter.NEWLINE,
+                "+-----------------+",
+                "| a lon\u2026 | c2     |",
+                "+-----------------+",
+                "| \"xxxx\u2026 | [\"say\u2026 |",
+                "| \"b\"    | 4      |",
+                "+-----------------+",
+                "", "" ) ) );
+    }
+
+    @Test
+    public void marksOnlyCellsWhichWereCut() throws Exception
+    {
+        // GIVEN
+        StatementResult result = mockResult( asList( "c1" ), "1234", "12345", "123456" );
+        StringWriter table = new StringWriter();
+        // WHEN
+        new TableOutputFormatter( 0, 6 ).formatAndCount( new ListBoltResult( result.list(), result.summary() ),
+                new PrintWriter( table ) );
+        // THEN
+        assertThat( table.toString(), is( String.join( OutputFormatter.NEWLINE,
+                "+--------+",
+                "| c1     |",
+                "+--------+",
+                "| \"1234\" |",
+                "| \"1234\u2026 |",
+                "| \"1234\u2026 |",
+                "+--------+",
+                "", "" ) ) );
+    }
+
+    @Test
+    public void formatsStringsInFullWithoutACap() throws Exception
+    {
+        // GIVEN
+        StatementResult result = mockResult( asList( "c1" ), "say \"hi\"" );
+        // WHEN
+        String table = formatResult( result );
+        // THEN
+        assertThat( table, containsString( "| \"say \\\"hi\\\"\" |" ) );
+    }
+
+    @Test
+    public void formatsRowsInParallelInTheirOriginalOrder() throws Exception
+    {
+        // GIVEN
+        List<String> keys = asList( "i", "text" );
+        List<Record> records = new ArrayList<>();
+        for ( int i = 0; i < 2 * ParallelRows.CHUNK_SIZE + 7; i++ )
+        {
+            records.add( new InternalRecord( keys, new Value[]{Values.value( i ), Values.value( "row " + i )} ) );
+        }
+        // WHEN
+        String sequential = formatTable( new TableOutputFormatter( 0, 0, false ), keys, records );
+        String parallel = formatTable( new TableOutputFormatter( 0, 0, true ), keys, records );
+        String sampled = formatTable( new TableOutputFormatter( 10, 0, true ), keys, records );
+        // THEN
+        assertThat( parallel, is( sequential ) );
+        assertThat( parallel, containsString( "| 8198 | \"row 8198\" |" ) );
+        String[] sampledLines = sampled.split( OutputFormatter.NEWLINE );
+        assertThat( sampledLines[3 + 10], is( "| \u2026 | \"row 1\u2026 |" ) );
+        assertThat( sampledLines[3 + 8198], is( "| \u2026 | \"row 8\u2026 |" ) );
+    }
+
+    private String formatTable( TableOutputFormatter formatter, List<String> keys, List<Record> records )
+    {
+        StringWriter table = new StringWriter();
+        formatter.formatAndCount( new ListBoltResult( keys, records, mock( ResultSummary.class ) ),
+                new PrintWriter( table ) );
+        return table.toString();
+    }
+
     @Test
     public void formatCollections() throws Exception
     {
@@ -260,7 +404,16 @@ public class TableOutputFormatTest {
     }
 
     private String formatResult(StatementResult result) {
-        return new TableOutputFormatter().format(new BoltResult(result.list(), result.summary()));
+        List<String> lines = new ArrayList<>();
+        new TableOutputFormatter().formatAndCount(new ListBoltResult(result.list(), result.summary()),
+                new PrintWriter(new LineWriter(lines::add)));
+        return String.join("\n", lines);
+    }
+
+    private String formatResult(PrettyPrinter printer, BoltResult result) {
+        List<String> lines = new ArrayList<>();
+        printer.format(result, new PrintWriter(new LineWriter(lines::add)));
+        return String.join("\n", lines);
     }
 
     private StatementResult mockResult(List<String> cols, Object... data) {
@@ -287,4 +440,10 @@ public class TableOutputFormatTest {
         }
         return new InternalRecord(cols, values);
     }
+
+    private static void mockProperties( Entity entity, Map<String, Object> properties )
+    {
+        when( entity.keys() ).thenReturn( properties.keySet() );
+        properties.forEach( ( key, value ) -> when( entity.get( key ) ).thenReturn( Values.value( value ) ) );
+    }
 }
@@ -4,28 +4,41 @@ import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
+import org.mockito.InOrder;
+import org.neo4j.driver.v1.AccessMode;
 import org.neo4j.driver.v1.AuthToken;
 import org.neo4j.driver.v1.Config;
 import org.neo4j.driver.v1.Driver;
 import org.neo4j.driver.v1.Record;
 import org.neo4j.driver.v1.Session;
+import org.neo4j.driver.v1.Statement;
+import org.neo4j.driver.v1.Transaction;
 import org.neo4j.driver.v1.StatementResult;
 import org.neo4j.driver.v1.Value;
+import org.neo4j.driver.v1.exceptions.ClientException;
+import org.neo4j.driver.v1.exceptions.ServiceUnavailableException;
+import org.neo4j.driver.v1.exceptions.SessionExpiredException;
+import org.neo4j.driver.v1.exceptions.TransientException;
 import org.neo4j.driver.v1.summary.ResultSummary;
 import org.neo4j.driver.v1.summary.ServerInfo;
 import org.neo4j.shell.ConnectionConfig;
 import org.neo4j.shell.TriFunction;
+import org.neo4j.shell.cli.AccessModePolicy;
 import org.neo4j.shell.exception.CommandException;
 import org.neo4j.shell.log.Logger;
+import org.neo4j.shell.test.bolt.FakeClusterDriver;
 import org.neo4j.shell.test.bolt.FakeDriver;
 import org.neo4j.shell.test.bolt.FakeSession;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
 
 import static java.util.Arrays.asList;
+import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
@@ -34,10 +47,15 @@ import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
-import static org.mockito.Mockito.anyObject;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -76,7 +94,7 @@ public class BoltStateHandlerTest {
             }
         };
         BoltStateHandler handler = new BoltStateHandler(provider);
-        ConnectionConfig config = new ConnectionConfig(logger, "bolt://", "", -1, "", "", false);
+        ConnectionConfig config = new ConnectionConfig("bolt://", "", -1, "", "", false);
         handler.connect(config);
 
         assertEquals("", handler.getServerVersion());
@@ -87,7 +105,7 @@ public class BoltStateHandlerTest {
         Driver driverMock = stubVersionInAnOpenSession(mock(StatementResult.class), mock(Session.class), "Neo4j/9.4.1-ALPHA");
 
         BoltStateHandler handler = new BoltStateHandler((s, authToken, config) -> driverMock);
-        ConnectionConfig config = new ConnectionConfig(logger, "bolt://", "", -1, "", "", false);
+        ConnectionConfig config = new ConnectionConfig("bolt://", "", -1, "", "", false);
         handler.connect(config);
 
         assertEquals("9.4.1-ALPHA", handler.getServerVersion());
@@ -98,11 +116,11 @@ public class BoltStateHandlerTest {
         boltStateHandler.connect();
         boltStateHandler.beginTransaction();
 
-        assertNotNull(boltStateHandler.getTransactionStatements());
+        assertNotNull(boltStateHandler.getTransaction());
 
         boltStateHandler.rollbackTransaction();
 
-        assertNull(boltStateHandler.getTransactionStatements());
+        assertNull(boltStateHandler.getTransaction());
     }
 
     @Test
@@ -133,11 +151,11 @@ public class BoltStateHandlerTest {
     public void closeTransactionAfterCommit() throws CommandException {
         boltStateHandler.connect();
         boltStateHandler.beginTransaction();
-        assertNotNull(boltStateHandler.getTransactionStatements());
+        assertNotNull(boltStateHandler.getTransaction());
 
         boltStateHandler.commitTransaction();
 
-        assertNull(boltStateHandler.getTransactionStatements());
+        assertNull(boltStateHandler.getTransaction());
     }
 
     @Test
@@ -161,64 +179,95 @@ public class BoltStateHandlerTest {
     }
 
     @Test
-    public void beginNeedsToInitialiseTransactionStatements() throws CommandException {
+    public void beginNeedsToOpenATransaction() throws CommandException {
         boltStateHandler.connect();
 
         boltStateHandler.beginTransaction();
-        assertNotNull(boltStateHandler.getTransactionStatements());
+        assertNotNull(boltStateHandler.getTransaction());
     }
 
     @Test
-    public void commitPurgesTheTransactionStatementsAndCollectsResults() throws CommandException {
+    public void statementsInATransactionRunImmediatelyAndAreCommittedOnTheServer() throws CommandException {
         Session sessionMock = mock(Session.class);
+        Transaction txMock = mock(Transaction.class);
+        StatementResult resultMock = mock(StatementResult.class);
         Driver driverMock = stubVersionInAnOpenSession(mock(StatementResult.class), sessionMock, "neo4j-version");
 
-        BoltResult boltResultMock1 = mock(BoltResult.class);
-        BoltResult boltResultMock2 = mock(BoltResult.class);
+        when(sessionMock.beginTransaction()).thenReturn(txMock);
+        when(txMock.isOpen()).thenReturn(true);
+        when(txMock.run(any(Statement.class))).thenReturn(resultMock);
 
-        Record record1 = mock(Record.class);
-        Record record2 = mock(Record.class);
-        Record record3 = mock(Record.class);
-        Value val1 = mock(Value.class);
-        Value val2 = mock(Value.class);
-        Value str1Val = mock(Value.class);
-        Value str2Val = mock(Value.class);
+        OfflineBoltStateHandler boltStateHandler = new OfflineBoltStateHandler(driverMock);
+        boltStateHandler.connect();
+        boltStateHandler.beginTransaction();
 
-        when(boltResultMock1.getRecords()).thenReturn(asList(record1, record2));
-        when(boltResultMock2.getRecords()).thenReturn(asList(record3));
+        Optional<BoltResult> result = boltStateHandler.runCypher("UNWIND [1,2] as num RETURN *", Collections.emptyMap());
 
-        when(str1Val.toString()).thenReturn("str1");
-        when(str2Val.toString()).thenReturn("str2");
-        when(val1.toString()).thenReturn("1");
-        when(val2.toString()).thenReturn("2");
+        assertTrue(result.isPresent());
+        verify(txMock).run(any(Statement.class));
+        verify(sessionMock, never()).run(any(Statement.class));
 
-        when(record1.get(0)).thenReturn(val1);
-        when(record2.get(0)).thenReturn(val2);
+        boltStateHandler.commitTransaction();
 
-        when(record3.get(0)).thenReturn(str1Val);
-        when(record3.get(1)).thenReturn(str2Val);
-        when(sessionMock.writeTransaction(anyObject())).thenReturn(asList(boltResultMock1, boltResultMock2));
+        InOrder inOrder = inOrder(txMock);
+        inOrder.verify(txMock).success();
+        inOrder.verify(txMock).close();
+        assertNull(boltStateHandler.getTransaction());
+    }
+
+    @Test
+    public void commitOfAFailedTransactionRollsBackAndReportsIt() throws CommandException {
+        Session sessionMock = mock(Session.class);
+        Transaction txMock = mock(Transaction.class);
+        Driver driverMock = stubVersionInAnOpenSession(mock(StatementResult.class), sessionMock, "neo4j-version");
+
+        StatementResult failing = mock(StatementResult.class);
+        when(failing.hasNext()).thenThrow(new ClientException("Neo.ClientError.Statement.SyntaxError", "Invalid"));
+        when(sessionMock.beginTransaction()).thenReturn(txMock);
+        when(txMock.run(any(Statement.class))).thenReturn(failing);
+        // like the driver, which leaves the transaction open when a statement in it fails on the server
+        when(txMock.isOpen()).thenReturn(true);
 
         OfflineBoltStateHandler boltStateHandler = new OfflineBoltStateHandler(driverMock);
         boltStateHandler.connect();
         boltStateHandler.beginTransaction();
-        boltStateHandler.runCypher("UNWIND [1,2] as num RETURN *", Collections.emptyMap());
-        boltStateHandler.runCypher("RETURN \"str1\", \"str2\"", Collections.emptyMap());
+        BoltResult result = boltStateHandler.runCypher("RETURN 1 +", Collections.emptyMap()).get();
+        try {
+            result.iterate().hasNext();
+            fail("Expected the statement to fail");
+        } catch (ClientException e) {
+            assertThat(e.getMessage(), is("Invalid"));
+        }
 
-        Optional<List<BoltResult>> boltResultOptional = boltStateHandler.commitTransaction();
-        List<BoltResult> boltResults = boltResultOptional.get();
-        Record actualRecord1 = boltResults.get(0).getRecords().get(0);
-        Record actualRecord2 = boltResults.get(0).getRecords().get(1);
+        try {
+            boltStateHandler.commitTransaction();
+            fail("Expected commit of a failed transaction to throw");
+        } catch (CommandException e) {
+            assertThat(e.getMessage(), containsString("rolled back"));
+        }
+
+        verify(txMock, never()).success();
+        verify(txMock).close();
+        assertNull(boltStateHandler.getTransaction());
+    }
 
-        Record actualRecord3 = boltResults.get(1).getRecords().get(0);
+    @Test
+    public void rollbackRollsBackOnTheServer() throws CommandException {
+        Session sessionMock = mock(Session.class);
+        Transaction txMock = mock(Transaction.class);
+        Driver driverMock = stubVersionInAnOpenSession(mock(StatementResult.class), sessionMock, "neo4j-version");
 
-        assertNull(boltStateHandler.getTransactionStatements());
+        when(sessionMock.beginTransaction()).thenReturn(txMock);
 
-        assertEquals("1", actualRecord1.get(0).toString());
-        assertEquals("2", actualRecord2.get(0).toString());
+        OfflineBoltStateHandler boltStateHandler = new OfflineBoltStateHandler(driverMock);
+        boltStateHandler.connect();
+        boltStateHandler.beginTransaction();
+        boltStateHandler.rollbackTransaction();
 
-        assertEquals("str1", actualRecord3.get(0).toString());
-        assertEquals("str2", actualRecord3.get(1).toString());
+        InOrder inOrder = inOrder(txMock);
+        inOrder.verify(txMock).failure();
+        inOrder.verify(txMock).close();
+        assertNull(boltStateHandler.getTransaction());
     }
 
     @Test
@@ -244,24 +293,25 @@ public class BoltStateHandlerTest {
         boltStateHandler.connect();
         boltStateHandler.beginTransaction();
 
-        assertNotNull("Expected a transaction", boltStateHandler.getTransactionStatements());
+        assertNotNull("Expected a transaction", boltStateHandler.getTransaction());
     }
 
     @Test
     public void shouldRunCypherQuery() throws CommandException {
         Session sessionMock = mock(Session.class);
         StatementResult versionMock = mock(StatementResult.class);
-        BoltResult resultMock = mock(BoltResult.class);
+        StatementResult resultMock = mock(StatementResult.class);
         Record recordMock = mock(Record.class);
         Value valueMock = mock(Value.class);
 
         Driver driverMock = stubVersionInAnOpenSession(versionMock, sessionMock, "neo4j-version");
 
-        when(resultMock.getRecords()).thenReturn(asList(recordMock));
+        when(resultMock.list()).thenReturn(asList(recordMock));
 
         when(valueMock.toString()).thenReturn("999");
         when(recordMock.get(0)).thenReturn(valueMock);
-        when(sessionMock.writeTransaction(anyObject())).thenReturn(asList(resultMock));
+        when(sessionMock.run(any(Statement.class))).thenReturn(resultMock);
+        when(driverMock.session(AccessMode.READ, null)).thenReturn(sessionMock);
 
         OfflineBoltStateHandler boltStateHandler = new OfflineBoltStateHandler(driverMock);
 
@@ -269,7 +319,7 @@ public class BoltStateHandlerTest {
 
         BoltResult boltResult = boltStateHandler.runCypher("RETURN 999",
                 new HashMap<>()).get();
-        verify(sessionMock).writeTransaction(anyObject());
+        verify(sessionMock).run(any(Statement.class));
 
         assertEquals("999", boltResult.getRecords().get(0).get(0).toString());
     }
@@ -278,7 +328,7 @@ public class BoltStateHandlerTest {
     public void shouldExecuteInSessionByDefault() throws CommandException {
         boltStateHandler.connect();
 
-        assertNull("Did not expect a transaction", boltStateHandler.getTransactionStatements());
+        assertNull("Did not expect a transaction", boltStateHandler.getTransaction());
     }
 
     @Test
@@ -301,17 +351,20 @@ public class BoltStateHandlerTest {
         Session sessionMock = mock(Session.class);
         Driver driverMock = stubVersionInAnOpenSession(mock(StatementResult.class), sessionMock, "neo4j-version");
 
+        when(sessionMock.beginTransaction()).thenReturn(mock(Transaction.class));
+
         OfflineBoltStateHandler boltStateHandler = new OfflineBoltStateHandler(driverMock);
 
         boltStateHandler.connect();
         boltStateHandler.beginTransaction();
+        assertNotNull(boltStateHandler.getTransaction());
 
         // when
         boltStateHandler.reset();
 
         // then
         verify(sessionMock).reset();
-        assertNull(boltStateHandler.getTransactionStatements());
+        assertNull(boltStateHandler.getTransaction());
     }
 
     @Test
@@ -336,7 +389,7 @@ public class BoltStateHandlerTest {
     public void turnOffEncryptionIfRequested() throws CommandException {
         RecordingDriverProvider provider = new RecordingDriverProvider();
         BoltStateHandler handler = new BoltStateHandler(provider);
-        ConnectionConfig config = new ConnectionConfig(logger, "bolt://", "", -1, "", "", false);
+        ConnectionConfig config = new ConnectionConfig("bolt://", "", -1, "", "", false);
         handler.connect(config);
         assertEquals(Config.EncryptionLevel.NONE, provider.config.encryptionLevel());
     }
@@ -345,11 +398,330 @@ public class BoltStateHandlerTest {
     public void turnOnEncryptionIfRequested() throws CommandException {
         RecordingDriverProvider provider = new RecordingDriverProvider();
         BoltStateHandler handler = new BoltStateHandler(provider);
-        ConnectionConfig config = new ConnectionConfig(logger, "bolt://", "", -1, "", "", true);
+        ConnectionConfig config = new ConnectionConfig("bolt://", "", -1, "", "", true);
         handler.connect(config);
         assertEquals(Config.EncryptionLevel.REQUIRED, provider.config.encryptionLevel());
     }
 
+    @Test
+    public void readOnlyStatementsRunInAReadSession() throws CommandException {
+        Session sessionMock = mock(Session.class);
+        Session readSessionMock = sessionRunningStatements();
+        Driver driverMock = stubVersionInAnOpenSession(mock(StatementResult.class), sessionMock, "neo4j-version");
+        when(driverMock.session(AccessMode.READ, null)).thenReturn(readSessionMock);
+
+        OfflineBoltStateHandler boltStateHandler = new OfflineBoltStateHandler(driverMock);
+        boltStateHandler.connect();
+
+        boltStateHandler.runCypher("MATCH (n) RETURN n.create", Collections.emptyMap());
+        boltStateHandler.runCypher("MATCH (n) WHERE n.name = 'DELETE me' RETURN n", Collections.emptyMap());
+
+        verify(readSessionMock, times(2)).run(any(Statement.class));
+        verify(sessionMock, never()).run(any(Statement.class));
+        verify(driverMock, times(1)).session(AccessMode.READ, null);
+    }
+
+    @Test
+    public void readOnlyStatementsAreStoppedAfterMaxRows() throws CommandException {
+        Session sessionMock = mock(Session.class);
+        Session readSessionMock = mock(Session.class);
+        StatementResult stream = streaming(5);
+        when(readSessionMock.run(any(Statement.class))).thenReturn(stream);
+        Driver driverMock = stubVersionInAnOpenSession(mock(StatementResult.class), sessionMock, "neo4j-version");
+        when(driverMock.session(AccessMode.READ, null)).thenReturn(readSessionMock);
+
+        OfflineBoltStateHandler boltStateHandler = new OfflineBoltStateHandler(driverMock);
+        boltStateHandler.connect(new ConnectionConfig("bolt://", "", 1, "", "", false, AccessModePolicy.AUTO, 2));
+
+        BoltResult result = boltStateHandler.runCypher("MATCH (n) RETURN n", Collections.emptyMap()).get();
+
+        assertEquals(2, result.getRecords().size());
+        result.getSummary();
+        verify(readSessionMock).reset();
+        assertEquals("Stopped after 2 rows of at least 5, set by --max-rows", result.getTruncationNote());
+    }
+
+    @Test
+    public void writeStatementsAreConsumedAfterMaxRows() throws CommandException {
+        Session sessionMock = mock(Session.class);
+        Driver driverMock = stubVersionInAnOpenSession(mock(StatementResult.class), sessionMock, "neo4j-version");
+        StatementResult stream = streaming(5);
+        when(sessionMock.run(any(Statement.class))).thenReturn(stream);
+
+        OfflineBoltStateHandler boltStateHandler = new OfflineBoltStateHandler(driverMock);
+        boltStateHandler.connect(new ConnectionConfig("bolt://", "", 1, "", "", false, AccessModePolicy.AUTO, 2));
+
+        BoltResult result = boltStateHandler.runCypher("MATCH (n) SET n.x = 1 RETURN n", Collections.emptyMap()).get();
+
+        assertEquals(2, result.getRecords().size());
+        result.getSummary();
+        verify(sessionMock, never()).reset();
+        assertFalse(stream.hasNext());
+        assertEquals("Stopped after 2 rows of 5, set by --max-rows", result.getTruncationNote());
+    }
+
+    @Test
+    public void writeStatementsRunInTheDefaultSession() throws CommandException {
+        Session sessionMock = mock(Session.class);
+        Driver driverMock = stubVersionInAnOpenSession(mock(StatementResult.class), sessionMock, "neo4j-version");
+
+        OfflineBoltStateHandler boltStateHandler = new OfflineBoltStateHandler(driverMock);
+        boltStateHandler.connect();
+
+        boltStateHandler.runCypher("MATCH (n) SET n.x = 1", Collections.emptyMap());
+
+        verify(sessionMock).run(any(Statement.class));
+        verify(driverMock, never()).session(any(AccessMode.class), anyString());
+    }
+
+    @Test
+    public void writeAccessModeRunsReadOnlyStatementsInTheDefaultSession() throws CommandException {
+        Session sessionMock = mock(Session.class);
+        Driver driverMock = stubVersionInAnOpenSession(mock(StatementResult.class), sessionMock, "neo4j-version");
+
+        OfflineBoltStateHandler boltStateHandler = new OfflineBoltStateHandler(driverMock);
+        boltStateHandler.connect(AccessModePolicy.WRITE);
+
+        boltStateHandler.runCypher("RETURN 1", Collections.emptyMap());
+
+        verify(sessionMock).run(any(Statement.class));
+        verify(driverMock, never()).session(any(AccessMode.class), anyString());
+    }
+
+    @Test
+    public void readAccessModeRunsEverythingInAReadSession() throws CommandException {
+        Session sessionMock = mock(Session.class);
+        Driver driverMock = stubVersionInAnOpenSession(mock(StatementResult.class), sessionMock, "neo4j-version");
+        when(driverMock.session(AccessMode.READ)).thenReturn(sessionMock);
+
+        OfflineBoltStateHandler boltStateHandler = new OfflineBoltStateHandler(driverMock);
+        boltStateHandler.connect(AccessModePolicy.READ);
+
+        boltStateHandler.runCypher("CREATE (n)", Collections.emptyMap());
+
+        verify(driverMock).session(AccessMode.READ);
+        verify(driverMock, never()).session();
+        verify(sessionMock).run(any(Statement.class));
+    }
+
+    @Test
+    public void readSessionFollowsTheBookmarkOfTheDefaultSession() throws CommandException {
+        Session sessionMock = mock(Session.class);
+        Session firstReadSession = sessionRunningStatements();
+        Session secondReadSession = sessionRunningStatements();
+        Driver driverMock = stubVersionInAnOpenSession(mock(StatementResult.class), sessionMock, "neo4j-version");
+        when(driverMock.session(AccessMode.READ, null)).thenReturn(firstReadSession);
+        when(driverMock.session(AccessMode.READ, "bookmark")).thenReturn(secondReadSession);
+
+        OfflineBoltStateHandler boltStateHandler = new OfflineBoltStateHandler(driverMock);
+        boltStateHandler.connect();
+
+        boltStateHandler.runCypher("RETURN 1", Collections.emptyMap());
+        when(sessionMock.lastBookmark()).thenReturn("bookmark");
+        boltStateHandler.runCypher("RETURN 2", Collections.emptyMap());
+
+        verify(firstReadSession).run(any(Statement.class));
+        verify(firstReadSession).close();
+        verify(secondReadSession).run(any(Statement.class));
+    }
+
+    @Test
+    public void readsAfterAWriteGetTheBookmarkOfTheWrite() throws CommandException {
+        Session sessionMock = mock(Session.class);
+        Session readSession = sessionRunningStatements();
+        Transaction transaction = mock(Transaction.class);
+        when(transaction.isOpen()).thenReturn(true);
+        when(sessionMock.beginTransaction()).thenReturn(transaction);
+        Driver driverMock = stubVersionInAnOpenSession(mock(StatementResult.class), sessionMock, "neo4j-version");
+        when(driverMock.session(AccessMode.READ, "bookmark")).thenReturn(readSession);
+
+        OfflineBoltStateHandler boltStateHandler = new OfflineBoltStateHandler(driverMock);
+        boltStateHandler.connect();
+
+        boltStateHandler.runCypher("CREATE (n)", Collections.emptyMap());
+        boltStateHandler.runCypher("MATCH (n) RETURN n", Collections.emptyMap());
+
+        // Until a transaction has given a bookmark after the write, the read stays in the session of the write
+        verify(sessionMock, times(2)).run(any(Statement.class));
+        verify(driverMock, never()).session(eq(AccessMode.READ), anyString());
+
+        boltStateHandler.beginTransaction();
+        when(sessionMock.lastBookmark()).thenReturn("bookmark");
+        boltStateHandler.commitTransaction();
+        boltStateHandler.runCypher("MATCH (n) RETURN n", Collections.emptyMap());
+
+        verify(driverMock).session(AccessMode.READ, "bookmark");
+        verify(readSession).run(any(Statement.class));
+    }
+
+    @Test
+    public void resetAlsoResetsTheReadSession() throws CommandException {
+        Session sessionMock = mock(Session.class);
+        Session readSessionMock = sessionRunningStatements();
+        Driver driverMock = stubVersionInAnOpenSession(mock(StatementResult.class), sessionMock, "neo4j-version");
+        when(driverMock.session(AccessMode.READ, null)).thenReturn(readSessionMock);
+
+        OfflineBoltStateHandler boltStateHandler = new OfflineBoltStateHandler(driverMock);
+        boltStateHandler.connect();
+        boltStateHandler.runCypher("RETURN 1", Collections.emptyMap());
+        boltStateHandler.reset();
+
+        verify(sessionMock).reset();
+        verify(readSessionMock).reset();
+    }
+
+    @Test
+    public void readsGoToFollowersAndWritesToTheLeaderOfACluster() throws CommandException {
+        FakeClusterDriver cluster = new FakeClusterDriver("core1", "core2", "core3");
+        OfflineBoltStateHandler boltStateHandler = new OfflineBoltStateHandler(cluster);
+        boltStateHandler.connect();
+
+        boltStateHandler.runCypher("MATCH (n) RETURN n", Collections.emptyMap());
+        boltStateHandler.runCypher("MATCH (n) RETURN n", Collections.emptyMap());
+        boltStateHandler.runCypher("CREATE (n)", Collections.emptyMap());
+        boltStateHandler.runCypher("MATCH (n) RETURN n", Collections.emptyMap());
+
+        // The write has no bookmark which a follower could wait for, so the read after it stays on the leader
+        assertEquals(asList("core1: RETURN 1", "core2: MATCH (n) RETURN n", "core3: MATCH (n) RETURN n",
+                "core1: CREATE (n)", "core1: MATCH (n) RETURN n"), cluster.executed());
+    }
+
+    @Test
+    public void writesAreRetriedOnTheNewLeaderAfterAFailover() throws CommandException {
+        FakeClusterDriver cluster = new FakeClusterDriver("core1", "core2", "core3");
+        OfflineBoltStateHandler boltStateHandler = new OfflineBoltStateHandler(cluster);
+        boltStateHandler.connect();
+
+        cluster.failover(1);
+        boltStateHandler.runCypher("CREATE (n)", Collections.emptyMap());
+
+        assertEquals(asList("core1: RETURN 1", "core2: CREATE (n)"), cluster.executed());
+        assertEquals(asList(1000L), boltStateHandler.pauses);
+    }
+
+    @Test
+    public void transientErrorsBeforeTheFirstRecordAreRetried() throws CommandException {
+        Session sessionMock = mock(Session.class);
+        StatementResult failing = mock(StatementResult.class);
+        when(failing.hasNext())
+                .thenThrow(new TransientException("Neo.TransientError.Transaction.DeadlockDetected", "Deadlock"));
+        StatementResult stream = streaming(1);
+        Driver driverMock = stubVersionInAnOpenSession(mock(StatementResult.class), sessionMock, "neo4j-version");
+        when(sessionMock.run(any(Statement.class)))
+                .thenThrow(new TransientException("Neo.TransientError.Transaction.DeadlockDetected", "Deadlock"))
+                .thenReturn(failing)
+                .thenReturn(stream);
+
+        OfflineBoltStateHandler boltStateHandler = new OfflineBoltStateHandler(driverMock);
+        boltStateHandler.connect(AccessModePolicy.WRITE);
+        BoltResult result = boltStateHandler.runCypher("CREATE (n) RETURN n", Collections.emptyMap()).get();
+
+        assertTrue(result.iterate().hasNext());
+        verify(sessionMock, times(3)).run(any(Statement.class));
+        assertEquals(asList(1000L, 2000L), boltStateHandler.pauses);
+    }
+
+    @Test
+    public void terminatedStatementsAreNotRetried() throws CommandException {
+        Session sessionMock = mock(Session.class);
+        Driver driverMock = stubVersionInAnOpenSession(mock(StatementResult.class), sessionMock, "neo4j-version");
+        when(sessionMock.run(any(Statement.class)))
+                .thenThrow(new TransientException("Neo.TransientError.Transaction.Terminated", "Terminated"));
+
+        OfflineBoltStateHandler boltStateHandler = new OfflineBoltStateHandler(driverMock);
+        boltStateHandler.connect(AccessModePolicy.WRITE);
+
+        try {
+            boltStateHandler.runCypher("CREATE (n)", Collections.emptyMap());
+            fail("Expected the termination to be reported");
+        } catch (TransientException e) {
+            verify(sessionMock, times(1)).run(any(Statement.class));
+            assertTrue(boltStateHandler.pauses.isEmpty());
+        }
+    }
+
+    @Test
+    public void retriesGiveUpAfterThirtySeconds() throws CommandException {
+        Session sessionMock = mock(Session.class);
+        Driver driverMock = stubVersionInAnOpenSession(mock(StatementResult.class), sessionMock, "neo4j-version");
+        when(sessionMock.run(any(Statement.class))).thenThrow(new ServiceUnavailableException("down"));
+
+        OfflineBoltStateHandler boltStateHandler = new OfflineBoltStateHandler(driverMock);
+        boltStateHandler.connect(AccessModePolicy.WRITE);
+
+        try {
+            boltStateHandler.runCypher("CREATE (n)", Collections.emptyMap());
+            fail("Expected the unavailable server to be reported");
+        } catch (ServiceUnavailableException e) {
+            verify(sessionMock, times(5)).run(any(Statement.class));
+            assertEquals(asList(1000L, 2000L, 4000L, 8000L), boltStateHandler.pauses);
+        }
+    }
+
+    @Test
+    public void statementsInATransactionAreNotRetriedAfterAFailover() throws CommandException {
+        Session sessionMock = mock(Session.class);
+        Transaction txMock = mock(Transaction.class);
+        Driver driverMock = stubVersionInAnOpenSession(mock(StatementResult.class), sessionMock, "neo4j-version");
+        when(sessionMock.beginTransaction()).thenReturn(txMock);
+        when(txMock.run(any(Statement.class))).thenThrow(new SessionExpiredException("gone"));
+
+        OfflineBoltStateHandler boltStateHandler = new OfflineBoltStateHandler(driverMock);
+        boltStateHandler.connect();
+        boltStateHandler.beginTransaction();
+
+        try {
+            boltStateHandler.runCypher("CREATE (n)", Collections.emptyMap());
+            fail("Expected the session expiry to be reported");
+        } catch (SessionExpiredException e) {
+            verify(txMock, times(1)).run(any(Statement.class));
+        }
+    }
+
+    @Test
+    public void forksHaveTheirOwnSessionOnTheSameDriver() throws CommandException {
+        Session sessionMock = mock(Session.class);
+        Session forkSessionMock = sessionRunningStatements();
+        Driver driverMock = stubVersionInAnOpenSession(mock(StatementResult.class), sessionMock, "neo4j-version");
+
+        OfflineBoltStateHandler boltStateHandler = new OfflineBoltStateHandler(driverMock);
+        boltStateHandler.connect();
+        when(driverMock.session()).thenReturn(forkSessionMock);
+        when(forkSessionMock.isOpen()).thenReturn(true);
+
+        BoltStateHandler fork = boltStateHandler.fork();
+        fork.runCypher("CREATE (n)", Collections.emptyMap());
+        assertEquals("neo4j-version", fork.getServerVersion());
+        fork.disconnectSession();
+
+        verify(forkSessionMock).run(any(Statement.class));
+        verify(forkSessionMock).close();
+        verify(sessionMock, never()).close();
+        verify(driverMock, never()).close();
+    }
+
+    @Test
+    public void forkNeedsToBeConnected() throws CommandException {
+        thrown.expect(CommandException.class);
+        thrown.expectMessage("Not connected to Neo4j");
+
+        boltStateHandler.fork();
+    }
+
+    private StatementResult streaming(int rows) {
+        StatementResult result = mock(StatementResult.class);
+        Iterator<Record> records = Collections.nCopies(rows, mock(Record.class)).iterator();
+        when(result.hasNext()).thenAnswer(invocation -> records.hasNext());
+        when(result.next()).thenAnswer(invocation -> records.next());
+        return result;
+    }
+
+    private Session sessionRunningStatements() {
+        Session sessionMock = mock(Session.class);
+        when(sessionMock.run(any(Statement.class))).thenReturn(mock(StatementResult.class));
+        return sessionMock;
+    }
+
     private Driver stubVersionInAnOpenSession(StatementResult versionMock, Session sessionMock, String value) {
         Driver driverMock = mock(Driver.class);
         ResultSummary resultSummary = mock(ResultSummary.class);
@@ -361,6 +733,7 @@ public class BoltStateHandlerTest {
 
         when(sessionMock.isOpen()).thenReturn(true);
         when(sessionMock.run("RETURN 1")).thenReturn(versionMock);
+        when(sessionMock.run(any(Statement.class))).thenReturn(mock(StatementResult.class));
         when(driverMock.session()).thenReturn(sessionMock);
 
         return driverMock;
@@ -370,13 +743,24 @@ public class BoltStateHandlerTest {
      * Bolt state with faked bolt interactions
      */
     private static class OfflineBoltStateHandler extends BoltStateHandler {
+        private final List<Long> pauses = new ArrayList<>();
 
         public OfflineBoltStateHandler(Driver driver) {
             super((uri, authToken, config) -> driver);
         }
 
+        @Override
+        boolean pause(long millis) {
+            pauses.add(millis);
+            return true;
+        }
+
         public void connect() throws CommandException {
-            connect(new ConnectionConfig(mock(Logger.class), "bolt://", "", 1, "", "", false));
+            connect(AccessModePolicy.AUTO);
+        }
+
+        public void connect(AccessModePolicy accessModePolicy) throws CommandException {
+            connect(new ConnectionConfig("bolt://", "", 1, "", "", false, accessModePolicy));
         }
     }
 
@@ -0,0 +1,140 @@
+package org.neo4j.shell.state;
+
+import org.junit.Test;
+import org.neo4j.driver.internal.InternalRecord;
+import org.neo4j.driver.v1.Record;
+import org.neo4j.driver.v1.Value;
+import org.neo4j.driver.v1.Values;
+import org.neo4j.driver.v1.exceptions.TransientException;
+import org.neo4j.driver.v1.summary.ResultSummary;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class LimitedBoltResultTest {
+    private final ResultSummary summary = mock(ResultSummary.class);
+
+    @Test
+    public void keepsTheFirstRecordsAndCountsTheRest() {
+        List<Record> records = records(5);
+        LimitedBoltResult result = new LimitedBoltResult(new ListBoltResult(records, summary), 2, null);
+
+        assertEquals(records.subList(0, 2), result.getRecords());
+        assertEquals(summary, result.getSummary());
+        assertEquals(3, result.getDiscardedRows());
+        assertEquals("Stopped after 2 rows of 5, set by --max-rows", result.getTruncationNote());
+    }
+
+    @Test
+    public void leavesSmallResultsAlone() {
+        LimitedBoltResult result = new LimitedBoltResult(new ListBoltResult(records(2), summary), 2, () -> {
+            throw new AssertionError("Should not be stopped");
+        });
+
+        assertEquals(2, result.getRecords().size());
+        result.getSummary();
+        assertEquals("", result.getTruncationNote());
+    }
+
+    @Test
+    public void stopsTheStatementAndCountsWhatHadArrived() {
+        AtomicBoolean stopped = new AtomicBoolean();
+        Iterator<Record> arriving = records(4).iterator();
+        BoltResult stream = mock(BoltResult.class);
+        when(stream.iterate()).thenReturn(new Iterator<Record>() {
+            @Override
+            public boolean hasNext() {
+                if (stopped.get() && !arriving.hasNext()) {
+                    throw new TransientException("Neo.TransientError.Transaction.Terminated", "Terminated");
+                }
+                return true;
+            }
+
+            @Override
+            public Record next() {
+                return arriving.next();
+            }
+        });
+        when(stream.getSummary()).thenReturn(summary);
+        LimitedBoltResult result = new LimitedBoltResult(stream, 1, () -> stopped.set(true));
+
+        assertEquals(1, result.getRecords().size());
+        assertFalse(stopped.get());
+        result.getSummary();
+
+        assertTrue(stopped.get());
+        assertEquals(3, result.getDiscardedRows());
+        assertEquals("Stopped after 1 rows of at least 4, set by --max-rows", result.getTruncationNote());
+    }
+
+    @Test
+    public void resultsWhichEndQuietlyWhenStoppedAreStillReportedAsStopped() {
+        AtomicBoolean stopped = new AtomicBoolean();
+        Iterator<Record> arriving = records(3).iterator();
+        BoltResult stream = mock(BoltResult.class);
+        when(stream.iterate()).thenReturn(new Iterator<Record>() {
+            @Override
+            public boolean hasNext() {
+                return arriving.hasNext();
+            }
+
+            @Override
+            public Record next() {
+                return arriving.next();
+            }
+        });
+        when(stream.getSummary())
+                .thenThrow(new TransientException("Neo.TransientError.Transaction.Terminated", "Terminated"))
+                .thenReturn(summary);
+        LimitedBoltResult result = new LimitedBoltResult(stream, 1, () -> stopped.set(true));
+
+        assertEquals(1, result.getRecords().size());
+        assertEquals(summary, result.getSummary());
+
+        assertTrue(stopped.get());
+        assertEquals(2, result.getDiscardedRows());
+        assertEquals("Stopped after 1 rows of at least 3, set by --max-rows", result.getTruncationNote());
+    }
+
+    @Test(expected = TransientException.class)
+    public void reportsFailuresOfStatementsWhichWereNotStopped() {
+        BoltResult stream = mock(BoltResult.class);
+        Iterator<Record> records = records(2).iterator();
+        when(stream.iterate()).thenReturn(new Iterator<Record>() {
+            @Override
+            public boolean hasNext() {
+                if (!records.hasNext()) {
+                    throw new TransientException("Neo.TransientError.General.Failure", "Failed");
+                }
+                return true;
+            }
+
+            @Override
+            public Record next() {
+                return records.next();
+            }
+        });
+        LimitedBoltResult result = new LimitedBoltResult(stream, 1, null);
+
+        result.getRecords();
+        result.getSummary();
+    }
+
+    private static List<Record> records(int count) {
+        List<String> keys = Collections.singletonList("i");
+        List<Record> records = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            records.add(new InternalRecord(keys, new Value[]{Values.value(i)}));
+        }
+        return records;
+    }
+}
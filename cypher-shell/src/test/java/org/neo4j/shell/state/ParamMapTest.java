@@ -0,0 +1,93 @@
+package org.neo4j.shell.state;
+
+import org.junit.Test;
+import org.neo4j.driver.v1.Value;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ParamMapTest {
+    @Test
+    public void settingAParameterLeavesThePreviousVersionUnchanged() {
+        ParamMap first = ParamMap.EMPTY.with("a", 1L);
+        ParamMap second = first.with("b", 2L).with("a", 3L);
+
+        assertEquals(Collections.singletonMap("a", 1L), first);
+        Map<String, Object> expected = new HashMap<>();
+        expected.put("a", 3L);
+        expected.put("b", 2L);
+        assertEquals(expected, second);
+        assertEquals(2, second.size());
+    }
+
+    @Test
+    public void settingTheSameValueKeepsTheVersion() {
+        ParamMap params = ParamMap.EMPTY.with("a", asList(1L, 2L));
+
+        assertSame(params, params.with("a", asList(1L, 2L)));
+    }
+
+    @Test
+    public void holdsManyParametersIncludingEqualHashes() {
+        // "Aa" and "BB" have the same hash code
+        ParamMap params = ParamMap.EMPTY.with("Aa", "first").with("BB", "second").with("nothing", null);
+        Map<String, Object> expected = new HashMap<>();
+        expected.put("Aa", "first");
+        expected.put("BB", "second");
+        expected.put("nothing", null);
+        for (int i = 0; i < 5000; i++) {
+            params = params.with("p" + i, (long) i);
+            expected.put("p" + i, (long) i);
+        }
+
+        assertEquals(expected, params);
+        assertEquals(expected.size(), params.size());
+        assertEquals("second", params.get("BB"));
+        assertTrue(params.containsKey("nothing"));
+        assertNull(params.get("nothing"));
+        assertFalse(params.containsKey("missing"));
+    }
+
+    @Test
+    public void convertsToADriverValueOncePerVersion() {
+        ParamMap params = ParamMap.EMPTY.withAll(Collections.singletonMap("a", 1L));
+
+        Value value = params.asValue();
+
+        assertEquals(1L, value.get("a").asLong());
+        assertSame(value, params.asValue());
+        assertEquals(2L, params.with("a", 2L).asValue().get("a").asLong());
+    }
+
+    @Test
+    public void keepsOnlyTheGivenParameters() {
+        ParamMap params = ParamMap.EMPTY.with("a", 1L).with("b", "two");
+
+        assertEquals(Collections.singletonMap("b", "two"), params.only(new HashSet<>(asList("b", "missing"))));
+        assertEquals("two", params.only(Collections.singleton("b")).asValue().get("b").asString());
+        assertSame(params, params.only(new HashSet<>(asList("a", "b"))));
+        assertSame(ParamMap.EMPTY, params.only(Collections.emptySet()));
+    }
+
+    @Test
+    public void measuresThePackedSize() {
+        assertEquals(1, ParamMap.EMPTY.packedSize());
+        // map header, key "a" and a tiny integer
+        assertEquals(4, ParamMap.EMPTY.with("a", 1L).packedSize());
+        // map header, key "a" and a list header with two tiny integers
+        assertEquals(6, ParamMap.EMPTY.with("a", asList(1L, 2L)).packedSize());
+        // map header, key "a", a 2 byte string header and a 16 character string
+        assertEquals(21, ParamMap.EMPTY.with("a", "0123456789abcdef").packedSize());
+        // map header, key "a" and a float
+        assertEquals(12, ParamMap.EMPTY.with("a", 1.5).packedSize());
+    }
+}
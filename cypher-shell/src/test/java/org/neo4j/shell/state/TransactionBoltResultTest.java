@@ -0,0 +1,46 @@
+package org.neo4j.shell.state;
+
+import org.junit.Test;
+import org.neo4j.driver.v1.Record;
+import org.neo4j.driver.v1.exceptions.ClientException;
+import org.neo4j.driver.v1.summary.ResultSummary;
+
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class TransactionBoltResultTest {
+    private final AtomicBoolean failed = new AtomicBoolean();
+
+    @Test
+    public void successfulResultsAreNotReported() {
+        Record record = mock(Record.class);
+        ResultSummary summary = mock(ResultSummary.class);
+        BoltResult result = new TransactionBoltResult(
+                new ListBoltResult(Collections.singletonList(record), summary), () -> failed.set(true));
+
+        assertEquals(Collections.singletonList(record), result.getRecords());
+        assertEquals(summary, result.getSummary());
+        assertFalse(failed.get());
+    }
+
+    @Test
+    public void failuresWhileConsumingAreReported() {
+        BoltResult failing = mock(BoltResult.class);
+        when(failing.getSummary()).thenThrow(new ClientException("Neo.ClientError.Statement.SyntaxError", "Invalid"));
+        BoltResult result = new TransactionBoltResult(failing, () -> failed.set(true));
+
+        try {
+            result.getSummary();
+            fail("Expected the failure to be thrown");
+        } catch (ClientException e) {
+            assertTrue(failed.get());
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package org.neo4j.shell.test.bolt;
+
+import org.neo4j.driver.v1.AccessMode;
+import org.neo4j.driver.v1.Session;
+import org.neo4j.driver.v1.Statement;
+import org.neo4j.driver.v1.StatementResult;
+import org.neo4j.driver.v1.exceptions.SessionExpiredException;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A fake routing driver in front of a cluster of fake members. Like the real routing driver, sessions pick a member
+ * for every statement from a cached routing table, and a write to a member which is no longer the leader expires the
+ * session and refreshes the routing table.
+ */
+public class FakeClusterDriver extends FakeDriver {
+    private final List<String> members;
+    private final List<String> executed = new ArrayList<>();
+    private int leader = 0;
+    private int routedLeader = 0;
+    private int nextReader = 0;
+
+    public FakeClusterDriver(@Nonnull String... members) {
+        this.members = Arrays.asList(members);
+    }
+
+    /**
+     * Elect a new leader, without the driver knowing about it yet
+     */
+    public void failover(int newLeader) {
+        leader = newLeader;
+    }
+
+    /**
+     * @return executed statements, each prefixed by the member which ran it
+     */
+    @Nonnull
+    public List<String> executed() {
+        return executed;
+    }
+
+    @Override
+    public Session session() {
+        return new ClusterSession(AccessMode.WRITE);
+    }
+
+    @Override
+    public Session session(AccessMode mode) {
+        return new ClusterSession(mode);
+    }
+
+    @Override
+    public Session session(String bookmark) {
+        return new ClusterSession(AccessMode.WRITE);
+    }
+
+    @Override
+    public Session session(AccessMode mode, String bookmark) {
+        return new ClusterSession(mode);
+    }
+
+    private String route(@Nonnull AccessMode mode) {
+        if (mode == AccessMode.WRITE) {
+            return members.get(routedLeader);
+        }
+        // Round robin over everyone but the leader
+        nextReader = (nextReader + 1) % members.size();
+        if (nextReader == routedLeader) {
+            nextReader = (nextReader + 1) % members.size();
+        }
+        return members.get(nextReader);
+    }
+
+    private class ClusterSession extends FakeSession {
+        private final AccessMode mode;
+
+        ClusterSession(@Nonnull AccessMode mode) {
+            this.mode = mode;
+        }
+
+        @Override
+        public StatementResult run(String statementTemplate) {
+            return run(new Statement(statementTemplate));
+        }
+
+        @Override
+        public StatementResult run(Statement statement) {
+            String member = route(mode);
+            if (mode == AccessMode.WRITE && routedLeader != leader) {
+                // The driver forgets the old leader and asks the cluster for a new routing table
+                routedLeader = leader;
+                throw new SessionExpiredException(String.format("Server at %s no longer accepts writes", member));
+            }
+            executed.add(member + ": " + statement.text());
+            return FakeStatementResult.parseStatement("RETURN 1");
+        }
+    }
+}
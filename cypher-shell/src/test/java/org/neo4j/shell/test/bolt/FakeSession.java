@@ -13,7 +13,7 @@ public class FakeSession implements Session {
 
     @Override
     public Transaction beginTransaction() {
-        return null;
+        return new FakeTransaction();
     }
 
     @Override
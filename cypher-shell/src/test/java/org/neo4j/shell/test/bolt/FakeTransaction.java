@@ -0,0 +1,75 @@
+package org.neo4j.shell.test.bolt;
+
+import org.neo4j.driver.v1.Record;
+import org.neo4j.driver.v1.Statement;
+import org.neo4j.driver.v1.StatementResult;
+import org.neo4j.driver.v1.Transaction;
+import org.neo4j.driver.v1.Value;
+import org.neo4j.driver.v1.types.TypeSystem;
+
+import java.util.Map;
+
+/**
+ * A fake transaction which returns fake StatementResults
+ */
+public class FakeTransaction implements Transaction {
+    private boolean open = true;
+    private boolean success = false;
+
+    @Override
+    public void success() {
+        success = true;
+    }
+
+    @Override
+    public void failure() {
+        success = false;
+    }
+
+    @Override
+    public void close() {
+        open = false;
+    }
+
+    /**
+     * @return true if the transaction was marked as successful before it was closed
+     */
+    public boolean isCommitted() {
+        return !open && success;
+    }
+
+    @Override
+    public boolean isOpen() {
+        return open;
+    }
+
+    @Override
+    public StatementResult run(String statementTemplate, Value parameters) {
+        return FakeStatementResult.parseStatement(statementTemplate);
+    }
+
+    @Override
+    public StatementResult run(String statementTemplate, Map<String, Object> statementParameters) {
+        return FakeStatementResult.parseStatement(statementTemplate);
+    }
+
+    @Override
+    public StatementResult run(String statementTemplate, Record statementParameters) {
+        return FakeStatementResult.parseStatement(statementTemplate);
+    }
+
+    @Override
+    public StatementResult run(String statementTemplate) {
+        return FakeStatementResult.parseStatement(statementTemplate);
+    }
+
+    @Override
+    public StatementResult run(Statement statement) {
+        return FakeStatementResult.parseStatement(statement.text());
+    }
+
+    @Override
+    public TypeSystem typeSystem() {
+        return null;
+    }
+}